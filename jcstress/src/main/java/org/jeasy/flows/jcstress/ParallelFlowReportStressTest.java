@@ -0,0 +1,107 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.jcstress;
+
+import org.jeasy.flows.work.DefaultWorkReport;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+import org.jeasy.flows.workflow.ParallelFlowReport;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.LL_Result;
+
+import java.util.Arrays;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+
+/**
+ * Stress tests of the aggregate status, error and context of a {@link ParallelFlowReport}
+ * read from several threads, through its public API.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class ParallelFlowReportStressTest {
+
+    private ParallelFlowReportStressTest() {
+    }
+
+    private static ParallelFlowReport newReport(WorkContext workContext1, WorkContext workContext2) {
+        WorkReport completed = new DefaultWorkReport(WorkStatus.COMPLETED, workContext1);
+        WorkReport failed = new DefaultWorkReport(WorkStatus.FAILED, workContext2, new IllegalStateException("boom"));
+        return new ParallelFlowReport(Arrays.asList(completed, failed));
+    }
+
+    @JCStressTest
+    @Description("The aggregate status and error of a report are the same in all reading threads.")
+    @Outcome(id = "FAILED, boom", expect = ACCEPTABLE, desc = "Both readers see the failed partial report.")
+    @State
+    public static class ConcurrentReads {
+
+        private final ParallelFlowReport report = newReport(new WorkContext(), new WorkContext());
+
+        @Actor
+        public void reader1(LL_Result result) {
+            result.r1 = report.getStatus();
+        }
+
+        @Actor
+        public void reader2(LL_Result result) {
+            Throwable error = report.getError();
+            result.r2 = error == null ? null : error.getMessage();
+        }
+    }
+
+    @JCStressTest
+    @Description("The context of a report can be merged while a late work unit still writes to a partial context.")
+    @Outcome(id = "value1, null", expect = ACCEPTABLE, desc = "Merged before the late write.")
+    @Outcome(id = "value1, value2", expect = ACCEPTABLE, desc = "Merged after the late write.")
+    @State
+    public static class MergeWhileWriting {
+
+        private final WorkContext workContext1 = new WorkContext();
+        private final WorkContext workContext2 = new WorkContext();
+        private final ParallelFlowReport report;
+
+        public MergeWhileWriting() {
+            workContext1.put("key1", "value1");
+            report = newReport(workContext1, workContext2);
+        }
+
+        @Actor
+        public void writer() {
+            workContext2.put("key2", "value2");
+        }
+
+        @Actor
+        public void reader(LL_Result result) {
+            WorkContext merged = report.getWorkContext();
+            result.r1 = merged.get("key1");
+            result.r2 = merged.get("key2");
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.jcstress;
+
+import org.jeasy.flows.work.DefaultWorkReport;
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+import org.jeasy.flows.workflow.ParallelFlow;
+import org.jeasy.flows.workflow.ParallelFlowReport;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.ZZ_Result;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+
+/**
+ * Stress tests of a {@link ParallelFlow} instance shared by concurrent executions, which
+ * exercise the gathering of the futures of work units by its executor.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class ParallelFlowStressTest {
+
+    private static final ExecutorService EXECUTOR_SERVICE = Executors.newFixedThreadPool(4, runnable -> {
+        Thread thread = new Thread(runnable, "easy-flows-jcstress");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Work WORK1 = new EchoWork("work1");
+    private static final Work WORK2 = new EchoWork("work2");
+    private static final Work WORK3 = new EchoWork("work3");
+
+    private ParallelFlowStressTest() {
+    }
+
+    /**
+     * Check that the report of an execution holds one completed report per work unit,
+     * in the order of work units, and that work units wrote to the context of the execution.
+     */
+    private static boolean execute(ParallelFlow parallelFlow, String execution) {
+        WorkContext workContext = new WorkContext();
+        workContext.put("execution", execution);
+        ParallelFlowReport report = parallelFlow.execute(workContext);
+        List<WorkReport> reports = report.getReports();
+        if (reports.size() != 3 || report.getStatus() != WorkStatus.COMPLETED) {
+            return false;
+        }
+        for (int index = 0; index < reports.size(); index++) {
+            if (reports.get(index).getWorkContext() != workContext) {
+                return false;
+            }
+            if (!execution.equals(workContext.get("work" + (index + 1)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @JCStressTest
+    @Description("Concurrent executions of a parallel flow offloading all work units gather their own reports.")
+    @Outcome(id = "true, true", expect = ACCEPTABLE, desc = "Each execution gathered its own reports.")
+    @State
+    public static class Offloaded {
+
+        private final ParallelFlow parallelFlow = ParallelFlow.Builder.aNewParallelFlow()
+                .execute(WORK1, WORK2, WORK3)
+                .with(EXECUTOR_SERVICE)
+                .build();
+
+        @Actor
+        public void execution1(ZZ_Result result) {
+            result.r1 = execute(parallelFlow, "execution1");
+        }
+
+        @Actor
+        public void execution2(ZZ_Result result) {
+            result.r2 = execute(parallelFlow, "execution2");
+        }
+    }
+
+    @JCStressTest
+    @Description("Concurrent executions of an adaptive parallel flow, sharing execution time averages, gather their own reports.")
+    @Outcome(id = "true, true", expect = ACCEPTABLE, desc = "Each execution gathered its own reports.")
+    @State
+    public static class Adaptive {
+
+        private final ParallelFlow parallelFlow = ParallelFlow.Builder.aNewParallelFlow()
+                .execute(WORK1, WORK2, WORK3)
+                .with(EXECUTOR_SERVICE)
+                .adaptive(50, TimeUnit.MICROSECONDS)
+                .build();
+
+        @Actor
+        public void execution1(ZZ_Result result) {
+            result.r1 = execute(parallelFlow, "execution1");
+        }
+
+        @Actor
+        public void execution2(ZZ_Result result) {
+            result.r2 = execute(parallelFlow, "execution2");
+        }
+    }
+
+    private static class EchoWork implements Work {
+
+        private final String name;
+
+        EchoWork(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public WorkReport execute(WorkContext workContext) {
+            workContext.put(name, workContext.get("execution"));
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.jcstress;
+
+import org.jeasy.flows.work.DefaultWorkReport;
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReportPredicate;
+import org.jeasy.flows.work.WorkStatus;
+import org.jeasy.flows.workflow.RepeatFlow;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE_INTERESTING;
+
+/**
+ * Stress tests of a {@link RepeatFlow} executed concurrently.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class RepeatFlowStressTest {
+
+    private static final String ITERATIONS = "iterations";
+
+    private static final Work COUNTING_WORK = workContext -> {
+        workContext.put(ITERATIONS, (Integer) workContext.get(ITERATIONS) + 1);
+        return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+    };
+
+    private RepeatFlowStressTest() {
+    }
+
+    private static int iterations(RepeatFlow repeatFlow) {
+        WorkContext workContext = new WorkContext();
+        workContext.put(ITERATIONS, 0);
+        repeatFlow.execute(workContext);
+        return (Integer) workContext.get(ITERATIONS);
+    }
+
+    @JCStressTest
+    @Description("Concurrent executions of a repeat flow built with times() each repeat the work the given number of times.")
+    @Outcome(id = "3, 3", expect = ACCEPTABLE, desc = "Iterations are counted per execution.")
+    @State
+    public static class Times {
+
+        private final RepeatFlow repeatFlow = RepeatFlow.Builder.aNewRepeatFlow()
+                .repeat(COUNTING_WORK)
+                .times(3)
+                .build();
+
+        @Actor
+        public void execution1(II_Result result) {
+            result.r1 = iterations(repeatFlow);
+        }
+
+        @Actor
+        public void execution2(II_Result result) {
+            result.r2 = iterations(repeatFlow);
+        }
+    }
+
+    @JCStressTest
+    @Description("Concurrent executions of a repeat flow sharing a TimesPredicate share its counter, but always terminate.")
+    @Outcome(id = "2, 2", expect = ACCEPTABLE, desc = "Executions did not interleave.")
+    @Outcome(id = {"1, 3", "3, 1"}, expect = ACCEPTABLE_INTERESTING, desc = "Executions interleaved and shared the counter.")
+    @State
+    public static class SharedTimesPredicate {
+
+        private final RepeatFlow repeatFlow = RepeatFlow.Builder.aNewRepeatFlow()
+                .repeat(COUNTING_WORK)
+                .until(WorkReportPredicate.TimesPredicate.times(2))
+                .build();
+
+        @Actor
+        public void execution1(II_Result result) {
+            result.r1 = iterations(repeatFlow);
+        }
+
+        @Actor
+        public void execution2(II_Result result) {
+            result.r2 = iterations(repeatFlow);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.jcstress;
+
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkContextChange;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+import org.openjdk.jcstress.infra.results.LL_Result;
+
+import java.util.List;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+
+/**
+ * Stress tests of a {@link WorkContext} shared by the work units of a parallel flow.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class WorkContextWritersTest {
+
+    private WorkContextWritersTest() {
+    }
+
+    @JCStressTest
+    @Description("Work units writing distinct keys of a shared context do not lose each other's writes.")
+    @Outcome(id = "1, 2", expect = ACCEPTABLE, desc = "Both writes are visible.")
+    @State
+    public static class DistinctKeys {
+
+        private final WorkContext workContext = new WorkContext();
+
+        @Actor
+        public void writer1() {
+            workContext.put("key1", 1);
+        }
+
+        @Actor
+        public void writer2() {
+            workContext.put("key2", 2);
+        }
+
+        @Arbiter
+        public void arbiter(II_Result result) {
+            result.r1 = valueOf("key1");
+            result.r2 = valueOf("key2");
+        }
+
+        private int valueOf(String key) {
+            Object value = workContext.get(key);
+            return value == null ? -1 : (Integer) value;
+        }
+    }
+
+    @JCStressTest
+    @Description("Work units writing distinct keys of a tracking context record one change each.")
+    @Outcome(id = "2, 2", expect = ACCEPTABLE, desc = "Both writes and both changes are visible.")
+    @State
+    public static class TrackedDistinctKeys {
+
+        private final WorkContext workContext = new WorkContext(true);
+
+        @Actor
+        public void writer1() {
+            workContext.executeStep("writer1", context -> {
+                context.put("key1", 1);
+                return null;
+            });
+        }
+
+        @Actor
+        public void writer2() {
+            workContext.executeStep("writer2", context -> {
+                context.put("key2", 2);
+                return null;
+            });
+        }
+
+        @Arbiter
+        public void arbiter(II_Result result) {
+            int values = 0;
+            for (String key : new String[]{"key1", "key2"}) {
+                if (workContext.get(key) != null) {
+                    values++;
+                }
+            }
+            result.r1 = values;
+            result.r2 = workContext.getChanges().size();
+        }
+    }
+
+    @JCStressTest
+    @Description("The last change of a key written by concurrent work units is the one of its final value.")
+    @Outcome(id = "writer1, writer1", expect = ACCEPTABLE, desc = "writer1 wrote last.")
+    @Outcome(id = "writer2, writer2", expect = ACCEPTABLE, desc = "writer2 wrote last.")
+    @State
+    public static class TrackedSameKey {
+
+        private final WorkContext workContext = new WorkContext(true);
+
+        @Actor
+        public void writer1() {
+            write("writer1");
+        }
+
+        @Actor
+        public void writer2() {
+            write("writer2");
+        }
+
+        private void write(String step) {
+            workContext.executeStep(step, context -> {
+                context.put("key", step);
+                return null;
+            });
+        }
+
+        @Arbiter
+        public void arbiter(LL_Result result) {
+            List<WorkContextChange> changes = workContext.getChanges();
+            result.r1 = workContext.get("key");
+            result.r2 = changes.get(changes.size() - 1).getStep();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.loadtest;
+
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.work.WorkReportPredicate;
+import org.jeasy.flows.workflow.WorkFlow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.jeasy.flows.workflow.ConditionalFlow.Builder.aNewConditionalFlow;
+import static org.jeasy.flows.workflow.ParallelFlow.Builder.aNewParallelFlow;
+import static org.jeasy.flows.workflow.RepeatFlow.Builder.aNewRepeatFlow;
+import static org.jeasy.flows.workflow.SequentialFlow.Builder.aNewSequentialFlow;
+
+/**
+ * Synthetic workflow shapes built from the flows of Easy Flows. The width of a shape is
+ * its number of work units: steps of a sequential flow, branches of a parallel flow,
+ * or iterations of a repeat flow.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public enum FlowShape {
+
+    /**
+     * A sequential flow of {@code width} steps.
+     */
+    SEQUENTIAL {
+        @Override
+        WorkFlow build(int width, SyntheticWork.CostType costType, long cost, ExecutorService executorService) {
+            return aNewSequentialFlow()
+                    .named("sequential")
+                    .execute(works("step", width, costType, cost))
+                    .build();
+        }
+    },
+
+    /**
+     * A parallel flow of {@code width} branches.
+     */
+    PARALLEL {
+        @Override
+        WorkFlow build(int width, SyntheticWork.CostType costType, long cost, ExecutorService executorService) {
+            return aNewParallelFlow()
+                    .named("parallel")
+                    .execute(works("branch", width, costType, cost).toArray(new Work[0]))
+                    .with(executorService)
+                    .build();
+        }
+    },
+
+    /**
+     * A conditional flow executing one work, then one of two branches.
+     */
+    CONDITIONAL {
+        @Override
+        WorkFlow build(int width, SyntheticWork.CostType costType, long cost, ExecutorService executorService) {
+            return aNewConditionalFlow()
+                    .named("conditional")
+                    .execute(new SyntheticWork("condition", costType, cost))
+                    .when(WorkReportPredicate.COMPLETED)
+                    .then(new SyntheticWork("then", costType, cost))
+                    .otherwise(new SyntheticWork("otherwise", costType, cost))
+                    .build();
+        }
+    },
+
+    /**
+     * A repeat flow executing one work {@code width} times.
+     */
+    REPEAT {
+        @Override
+        WorkFlow build(int width, SyntheticWork.CostType costType, long cost, ExecutorService executorService) {
+            return aNewRepeatFlow()
+                    .named("repeat")
+                    .repeat(new SyntheticWork("iteration", costType, cost))
+                    .times(width)
+                    .build();
+        }
+    },
+
+    /**
+     * A sequential flow nesting all other shapes: a step, a parallel flow, a conditional
+     * flow and a repeat flow.
+     */
+    MIXED {
+        @Override
+        WorkFlow build(int width, SyntheticWork.CostType costType, long cost, ExecutorService executorService) {
+            return aNewSequentialFlow()
+                    .named("mixed")
+                    .execute(new SyntheticWork("prepare", costType, cost))
+                    .then(PARALLEL.build(width, costType, cost, executorService))
+                    .then(CONDITIONAL.build(width, costType, cost, executorService))
+                    .then(REPEAT.build(width, costType, cost, executorService))
+                    .build();
+        }
+    };
+
+    /**
+     * Build a workflow of this shape.
+     *
+     * @param width number of work units of the shape
+     * @param costType of work units
+     * @param cost of each work unit, in nanoseconds
+     * @param executorService to execute parallel branches
+     * @return a new workflow
+     */
+    abstract WorkFlow build(int width, SyntheticWork.CostType costType, long cost, ExecutorService executorService);
+
+    private static List<Work> works(String prefix, int count, SyntheticWork.CostType costType, long cost) {
+        List<Work> works = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            works.add(new SyntheticWork(prefix + i, costType, cost));
+        }
+        return works;
+    }
+}
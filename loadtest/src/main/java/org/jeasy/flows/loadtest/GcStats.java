@@ -0,0 +1,76 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Snapshot of garbage collection counters of the JVM, to report collections which
+ * happened during a load test.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class GcStats {
+
+    private final Map<String, long[]> collectors = new LinkedHashMap<>();
+    private final long heapUsed;
+
+    private GcStats() {
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collectors.put(collector.getName(), new long[]{collector.getCollectionCount(), collector.getCollectionTime()});
+        }
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        this.heapUsed = heap.getUsed();
+    }
+
+    /**
+     * Take a snapshot of garbage collection counters.
+     *
+     * @return a new snapshot
+     */
+    public static GcStats snapshot() {
+        return new GcStats();
+    }
+
+    /**
+     * Describe collections which happened between the given snapshot and this one.
+     *
+     * @param start snapshot taken at the start of the load test
+     * @return one line per collector with the number of collections and their total time
+     */
+    public String since(GcStats start) {
+        StringBuilder builder = new StringBuilder();
+        collectors.forEach((name, counters) -> {
+            long[] initial = start.collectors.getOrDefault(name, new long[2]);
+            builder.append(String.format("  %-24s %8d collections %8d ms%n",
+                    name, counters[0] - initial[0], counters[1] - initial[1]));
+        });
+        builder.append(String.format("  %-24s %8d MB%n", "heap used", heapUsed / (1024 * 1024)));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.loadtest;
+
+import org.jeasy.flows.engine.WorkFlowEngine;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+import org.jeasy.flows.workflow.WorkFlow;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Drives a {@link WorkFlowEngine} with runs of synthetic workflows, in open or closed
+ * loop, and records their latencies. Runs started during the warmup are executed but
+ * not recorded. Progress is printed at each report interval.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class LoadGenerator {
+
+    private final WorkFlowEngine engine;
+    private final Supplier<WorkFlow> workFlows;
+    private final LoadTestOptions options;
+    private final PrintStream out;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final AtomicReference<LatencyHistogram> intervalHistogram = new AtomicReference<>(new LatencyHistogram());
+    private final Map<WorkStatus, LongAdder> statuses = new EnumMap<>(WorkStatus.class);
+    private final LongAdder errors = new LongAdder();
+    private volatile GcStats gcStart;
+
+    /**
+     * Create a new {@link LoadGenerator}.
+     *
+     * @param engine to drive
+     * @param workFlows supplying the workflow of each run
+     * @param options of the load test
+     * @param out stream to print progress to
+     */
+    public LoadGenerator(WorkFlowEngine engine, Supplier<WorkFlow> workFlows, LoadTestOptions options, PrintStream out) {
+        this.engine = engine;
+        this.workFlows = workFlows;
+        this.options = options;
+        this.out = out;
+        for (WorkStatus status : WorkStatus.values()) {
+            statuses.put(status, new LongAdder());
+        }
+    }
+
+    /**
+     * Run the load test until the end of the measured duration, then wait for runs in flight.
+     *
+     * @return the result of the load test
+     * @throws InterruptedException if interrupted while waiting for runs
+     */
+    public LoadTestResult run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureStart = start + options.warmup;
+        long end = measureStart + options.duration;
+        gcStart = GcStats.snapshot();
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(daemon("load-reporter"));
+        reporter.schedule(() -> gcStart = GcStats.snapshot(), options.warmup, TimeUnit.NANOSECONDS);
+        reporter.scheduleAtFixedRate(this::reportInterval, measureStart - System.nanoTime() + options.reportInterval,
+                options.reportInterval, TimeUnit.NANOSECONDS);
+        try {
+            if (options.mode == LoadTestOptions.Mode.OPEN) {
+                runOpenLoop(start, measureStart, end);
+            } else {
+                runClosedLoop(start, measureStart, end);
+            }
+        } finally {
+            reporter.shutdownNow();
+        }
+        Map<WorkStatus, Long> counts = new EnumMap<>(WorkStatus.class);
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return new LoadTestResult(histogram, counts, errors.sum(), options.duration, GcStats.snapshot().since(gcStart));
+    }
+
+    private void runOpenLoop(long start, long measureStart, long end) throws InterruptedException {
+        ExecutorService drivers = Executors.newFixedThreadPool(options.concurrency, daemon("load-driver"));
+        long interval = TimeUnit.SECONDS.toNanos(1) / options.rate;
+        for (long run = 0; ; run++) {
+            long intendedStart = start + run * interval;
+            if (intendedStart - end >= 0) {
+                break;
+            }
+            parkUntil(intendedStart);
+            drivers.execute(() -> runOnce(intendedStart, measureStart, 0));
+        }
+        drivers.shutdown();
+        drivers.awaitTermination(1, TimeUnit.HOURS);
+    }
+
+    private void runClosedLoop(long start, long measureStart, long end) throws InterruptedException {
+        long pace = options.rate == 0 ? 0 : TimeUnit.SECONDS.toNanos(1) * options.concurrency / options.rate;
+        List<Thread> users = new ArrayList<>(options.concurrency);
+        for (int user = 0; user < options.concurrency; user++) {
+            long firstStart = start + (pace * user) / options.concurrency; // spread users over the pace
+            Thread thread = daemon("load-user").newThread(() -> {
+                long next = firstStart;
+                while (next - end < 0) {
+                    parkUntil(next);
+                    long actualStart = System.nanoTime();
+                    runOnce(actualStart, measureStart, pace);
+                    // a user which fell behind its pace does not catch up, the runs it
+                    // could not start are accounted for by the latency correction
+                    next = Math.max(next + pace, System.nanoTime());
+                }
+            });
+            thread.start();
+            users.add(thread);
+        }
+        for (Thread user : users) {
+            user.join();
+        }
+    }
+
+    private void runOnce(long intendedStart, long measureStart, long expectedInterval) {
+        WorkReport workReport = null;
+        try {
+            workReport = engine.run(workFlows.get(), new WorkContext());
+        } catch (RuntimeException e) {
+            errors.increment();
+        }
+        long latency = System.nanoTime() - intendedStart;
+        if (intendedStart - measureStart < 0) {
+            return;
+        }
+        histogram.recordCorrected(latency, expectedInterval);
+        intervalHistogram.get().recordCorrected(latency, expectedInterval);
+        if (workReport != null) {
+            statuses.get(workReport.getStatus()).increment();
+        }
+    }
+
+    private void reportInterval() {
+        LatencyHistogram interval = intervalHistogram.getAndSet(new LatencyHistogram());
+        double seconds = options.reportInterval / 1e9;
+        out.printf("%8.0f runs/s  p50 %8.3f ms  p99 %8.3f ms  max %8.3f ms%n",
+                interval.getCount() / seconds,
+                interval.getValueAtPercentile(50) / 1e6,
+                interval.getValueAtPercentile(99) / 1e6,
+                interval.getMax() / 1e6);
+    }
+
+    private static void parkUntil(long time) {
+        long remaining;
+        while ((remaining = time - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.loadtest;
+
+import org.jeasy.flows.engine.ConcurrencyLimit;
+import org.jeasy.flows.engine.PoolPolicy;
+import org.jeasy.flows.engine.WorkFlowEngine;
+import org.jeasy.flows.engine.WorkFlowEngineBuilder;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.jeasy.flows.engine.WorkFlowEngineBuilder.aNewWorkFlowEngine;
+
+/**
+ * Command line entry point of the load test harness, see {@link LoadTestOptions} for
+ * available options. For example, to run a 10 minutes soak test of parallel flows at
+ * 2000 runs per second:
+ *
+ * <pre>
+ * mvn -f loadtest/pom.xml compile exec:java -Dexec.args="--shape=parallel --width=8 --rate=2000 --duration=600"
+ * </pre>
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class LoadTest {
+
+    private static final String BRANCHES_POOL = "branches";
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestOptions.USAGE);
+            System.exit(1);
+            return;
+        }
+
+        WorkFlowEngineBuilder builder = aNewWorkFlowEngine()
+                .withPool(BRANCHES_POOL, PoolPolicy.ioBound(options.poolThreads).queueCapacity(64 * 1024));
+        if (options.admissionLimit > 0) {
+            builder.withAdmissionLimit(ConcurrencyLimit.fixed(options.admissionLimit));
+        }
+        WorkFlowEngine engine = builder.build();
+        ExecutorService branches = engine.getPool(BRANCHES_POOL);
+
+        System.out.println("Load test: " + options);
+        // a workflow is built for each run, like a service building a flow per request
+        LoadGenerator generator = new LoadGenerator(engine,
+                () -> options.shape.build(options.width, options.costType, options.cost, branches),
+                options, System.out);
+        LoadTestResult result = generator.run();
+        engine.shutdown(30, TimeUnit.SECONDS);
+        result.print(System.out);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.loadtest;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options of a load test, parsed from {@code --name=value} command line arguments.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class LoadTestOptions {
+
+    /**
+     * How runs are generated.
+     */
+    public enum Mode {
+
+        /**
+         * Start runs at the target rate whether previous runs have finished or not, like
+         * independent clients. Latency is measured from the time a run should have started,
+         * so that the time spent waiting for a free driver thread is accounted for.
+         */
+        OPEN,
+
+        /**
+         * Run a fixed number of users, each one starting a run when its previous run has
+         * finished, paced to the target rate if any. Latencies of runs which a user could
+         * not start on time are corrected for coordinated omission.
+         */
+        CLOSED
+    }
+
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: LoadTest [--name=value]...",
+            "  --shape=SEQUENTIAL|PARALLEL|CONDITIONAL|REPEAT|MIXED  workflow shape (default MIXED)",
+            "  --width=N                 work units per flow of the shape (default 4)",
+            "  --cost-type=CPU|SLEEP     cost of work units (default CPU)",
+            "  --cost=MICROS             cost of each work unit (default 100)",
+            "  --mode=OPEN|CLOSED        open or closed loop (default OPEN)",
+            "  --rate=N                  target runs per second, 0 for unpaced closed loop (default 1000)",
+            "  --concurrency=N           driver threads (open) or users (closed) (default 64)",
+            "  --pool-threads=N          threads of the engine pool of parallel branches (default 2 per processor)",
+            "  --admission-limit=N       admission limit of the engine, 0 for none (default 0)",
+            "  --warmup=SECONDS          duration excluded from results (default 10)",
+            "  --duration=SECONDS        measured duration (default 60)",
+            "  --report-interval=SECONDS interval of progress reports (default 10)");
+
+    FlowShape shape = FlowShape.MIXED;
+    int width = 4;
+    SyntheticWork.CostType costType = SyntheticWork.CostType.CPU;
+    long cost = TimeUnit.MICROSECONDS.toNanos(100);
+    Mode mode = Mode.OPEN;
+    int rate = 1000;
+    int concurrency = 64;
+    int poolThreads = 2 * Runtime.getRuntime().availableProcessors();
+    int admissionLimit;
+    long warmup = TimeUnit.SECONDS.toNanos(10);
+    long duration = TimeUnit.SECONDS.toNanos(60);
+    long reportInterval = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * Parse options from command line arguments.
+     *
+     * @param args in the form {@code --name=value}
+     * @return the parsed options
+     * @throws IllegalArgumentException if an argument is unknown or invalid
+     */
+    public static LoadTestOptions parse(String... args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Invalid argument '" + arg + "'");
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            try {
+                options.set(name, value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(String.format("Invalid value '%s' of option '%s'", value, name), e);
+            }
+        }
+        if (options.width < 1 || options.concurrency < 1 || options.poolThreads < 1 || options.rate < 0) {
+            throw new IllegalArgumentException("Width, concurrency and pool threads must be positive, and rate must not be negative");
+        }
+        if (options.mode == Mode.OPEN && options.rate == 0) {
+            throw new IllegalArgumentException("An open loop test requires a target rate");
+        }
+        return options;
+    }
+
+    private void set(String name, String value) {
+        switch (name) {
+            case "shape":
+                shape = FlowShape.valueOf(value.toUpperCase(Locale.ROOT));
+                break;
+            case "width":
+                width = Integer.parseInt(value);
+                break;
+            case "cost-type":
+                costType = SyntheticWork.CostType.valueOf(value.toUpperCase(Locale.ROOT));
+                break;
+            case "cost":
+                cost = TimeUnit.MICROSECONDS.toNanos(Long.parseLong(value));
+                break;
+            case "mode":
+                mode = Mode.valueOf(value.toUpperCase(Locale.ROOT));
+                break;
+            case "rate":
+                rate = Integer.parseInt(value);
+                break;
+            case "concurrency":
+                concurrency = Integer.parseInt(value);
+                break;
+            case "pool-threads":
+                poolThreads = Integer.parseInt(value);
+                break;
+            case "admission-limit":
+                admissionLimit = Integer.parseInt(value);
+                break;
+            case "warmup":
+                warmup = TimeUnit.SECONDS.toNanos(Long.parseLong(value));
+                break;
+            case "duration":
+                duration = TimeUnit.SECONDS.toNanos(Long.parseLong(value));
+                break;
+            case "report-interval":
+                reportInterval = TimeUnit.SECONDS.toNanos(Long.parseLong(value));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option '" + name + "'");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "shape=" + shape +
+                ", width=" + width +
+                ", cost=" + TimeUnit.NANOSECONDS.toMicros(cost) + "us " + costType +
+                ", mode=" + mode +
+                ", rate=" + rate + "/s" +
+                ", concurrency=" + concurrency +
+                ", pool threads=" + poolThreads +
+                ", admission limit=" + (admissionLimit > 0 ? admissionLimit : "none") +
+                ", warmup=" + TimeUnit.NANOSECONDS.toSeconds(warmup) + "s" +
+                ", duration=" + TimeUnit.NANOSECONDS.toSeconds(duration) + "s";
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.loadtest;
+
+import org.jeasy.flows.work.WorkStatus;
+
+import java.io.PrintStream;
+import java.util.Map;
+
+/**
+ * Result of a load test: latency histogram, run counts per status, and garbage
+ * collections of the measured duration.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class LoadTestResult {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final LatencyHistogram histogram;
+    private final Map<WorkStatus, Long> statuses;
+    private final long errors;
+    private final long duration;
+    private final String gcStats;
+
+    LoadTestResult(LatencyHistogram histogram, Map<WorkStatus, Long> statuses, long errors, long duration, String gcStats) {
+        this.histogram = histogram;
+        this.statuses = statuses;
+        this.errors = errors;
+        this.duration = duration;
+        this.gcStats = gcStats;
+    }
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    public long getRuns(WorkStatus status) {
+        return statuses.getOrDefault(status, 0L);
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Get the throughput of completed runs.
+     *
+     * @return completed runs per second of measured duration
+     */
+    public double getThroughput() {
+        return getRuns(WorkStatus.COMPLETED) / (duration / 1e9);
+    }
+
+    /**
+     * Print the result.
+     *
+     * @param out stream to print to
+     */
+    public void print(PrintStream out) {
+        out.printf("runs: %s, thrown: %d%n", statuses, errors);
+        out.printf("throughput: %.1f completed runs/s%n", getThroughput());
+        out.printf("latency (ms): mean %.3f", histogram.getMean() / 1e6);
+        for (double percentile : PERCENTILES) {
+            out.printf(", p%s %.3f", percentile == (long) percentile ? String.valueOf((long) percentile) : String.valueOf(percentile),
+                    histogram.getValueAtPercentile(percentile) / 1e6);
+        }
+        out.printf(", max %.3f%n", histogram.getMax() / 1e6);
+        out.printf("garbage collection:%n%s", gcStats);
+    }
+}
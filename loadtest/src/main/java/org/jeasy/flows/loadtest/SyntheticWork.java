@@ -0,0 +1,99 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.loadtest;
+
+import org.jeasy.flows.work.DefaultWorkReport;
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A unit of work with a synthetic cost: either burning CPU or sleeping for a given time.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class SyntheticWork implements Work {
+
+    /**
+     * Kind of cost of a synthetic work.
+     */
+    public enum CostType {
+
+        /**
+         * Spin on the CPU, like computation.
+         */
+        CPU,
+
+        /**
+         * Park the thread, like blocking I/O.
+         */
+        SLEEP
+    }
+
+    private final String name;
+    private final CostType costType;
+    private final long cost;
+
+    /**
+     * Create a new {@link SyntheticWork}.
+     *
+     * @param name of the work
+     * @param costType CPU or sleep
+     * @param cost in nanoseconds
+     */
+    public SyntheticWork(String name, CostType costType, long cost) {
+        this.name = name;
+        this.costType = costType;
+        this.cost = cost;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public WorkReport execute(WorkContext workContext) {
+        if (costType == CostType.SLEEP) {
+            LockSupport.parkNanos(cost);
+        } else {
+            workContext.put(name, spin(cost));
+        }
+        return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+    }
+
+    private static long spin(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        long hash = 17;
+        do {
+            for (int i = 0; i < 64; i++) {
+                hash = hash * 31 + i;
+            }
+        } while (System.nanoTime() < deadline);
+        return hash; // consumed so that the loop is not optimized away
+    }
+}
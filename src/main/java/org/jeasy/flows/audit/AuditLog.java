@@ -0,0 +1,283 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit sink writing records to a file, one JSON object per line.
+ *
+ * Recording does not block the calling thread: records are put in a bounded lock-free
+ * ring buffer and written in batches by a background thread, which is parked while the
+ * buffer is empty. Records are dropped (and counted, see {@link #getDroppedRecords()})
+ * when the buffer is full or when they cannot be written.
+ *
+ * When the file exceeds a maximum size, it is rotated: {@code audit.log} is renamed to
+ * {@code audit.log.1}, {@code audit.log.1} to {@code audit.log.2}, and so on up to the
+ * maximum number of rotated files, the oldest one being deleted.
+ *
+ * Records are written with the following fields:
+ * {@code type}, {@code name}, {@code status}, {@code start} (milliseconds since the epoch),
+ * {@code durationNanos}, {@code thread} and {@code error} (if any).
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class AuditLog implements AuditSink, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditLog.class);
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final long DEFAULT_MAX_FILE_SIZE = 10L * 1024 * 1024;
+    private static final int DEFAULT_MAX_FILES = 5;
+    private static final int BATCH_SIZE = 512;
+
+    private final Path file;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private final RingBuffer<AuditRecord> buffer;
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private final Thread writerThread;
+    private volatile boolean closed;
+    private volatile boolean waiting;
+
+    private Writer writer;
+    private long fileSize;
+
+    /**
+     * Create a new {@link AuditLog} buffering up to 8192 records, and rotating files
+     * of 10 MB with up to 5 rotated files.
+     *
+     * @param file to write records to
+     * @throws IOException if the file cannot be opened
+     */
+    public AuditLog(Path file) throws IOException {
+        this(file, DEFAULT_CAPACITY, DEFAULT_MAX_FILE_SIZE, DEFAULT_MAX_FILES);
+    }
+
+    /**
+     * Create a new {@link AuditLog}.
+     *
+     * @param file to write records to
+     * @param capacity maximum number of records waiting to be written, must be a power of two
+     * @param maxFileSize size in bytes above which the file is rotated
+     * @param maxFiles maximum number of rotated files to keep
+     * @throws IOException if the file cannot be opened
+     */
+    public AuditLog(Path file, int capacity, long maxFileSize, int maxFiles) throws IOException {
+        this.file = file;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+        this.buffer = new RingBuffer<>(capacity);
+        open();
+        this.writerThread = new Thread(this::writeRecords, "easy-flows-audit-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void record(AuditRecord record) {
+        if (closed || !buffer.offer(record)) {
+            droppedRecords.incrementAndGet();
+        } else if (waiting) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    /**
+     * Get the number of records dropped because the buffer was full or the log was closed.
+     *
+     * @return the number of dropped records
+     */
+    public long getDroppedRecords() {
+        return droppedRecords.get();
+    }
+
+    /**
+     * Write pending records and close the file. Records received afterwards are dropped.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeRecords() {
+        List<AuditRecord> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (true) {
+                boolean closing = closed; // read before draining so no record is left behind
+                buffer.drainTo(batch, BATCH_SIZE);
+                if (batch.isEmpty()) {
+                    if (closing) {
+                        break;
+                    }
+                    if (!waiting) {
+                        // drain once more after publishing the flag, so a record offered meanwhile is not missed
+                        waiting = true;
+                        continue;
+                    }
+                    LockSupport.park(this);
+                    waiting = false;
+                    continue;
+                }
+                waiting = false;
+                write(batch);
+                batch.clear();
+            }
+        } finally {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                LOGGER.error("Unable to close audit log {}", file, e);
+            }
+        }
+    }
+
+    private void write(List<AuditRecord> batch) {
+        try {
+            for (AuditRecord record : batch) {
+                String line = toJson(record);
+                writer.write(line);
+                fileSize += line.length(); // records are mostly ASCII, rotation does not need to be exact
+                if (fileSize >= maxFileSize) {
+                    rotate();
+                }
+            }
+            writer.flush();
+        } catch (IOException | RuntimeException e) {
+            droppedRecords.addAndGet(batch.size());
+            LOGGER.error("Unable to write audit records to {}", file, e);
+        }
+    }
+
+    private void open() throws IOException {
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileSize = Files.size(file);
+    }
+
+    private void rotate() throws IOException {
+        writer.close();
+        try {
+            Files.deleteIfExists(rotatedFile(maxFiles));
+            for (int index = maxFiles - 1; index >= 1; index--) {
+                Path rotatedFile = rotatedFile(index);
+                if (Files.exists(rotatedFile)) {
+                    Files.move(rotatedFile, rotatedFile(index + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            if (maxFiles > 0) {
+                Files.move(file, rotatedFile(1), StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Unable to rotate audit log {}", file, e);
+        } finally {
+            open();
+        }
+        if (fileSize >= maxFileSize) {
+            // the file could not be rotated, keep writing to it and try again after another maxFileSize bytes
+            fileSize = 0;
+        }
+    }
+
+    private Path rotatedFile(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    static String toJson(AuditRecord record) {
+        StringBuilder json = new StringBuilder(128);
+        json.append("{\"type\":\"").append(record.getType()).append('"');
+        json.append(",\"name\":");
+        appendString(json, record.getName());
+        json.append(",\"status\":");
+        appendString(json, record.getStatus() == null ? null : record.getStatus().name());
+        json.append(",\"start\":").append(record.getStartTime());
+        json.append(",\"durationNanos\":").append(record.getDuration());
+        json.append(",\"thread\":");
+        appendString(json, record.getThread());
+        if (record.getError() != null) {
+            json.append(",\"error\":");
+            appendString(json, record.getError().toString());
+        }
+        return json.append("}\n").toString();
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int index = 0; index < value.length(); index++) {
+            char c = value.charAt(index);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.audit;
+
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+
+/**
+ * Record of the execution of a workflow run by an engine, or of a step executed by a flow.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class AuditRecord {
+
+    /**
+     * Type of execution.
+     */
+    public enum Type {
+
+        /**
+         * A workflow run by a {@link org.jeasy.flows.engine.WorkFlowEngine}.
+         */
+        RUN,
+
+        /**
+         * A work unit (possibly a nested flow) executed by a flow.
+         */
+        STEP
+    }
+
+    private final Type type;
+    private final String name;
+    private final WorkStatus status;
+    private final long startTime;
+    private final long duration;
+    private final Throwable error;
+    private final String thread;
+
+    /**
+     * Create a new {@link AuditRecord}.
+     *
+     * @param type of execution
+     * @param name of the workflow or work
+     * @param status of the execution, or null if the work returned no report
+     * @param startTime of the execution, in milliseconds since the epoch
+     * @param duration of the execution, in nanoseconds
+     * @param error of the execution, if any
+     * @param thread which executed the work
+     */
+    public AuditRecord(Type type, String name, WorkStatus status, long startTime, long duration, Throwable error, String thread) {
+        this.type = type;
+        this.name = name;
+        this.status = status;
+        this.startTime = startTime;
+        this.duration = duration;
+        this.error = error;
+        this.thread = thread;
+    }
+
+    /**
+     * Create a record of an execution which has just ended in the current thread.
+     *
+     * @param type of execution
+     * @param name of the workflow or work
+     * @param report of the execution, or null if the work returned no report or threw an exception
+     * @param thrown exception thrown by the work, if any
+     * @param startTime of the execution, in milliseconds since the epoch
+     * @param duration of the execution, in nanoseconds
+     * @return a new record
+     */
+    public static AuditRecord of(Type type, String name, WorkReport report, Throwable thrown, long startTime, long duration) {
+        WorkStatus status = null;
+        Throwable error = thrown;
+        if (thrown != null) {
+            status = WorkStatus.FAILED;
+        } else if (report != null) {
+            status = report.getStatus();
+            error = report.getError();
+        }
+        return new AuditRecord(type, name, status, startTime, duration, error, Thread.currentThread().getName());
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public WorkStatus getStatus() {
+        return status;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public String getThread() {
+        return thread;
+    }
+
+    @Override
+    public String toString() {
+        return "AuditRecord {" +
+                "type=" + type +
+                ", name='" + name + '\'' +
+                ", status=" + status +
+                ", startTime=" + startTime +
+                ", duration=" + duration +
+                ", error=" + error +
+                ", thread='" + thread + '\'' +
+                '}';
+    }
+}
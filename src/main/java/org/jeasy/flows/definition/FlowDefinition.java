@@ -0,0 +1,259 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.definition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Declarative definition of a workflow. A definition is a tree of nodes, each node
+ * describing a unit of work (resolved by name in a {@link WorkRegistry}) or one of
+ * the sequential, conditional, repeat and parallel flows.
+ *
+ * Definitions are validated when they are created. References to work units,
+ * predicates and executor services are validated when the definition is compiled
+ * with a {@link FlowDefinitionCompiler}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public final class FlowDefinition {
+
+    /**
+     * Type of a node in a flow definition.
+     */
+    public enum Type {
+        WORK, SEQUENTIAL, CONDITIONAL, REPEAT, PARALLEL
+    }
+
+    private final Type type;
+    private final String name;
+    private final String reference;
+    private final String predicate;
+    private final int times;
+    private final List<FlowDefinition> children;
+
+    FlowDefinition(Type type, String name, String reference, String predicate, int times, List<FlowDefinition> children) {
+        this.type = Objects.requireNonNull(type, "type");
+        this.name = name;
+        this.reference = reference;
+        this.predicate = predicate;
+        this.times = times;
+        this.children = Collections.unmodifiableList(new ArrayList<>(children));
+        validate();
+    }
+
+    /**
+     * Create the definition of a unit of work.
+     *
+     * @param reference name of the work in the {@link WorkRegistry}
+     * @return the definition of a unit of work
+     */
+    public static FlowDefinition work(String reference) {
+        return new FlowDefinition(Type.WORK, null, reference, null, 0, Collections.emptyList());
+    }
+
+    /**
+     * Create the definition of a sequential flow.
+     *
+     * @param name of the flow, might be {@code null}
+     * @param workUnits to execute in sequence
+     * @return the definition of a sequential flow
+     */
+    public static FlowDefinition sequential(String name, List<FlowDefinition> workUnits) {
+        return new FlowDefinition(Type.SEQUENTIAL, name, null, null, 0, workUnits);
+    }
+
+    /**
+     * Create the definition of a conditional flow.
+     *
+     * @param name of the flow, might be {@code null}
+     * @param initialWorkUnit to execute first
+     * @param predicate name of the predicate in the {@link WorkRegistry}
+     * @param nextOnPredicateSuccess to execute if the predicate is satisfied
+     * @param nextOnPredicateFailure to execute if the predicate is not satisfied, might be {@code null}
+     * @return the definition of a conditional flow
+     */
+    public static FlowDefinition conditional(String name, FlowDefinition initialWorkUnit, String predicate,
+                                             FlowDefinition nextOnPredicateSuccess, FlowDefinition nextOnPredicateFailure) {
+        List<FlowDefinition> children = new ArrayList<>();
+        children.add(initialWorkUnit);
+        children.add(nextOnPredicateSuccess);
+        if (nextOnPredicateFailure != null) {
+            children.add(nextOnPredicateFailure);
+        }
+        return new FlowDefinition(Type.CONDITIONAL, name, null, predicate, 0, children);
+    }
+
+    /**
+     * Create the definition of a repeat flow repeating a work until a predicate is satisfied.
+     *
+     * @param name of the flow, might be {@code null}
+     * @param work to repeat
+     * @param predicate name of the predicate in the {@link WorkRegistry}
+     * @return the definition of a repeat flow
+     */
+    public static FlowDefinition repeatUntil(String name, FlowDefinition work, String predicate) {
+        return new FlowDefinition(Type.REPEAT, name, null, predicate, 0, Collections.singletonList(work));
+    }
+
+    /**
+     * Create the definition of a repeat flow repeating a work a given number of times.
+     *
+     * @param name of the flow, might be {@code null}
+     * @param work to repeat
+     * @param times number of times to repeat the work
+     * @return the definition of a repeat flow
+     */
+    public static FlowDefinition repeatTimes(String name, FlowDefinition work, int times) {
+        return new FlowDefinition(Type.REPEAT, name, null, null, times, Collections.singletonList(work));
+    }
+
+    /**
+     * Create the definition of a parallel flow.
+     *
+     * @param name of the flow, might be {@code null}
+     * @param executorService name of the executor service in the {@link WorkRegistry}
+     * @param workUnits to execute in parallel
+     * @return the definition of a parallel flow
+     */
+    public static FlowDefinition parallel(String name, String executorService, List<FlowDefinition> workUnits) {
+        return new FlowDefinition(Type.PARALLEL, name, executorService, null, 0, workUnits);
+    }
+
+    private void validate() {
+        switch (type) {
+            case WORK:
+                require(reference != null, "a work definition requires a reference");
+                break;
+            case SEQUENTIAL:
+                require(!children.isEmpty(), "a sequential flow requires at least one work unit");
+                break;
+            case CONDITIONAL:
+                require(predicate != null, "a conditional flow requires a predicate");
+                require(children.size() == 2 || children.size() == 3, "a conditional flow requires an initial and a next work unit");
+                break;
+            case REPEAT:
+                require(children.size() == 1, "a repeat flow requires a work unit");
+                require(predicate != null ^ times > 0, "a repeat flow requires either a predicate or a positive number of times");
+                break;
+            case PARALLEL:
+                require(reference != null, "a parallel flow requires an executor service");
+                require(!children.isEmpty(), "a parallel flow requires at least one work unit");
+                break;
+            default:
+                throw new IllegalStateException("Unsupported type " + type);
+        }
+        for (FlowDefinition child : children) {
+            require(child != null, "work units must not be null");
+        }
+    }
+
+    private void require(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalArgumentException(String.format("Invalid definition of '%s': %s", name, message));
+        }
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Get the name of the flow. Might be {@code null}.
+     *
+     * @return name of the flow
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the name of the work for {@link Type#WORK} nodes, or the name of the
+     * executor service for {@link Type#PARALLEL} nodes.
+     *
+     * @return the reference of this node
+     */
+    public String getReference() {
+        return reference;
+    }
+
+    /**
+     * Get the name of the predicate of {@link Type#CONDITIONAL} and
+     * {@link Type#REPEAT} nodes.
+     *
+     * @return name of the predicate
+     */
+    public String getPredicate() {
+        return predicate;
+    }
+
+    /**
+     * Get the number of times to repeat the work of {@link Type#REPEAT} nodes,
+     * or 0 if the work is repeated until a predicate is satisfied.
+     *
+     * @return number of times to repeat the work
+     */
+    public int getTimes() {
+        return times;
+    }
+
+    public List<FlowDefinition> getChildren() {
+        return children;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FlowDefinition)) {
+            return false;
+        }
+        FlowDefinition that = (FlowDefinition) o;
+        return times == that.times && type == that.type
+                && Objects.equals(name, that.name)
+                && Objects.equals(reference, that.reference)
+                && Objects.equals(predicate, that.predicate)
+                && children.equals(that.children);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, name, reference, predicate, times, children);
+    }
+
+    @Override
+    public String toString() {
+        return "FlowDefinition {" +
+                "type=" + type +
+                ", name=" + name +
+                ", reference=" + reference +
+                ", predicate=" + predicate +
+                ", times=" + times +
+                ", children=" + children +
+                '}';
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.definition;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A cache of parsed and validated {@link FlowDefinition}s, stored in their binary
+ * form (see {@link FlowDefinitionCodec}) in a directory. Entries are keyed by a hash
+ * of the JSON representation of definitions, so a modified definition is parsed again
+ * and stale entries are never used.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class FlowDefinitionCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlowDefinitionCache.class.getName());
+
+    private final Path directory;
+    private final FlowDefinitionReader reader = new FlowDefinitionReader();
+    private final FlowDefinitionCodec codec = new FlowDefinitionCodec();
+
+    /**
+     * Create a new {@link FlowDefinitionCache}.
+     *
+     * @param directory in which binary definitions are stored, created if needed
+     */
+    public FlowDefinitionCache(Path directory) {
+        try {
+            this.directory = Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Load the definition stored in the given JSON file.
+     *
+     * @param jsonFile containing the JSON representation of the definition
+     * @return the flow definition
+     */
+    public FlowDefinition load(Path jsonFile) {
+        try {
+            return load(new String(Files.readAllBytes(jsonFile), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Load the definition with the given JSON representation, from the cache if
+     * it has been parsed before.
+     *
+     * @param json representation of the definition
+     * @return the flow definition
+     */
+    public FlowDefinition load(String json) {
+        Path entry = directory.resolve(key(json) + ".efd");
+        if (Files.isRegularFile(entry)) {
+            try {
+                return codec.decode(Files.readAllBytes(entry));
+            } catch (IOException | IllegalArgumentException e) {
+                LOGGER.warn("Unable to read cached flow definition ''{}'', parsing it again", entry, e);
+            }
+        }
+        FlowDefinition flowDefinition = reader.read(json);
+        store(entry, flowDefinition);
+        return flowDefinition;
+    }
+
+    private void store(Path entry, FlowDefinition flowDefinition) {
+        try {
+            byte[] bytes = codec.encode(flowDefinition);
+            Path temporaryFile = Files.createTempFile(directory, "definition", ".tmp");
+            Files.write(temporaryFile, bytes);
+            Files.move(temporaryFile, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            // the cache is an optimisation, failing to fill it must not fail the load
+            LOGGER.warn("Unable to cache flow definition ''{}''", entry, e);
+        }
+    }
+
+    private static String key(String json) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(FlowDefinitionCodec.VERSION);
+            byte[] hash = digest.digest(json.getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this platform", e);
+        }
+    }
+}
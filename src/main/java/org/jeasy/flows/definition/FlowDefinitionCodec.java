@@ -0,0 +1,163 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.definition;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary representation of {@link FlowDefinition}s. Decoding a definition
+ * from its binary form is much cheaper than parsing and validating its JSON form.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class FlowDefinitionCodec {
+
+    static final int MAGIC = 0xEF10DEF1;
+    static final byte VERSION = 3;
+
+    private static final byte HAS_NAME = 1;
+    private static final byte HAS_REFERENCE = 1 << 1;
+    private static final byte HAS_PREDICATE = 1 << 2;
+
+    /**
+     * Encode the given definition.
+     *
+     * @param flowDefinition to encode
+     * @return the binary form of the definition
+     */
+    public byte[] encode(FlowDefinition flowDefinition) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+            write(flowDefinition, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode a definition from its binary form.
+     *
+     * @param bytes binary form of the definition
+     * @return the definition
+     * @throws IllegalArgumentException if the bytes are not a valid binary form
+     */
+    public FlowDefinition decode(byte[] bytes) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (input.readInt() != MAGIC || input.readByte() != VERSION) {
+                throw new IllegalArgumentException("Not a binary flow definition or unsupported version");
+            }
+            FlowDefinition flowDefinition = read(input);
+            if (input.available() > 0) {
+                throw new IllegalArgumentException("Unexpected trailing bytes in binary flow definition");
+            }
+            return flowDefinition;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid binary flow definition", e);
+        }
+    }
+
+    private void write(FlowDefinition definition, DataOutput output) throws IOException {
+        output.writeByte(definition.getType().ordinal());
+        byte flags = 0;
+        if (definition.getName() != null) {
+            flags |= HAS_NAME;
+        }
+        if (definition.getReference() != null) {
+            flags |= HAS_REFERENCE;
+        }
+        if (definition.getPredicate() != null) {
+            flags |= HAS_PREDICATE;
+        }
+        output.writeByte(flags);
+        if (definition.getName() != null) {
+            writeString(definition.getName(), output);
+        }
+        if (definition.getReference() != null) {
+            writeString(definition.getReference(), output);
+        }
+        if (definition.getPredicate() != null) {
+            writeString(definition.getPredicate(), output);
+        }
+        output.writeInt(definition.getTimes());
+        output.writeInt(definition.getChildren().size());
+        for (FlowDefinition child : definition.getChildren()) {
+            write(child, output);
+        }
+    }
+
+    /**
+     * Write a string as its length followed by its UTF-8 bytes, as writeUTF is limited to 64 KB.
+     */
+    private void writeString(String value, DataOutput output) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private String readString(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        // do not trust the length for the allocation, the input may be truncated
+        if (length < 0 || length > input.available()) {
+            throw new IllegalArgumentException("Invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private FlowDefinition read(DataInputStream input) throws IOException {
+        FlowDefinition.Type[] types = FlowDefinition.Type.values();
+        int type = input.readByte();
+        if (type < 0 || type >= types.length) {
+            throw new IllegalArgumentException("Unknown definition type " + type);
+        }
+        byte flags = input.readByte();
+        String name = (flags & HAS_NAME) != 0 ? readString(input) : null;
+        String reference = (flags & HAS_REFERENCE) != 0 ? readString(input) : null;
+        String predicate = (flags & HAS_PREDICATE) != 0 ? readString(input) : null;
+        int times = input.readInt();
+        int size = input.readInt();
+        if (size < 0) {
+            throw new IllegalArgumentException("Invalid number of children " + size);
+        }
+        // do not trust the size for the initial capacity, the input may be truncated
+        List<FlowDefinition> children = new ArrayList<>(Math.min(size, 16));
+        for (int i = 0; i < size; i++) {
+            children.add(read(input));
+        }
+        return new FlowDefinition(types[type], name, reference, predicate, times, children);
+    }
+}
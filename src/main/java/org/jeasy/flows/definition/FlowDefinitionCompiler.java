@@ -0,0 +1,120 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.definition;
+
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.workflow.ConditionalFlow;
+import org.jeasy.flows.workflow.ParallelFlow;
+import org.jeasy.flows.workflow.RepeatFlow;
+import org.jeasy.flows.workflow.SequentialFlow;
+import org.jeasy.flows.workflow.WorkFlow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.jeasy.flows.workflow.ConditionalFlow.Builder.aNewConditionalFlow;
+import static org.jeasy.flows.workflow.ParallelFlow.Builder.aNewParallelFlow;
+import static org.jeasy.flows.workflow.RepeatFlow.Builder.aNewRepeatFlow;
+import static org.jeasy.flows.workflow.SequentialFlow.Builder.aNewSequentialFlow;
+
+/**
+ * Compile {@link FlowDefinition}s into {@link WorkFlow}s, resolving work units,
+ * predicates and executor services from a {@link WorkRegistry}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class FlowDefinitionCompiler {
+
+    private final WorkRegistry workRegistry;
+
+    public FlowDefinitionCompiler(WorkRegistry workRegistry) {
+        this.workRegistry = workRegistry;
+    }
+
+    /**
+     * Compile the given definition into a workflow.
+     *
+     * @param flowDefinition to compile
+     * @return the workflow
+     * @throws IllegalArgumentException if the definition is not a flow or
+     * references an unknown work, predicate or executor service
+     */
+    public WorkFlow compile(FlowDefinition flowDefinition) {
+        Work work = toWork(flowDefinition);
+        if (!(work instanceof WorkFlow)) {
+            throw new IllegalArgumentException("The definition is not a flow definition: " + flowDefinition);
+        }
+        return (WorkFlow) work;
+    }
+
+    private Work toWork(FlowDefinition definition) {
+        List<FlowDefinition> children = definition.getChildren();
+        switch (definition.getType()) {
+            case WORK:
+                return workRegistry.getWork(definition.getReference());
+            case SEQUENTIAL:
+                SequentialFlow.Builder.ExecuteStep sequentialFlow = definition.getName() != null
+                        ? aNewSequentialFlow().named(definition.getName())
+                        : aNewSequentialFlow();
+                return sequentialFlow.execute(toWorks(children)).build();
+            case CONDITIONAL:
+                ConditionalFlow.Builder.ExecuteStep conditionalFlow = definition.getName() != null
+                        ? aNewConditionalFlow().named(definition.getName())
+                        : aNewConditionalFlow();
+                ConditionalFlow.Builder.OtherwiseStep otherwiseStep = conditionalFlow
+                        .execute(toWork(children.get(0)))
+                        .when(workRegistry.getPredicate(definition.getPredicate()))
+                        .then(toWork(children.get(1)));
+                return children.size() > 2
+                        ? otherwiseStep.otherwise(toWork(children.get(2))).build()
+                        : otherwiseStep.build();
+            case REPEAT:
+                RepeatFlow.Builder.RepeatStep repeatFlow = definition.getName() != null
+                        ? aNewRepeatFlow().named(definition.getName())
+                        : aNewRepeatFlow();
+                RepeatFlow.Builder.UntilStep untilStep = repeatFlow.repeat(toWork(children.get(0)));
+                return definition.getPredicate() != null
+                        ? untilStep.until(workRegistry.getPredicate(definition.getPredicate())).build()
+                        : untilStep.times(definition.getTimes()).build();
+            case PARALLEL:
+                ParallelFlow.Builder.ExecuteStep parallelFlow = definition.getName() != null
+                        ? aNewParallelFlow().named(definition.getName())
+                        : aNewParallelFlow();
+                return parallelFlow
+                        .execute(toWorks(children).toArray(new Work[0]))
+                        .with(workRegistry.getExecutorService(definition.getReference()))
+                        .build();
+            default:
+                throw new IllegalArgumentException("Unsupported definition type " + definition.getType());
+        }
+    }
+
+    private List<Work> toWorks(List<FlowDefinition> definitions) {
+        List<Work> works = new ArrayList<>(definitions.size());
+        for (FlowDefinition definition : definitions) {
+            works.add(toWork(definition));
+        }
+        return works;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.definition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read {@link FlowDefinition}s from their JSON representation. Here is an example:
+ *
+ * <pre>
+ * {
+ *   "type": "sequential",
+ *   "name": "main flow",
+ *   "execute": [
+ *     {"type": "repeat", "repeat": "print foo", "times": 3},
+ *     {"type": "conditional",
+ *      "execute": {"type": "parallel", "with": "pool", "execute": ["print hello", "print world"]},
+ *      "when": "COMPLETED",
+ *      "then": "print ok",
+ *      "otherwise": "print nok"}
+ *   ]
+ * }
+ * </pre>
+ *
+ * A work unit is referenced by its name in the {@link WorkRegistry}, either with a
+ * plain string or with an object like <code>{"type": "work", "ref": "print ok"}</code>.
+ * Repeat flows accept either {@code times} or an {@code until} predicate.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class FlowDefinitionReader {
+
+    /**
+     * Read a flow definition from its JSON representation.
+     *
+     * @param json representation of the flow definition
+     * @return the flow definition
+     * @throws IllegalArgumentException if the JSON document is not a valid flow definition
+     */
+    public FlowDefinition read(String json) {
+        return toDefinition(new JsonParser(json).parse());
+    }
+
+    private FlowDefinition toDefinition(Object node) {
+        if (node instanceof String) {
+            return FlowDefinition.work((String) node);
+        }
+        if (!(node instanceof Map)) {
+            throw new IllegalArgumentException("Expected a work name or a definition object but got: " + node);
+        }
+        Map<?, ?> object = (Map<?, ?>) node;
+        String type = getString(object, "type");
+        String name = getString(object, "name");
+        if (type == null) {
+            throw new IllegalArgumentException("Missing definition type in " + object);
+        }
+        switch (type) {
+            case "work":
+                return FlowDefinition.work(getString(object, "ref"));
+            case "sequential":
+                return FlowDefinition.sequential(name, getDefinitions(object, "execute"));
+            case "conditional":
+                Object otherwise = object.get("otherwise");
+                return FlowDefinition.conditional(name,
+                        getDefinition(object, "execute"),
+                        getString(object, "when"),
+                        getDefinition(object, "then"),
+                        otherwise == null ? null : toDefinition(otherwise));
+            case "repeat":
+                Object times = object.get("times");
+                if (times != null) {
+                    if (!(times instanceof Long) || (Long) times < 1 || (Long) times > Integer.MAX_VALUE) {
+                        throw new IllegalArgumentException("Expected a positive int for 'times' but got: " + times);
+                    }
+                    return FlowDefinition.repeatTimes(name, getDefinition(object, "repeat"), ((Long) times).intValue());
+                }
+                return FlowDefinition.repeatUntil(name, getDefinition(object, "repeat"), getString(object, "until"));
+            case "parallel":
+                return FlowDefinition.parallel(name, getString(object, "with"), getDefinitions(object, "execute"));
+            default:
+                throw new IllegalArgumentException("Unknown definition type '" + type + "'");
+        }
+    }
+
+    private FlowDefinition getDefinition(Map<?, ?> object, String field) {
+        Object value = object.get(field);
+        if (value == null) {
+            throw new IllegalArgumentException(String.format("Missing field '%s' in %s", field, object));
+        }
+        return toDefinition(value);
+    }
+
+    private List<FlowDefinition> getDefinitions(Map<?, ?> object, String field) {
+        Object value = object.get(field);
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException(String.format("Expected an array for field '%s' in %s", field, object));
+        }
+        List<FlowDefinition> definitions = new ArrayList<>();
+        for (Object element : (List<?>) value) {
+            definitions.add(toDefinition(element));
+        }
+        return definitions;
+    }
+
+    private String getString(Map<?, ?> object, String field) {
+        Object value = object.get(field);
+        if (value != null && !(value instanceof String)) {
+            throw new IllegalArgumentException(String.format("Expected a string for field '%s' but got: %s", field, value));
+        }
+        return (String) value;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.definition;
+
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.work.WorkReportPredicate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Registry of the work units, predicates and executor services referenced by name
+ * in {@link FlowDefinition}s.
+ *
+ * Built-in predicates of {@link WorkReportPredicate} are registered by default under
+ * the names {@code ALWAYS_TRUE}, {@code ALWAYS_FALSE}, {@code COMPLETED} and {@code FAILED}.
+ *
+ * <strong>It is the responsibility of the caller to manage the lifecycle of the
+ * registered executor services.</strong>
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class WorkRegistry {
+
+    private final Map<String, Work> workUnits = new ConcurrentHashMap<>();
+    private final Map<String, WorkReportPredicate> predicates = new ConcurrentHashMap<>();
+    private final Map<String, ExecutorService> executorServices = new ConcurrentHashMap<>();
+
+    public WorkRegistry() {
+        predicates.put("ALWAYS_TRUE", WorkReportPredicate.ALWAYS_TRUE);
+        predicates.put("ALWAYS_FALSE", WorkReportPredicate.ALWAYS_FALSE);
+        predicates.put("COMPLETED", WorkReportPredicate.COMPLETED);
+        predicates.put("FAILED", WorkReportPredicate.FAILED);
+    }
+
+    public WorkRegistry registerWork(String name, Work work) {
+        workUnits.put(name, work);
+        return this;
+    }
+
+    public WorkRegistry registerPredicate(String name, WorkReportPredicate predicate) {
+        predicates.put(name, predicate);
+        return this;
+    }
+
+    public WorkRegistry registerExecutor(String name, ExecutorService executorService) {
+        executorServices.put(name, executorService);
+        return this;
+    }
+
+    Work getWork(String name) {
+        return lookup(workUnits, name, "work");
+    }
+
+    WorkReportPredicate getPredicate(String name) {
+        return lookup(predicates, name, "predicate");
+    }
+
+    ExecutorService getExecutorService(String name) {
+        return lookup(executorServices, name, "executor service");
+    }
+
+    private static <T> T lookup(Map<String, T> registry, String name, String kind) {
+        T value = registry.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException(String.format("No %s registered under the name '%s'", kind, name));
+        }
+        return value;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.engine;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limit of the number of concurrent runs admitted by a {@link WorkFlowEngine}. Runs over
+ * the limit are rejected immediately with a {@link org.jeasy.flows.work.WorkStatus#REJECTED}
+ * report, so that an overloaded engine sheds load instead of queueing runs without bound.
+ *
+ * Adaptive limits adjust themselves from the latency of completed runs: they decrease when
+ * latency increases (a sign that runs are queueing for resources) and increase while runs
+ * are fast and the limit is actually used.
+ *
+ * @see WorkFlowEngineBuilder#withAdmissionLimit(ConcurrencyLimit)
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public interface ConcurrencyLimit {
+
+    /**
+     * Get the current maximum number of concurrent runs.
+     *
+     * @return the current limit
+     */
+    int getLimit();
+
+    /**
+     * Called when an admitted run ends.
+     *
+     * @param latency of the run, in nanoseconds
+     * @param inFlight number of runs in flight when the run ended, including it
+     * @param dropped true if the run did not complete for lack of resources: it was cancelled,
+     * or some of its tasks were rejected by a saturated executor
+     */
+    void onRunEnded(long latency, int inFlight, boolean dropped);
+
+    /**
+     * Create a fixed limit.
+     *
+     * @param limit maximum number of concurrent runs
+     * @return a fixed limit
+     */
+    static ConcurrencyLimit fixed(int limit) {
+        return new FixedLimit(limit);
+    }
+
+    /**
+     * Create an additive increase / multiplicative decrease limit. The limit is decreased
+     * by 10% when a run is dropped or takes longer than the latency threshold, and increased by
+     * one when a run is fast while at least half of the limit is in use.
+     *
+     * @param initialLimit initial maximum number of concurrent runs
+     * @param maxLimit upper bound of the limit
+     * @param latencyThreshold latency above which the limit is decreased
+     * @param unit of the latency threshold
+     * @return an AIMD limit
+     */
+    static ConcurrencyLimit aimd(int initialLimit, int maxLimit, long latencyThreshold, TimeUnit unit) {
+        return new AimdLimit(initialLimit, maxLimit, unit.toNanos(latencyThreshold));
+    }
+
+    /**
+     * Create a limit following the gradient between the long-term average latency and the
+     * latency of each run. The limit shrinks in proportion when latency rises above the
+     * long-term average, and grows by a queue allowance of the square root of the limit
+     * otherwise.
+     *
+     * @param initialLimit initial maximum number of concurrent runs
+     * @param maxLimit upper bound of the limit
+     * @return a gradient limit
+     */
+    static ConcurrencyLimit gradient(int initialLimit, int maxLimit) {
+        return new GradientLimit(initialLimit, maxLimit);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.engine;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.Locale;
+
+/**
+ * A cron expression made of 5 fields separated by spaces:
+ *
+ * <pre>
+ * minute (0-59) hour (0-23) day-of-month (1-31) month (1-12 or JAN-DEC) day-of-week (0-7 or SUN-SAT, 0 and 7 are Sunday)
+ * </pre>
+ *
+ * Each field is either {@code *}, a value, a range {@code a-b} or a comma separated list of
+ * them, and values or ranges can have a step ({@code *}{@code /15}, {@code 0-30/5}). When both
+ * day-of-month and day-of-week are restricted, a day matches if either of them matches.
+ * The macros {@code @yearly}, {@code @monthly}, {@code @weekly}, {@code @daily} and
+ * {@code @hourly} are also supported.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public final class CronExpression {
+
+    private static final String[] MONTHS = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+    private static final String[] DAYS = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+    private static final int MAX_YEARS_AHEAD = 5;
+
+    private final String expression;
+    private final BitSet minutes, hours, daysOfMonth, months, daysOfWeek;
+    private final boolean anyDayOfMonth, anyDayOfWeek;
+
+    private CronExpression(String expression, String[] fields) {
+        this.expression = expression;
+        this.minutes = parseField(fields[0], 0, 59, null);
+        this.hours = parseField(fields[1], 0, 23, null);
+        this.daysOfMonth = parseField(fields[2], 1, 31, null);
+        this.months = parseField(fields[3], 1, 12, MONTHS);
+        this.daysOfWeek = parseField(fields[4], 0, 7, DAYS);
+        if (daysOfWeek.get(7)) {
+            daysOfWeek.set(0);
+        }
+        this.anyDayOfMonth = fields[2].startsWith("*");
+        this.anyDayOfWeek = fields[4].startsWith("*");
+    }
+
+    /**
+     * Parse a cron expression.
+     *
+     * @param expression to parse
+     * @return the parsed cron expression
+     * @throws IllegalArgumentException if the expression is invalid
+     */
+    public static CronExpression parse(String expression) {
+        String trimmed = expression.trim();
+        String[] fields = expandMacro(trimmed.toLowerCase(Locale.ROOT)).split("\\s+");
+        if (fields.length != 5) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid cron expression '%s': expected 5 fields but found %d", expression, fields.length));
+        }
+        try {
+            return new CronExpression(trimmed, fields);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Invalid cron expression '%s': %s", expression, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Get the first time matching this expression strictly after the given time.
+     *
+     * @param after time after which to search
+     * @return the next matching time, in the zone of the given time
+     * @throws IllegalStateException if no time matches within the next years (for example on February 30th)
+     */
+    public ZonedDateTime next(ZonedDateTime after) {
+        ZoneId zone = after.getZone();
+        LocalDateTime time = after.toLocalDateTime().truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        int maxYear = time.getYear() + MAX_YEARS_AHEAD;
+        while (time.getYear() <= maxYear) {
+            if (!months.get(time.getMonthValue())) {
+                time = time.toLocalDate().withDayOfMonth(1).plusMonths(1).atStartOfDay();
+            } else if (!matchesDay(time)) {
+                time = time.toLocalDate().plusDays(1).atStartOfDay();
+            } else if (!hours.get(time.getHour())) {
+                time = time.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+            } else if (!minutes.get(time.getMinute())) {
+                time = time.plusMinutes(1);
+            } else {
+                // local times skipped by a daylight saving transition are shifted forward
+                ZonedDateTime next = time.atZone(zone);
+                if (next.isAfter(after)) {
+                    return next;
+                }
+                time = time.plusMinutes(1);
+            }
+        }
+        throw new IllegalStateException(String.format("No time matches cron expression '%s'", expression));
+    }
+
+    private boolean matchesDay(LocalDateTime time) {
+        boolean dayOfMonth = daysOfMonth.get(time.getDayOfMonth());
+        boolean dayOfWeek = daysOfWeek.get(time.getDayOfWeek().getValue() % 7);
+        return anyDayOfMonth || anyDayOfWeek ? dayOfMonth && dayOfWeek : dayOfMonth || dayOfWeek;
+    }
+
+    private static String expandMacro(String expression) {
+        switch (expression) {
+            case "@yearly":
+            case "@annually":
+                return "0 0 1 1 *";
+            case "@monthly":
+                return "0 0 1 * *";
+            case "@weekly":
+                return "0 0 * * 0";
+            case "@daily":
+            case "@midnight":
+                return "0 0 * * *";
+            case "@hourly":
+                return "0 * * * *";
+            default:
+                return expression;
+        }
+    }
+
+    private static BitSet parseField(String field, int min, int max, String[] names) {
+        BitSet values = new BitSet(max + 1);
+        for (String part : field.split(",")) {
+            int step = 1;
+            int slash = part.indexOf('/');
+            if (slash >= 0) {
+                // a larger step could only match the start value, and could overflow below
+                step = parseNumber(part.substring(slash + 1), 1, max - min + 1, null);
+                part = part.substring(0, slash);
+            }
+            int from, to;
+            if (part.equals("*")) {
+                from = min;
+                to = max;
+            } else {
+                int dash = part.indexOf('-');
+                if (dash >= 0) {
+                    from = parseNumber(part.substring(0, dash), min, max, names);
+                    to = parseNumber(part.substring(dash + 1), min, max, names);
+                    if (from > to) {
+                        throw new IllegalArgumentException(String.format("invalid range '%s'", part));
+                    }
+                } else {
+                    from = parseNumber(part, min, max, names);
+                    to = slash >= 0 ? max : from;
+                }
+            }
+            for (int value = from; value <= to; value += step) {
+                values.set(value);
+            }
+        }
+        return values;
+    }
+
+    private static int parseNumber(String value, int min, int max, String[] names) {
+        if (names != null) {
+            for (int index = 0; index < names.length; index++) {
+                if (names[index].equalsIgnoreCase(value)) {
+                    return names == MONTHS ? index + 1 : index;
+                }
+            }
+        }
+        int number;
+        try {
+            number = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("invalid value '%s'", value));
+        }
+        if (number < min || number > max) {
+            throw new IllegalArgumentException(String.format("value %d is out of range %d-%d", number, min, max));
+        }
+        return number;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.engine;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Named executor pools owned by a {@link WorkFlowEngine}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+class ExecutorPools {
+
+    private final Map<String, ThreadPoolExecutor> pools;
+
+    ExecutorPools(Map<String, PoolPolicy> policies, Map<String, Double> tenantWeights) {
+        Map<String, ThreadPoolExecutor> pools = new LinkedHashMap<>();
+        policies.forEach((name, policy) -> pools.put(name, create(name, policy, tenantWeights)));
+        this.pools = Collections.unmodifiableMap(pools);
+    }
+
+    ExecutorService get(String name) {
+        ExecutorService pool = pools.get(name);
+        if (pool == null) {
+            throw new IllegalArgumentException(String.format("No pool named '%s' is managed by this engine", name));
+        }
+        return pool;
+    }
+
+    void shutdown() {
+        pools.values().forEach(ThreadPoolExecutor::shutdown);
+    }
+
+    void shutdownNow() {
+        pools.values().forEach(ThreadPoolExecutor::shutdownNow);
+    }
+
+    private static ThreadPoolExecutor create(String name, PoolPolicy policy, Map<String, Double> tenantWeights) {
+        return new OrderedThreadPoolExecutor(policy.getThreads(), policy.getQueueCapacity(),
+                new NamedThreadFactory(name), policy.getRejectedExecutionHandler(),
+                policy.getOrdering(), new FairQueueing(tenantWeights));
+    }
+
+    static class NamedThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        NamedThreadFactory(String poolName) {
+            this.prefix = "easy-flows-" + poolName + "-";
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            return new Thread(runnable, prefix + counter.incrementAndGet());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.engine;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of concurrent runs of an engine. Runs over the limit wait
+ * and are admitted in fair queueing order when running ones end.
+ */
+class FairAdmission {
+
+    private final int maxConcurrentRuns;
+    private final FairQueueing queueing;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition admission = lock.newCondition();
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+    private int runningRuns;
+    private long sequence;
+
+    FairAdmission(int maxConcurrentRuns, FairQueueing queueing) {
+        this.maxConcurrentRuns = maxConcurrentRuns;
+        this.queueing = queueing;
+    }
+
+    /**
+     * Wait until a run with the given options is admitted.
+     */
+    void acquire(RunOptions options) throws InterruptedException {
+        double tag = queueing.tag(options);
+        lock.lock();
+        try {
+            if (runningRuns < maxConcurrentRuns && waiters.isEmpty()) {
+                runningRuns++;
+                queueing.advance(tag);
+                return;
+            }
+            Waiter waiter = new Waiter(tag, sequence++);
+            waiters.add(waiter);
+            try {
+                while (!waiter.admitted) {
+                    admission.await();
+                }
+            } catch (InterruptedException e) {
+                if (waiter.admitted) {
+                    release(); // hand over the admission to the next waiter
+                } else {
+                    waiters.remove(waiter);
+                }
+                throw e;
+            }
+            queueing.advance(tag);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Release the admission of a run which has ended.
+     */
+    void release() {
+        lock.lock();
+        try {
+            Waiter next = waiters.poll();
+            if (next != null) {
+                next.admitted = true;
+                admission.signalAll();
+            } else {
+                runningRuns--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getQueuedRuns() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static class Waiter implements Comparable<Waiter> {
+
+        private final double tag;
+        private final long sequence;
+        private boolean admitted;
+
+        Waiter(double tag, long sequence) {
+            this.tag = tag;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            int comparison = Double.compare(tag, other.tag);
+            return comparison != 0 ? comparison : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.engine;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Start-time fair queueing: each task is tagged with a virtual start time, and tasks
+ * are served in tag order. Tags of a flow (a tenant and a priority) advance by the inverse
+ * of the flow's weight, so flows with a higher weight get a proportionally higher share,
+ * and idle flows do not accumulate credit since tags never start before the virtual time.
+ */
+class FairQueueing {
+
+    private static final int MAX_FLOWS = 1024;
+
+    private final Map<String, Double> tenantWeights;
+    private final Map<String, Double> finishTags = new HashMap<>();
+    private double virtualTime;
+
+    FairQueueing(Map<String, Double> tenantWeights) {
+        this.tenantWeights = tenantWeights;
+    }
+
+    /**
+     * Tag a new task of a run with the given options.
+     *
+     * @return the virtual start time of the task
+     */
+    synchronized double tag(RunOptions options) {
+        String flow = options.getTenant() + '/' + options.getPriority();
+        double weight = tenantWeights.getOrDefault(options.getTenant(), 1.0) * options.getPriority();
+        double start = Math.max(virtualTime, finishTags.getOrDefault(flow, 0.0));
+        if (finishTags.size() >= MAX_FLOWS) {
+            // flows whose tasks have all started do not need their finish tag anymore
+            finishTags.values().removeIf(finishTag -> finishTag <= virtualTime);
+        }
+        finishTags.put(flow, start + 1 / weight);
+        return start;
+    }
+
+    /**
+     * Record that the task with the given tag is being served.
+     */
+    synchronized void advance(double startTag) {
+        virtualTime = Math.max(virtualTime, startTag);
+    }
+}
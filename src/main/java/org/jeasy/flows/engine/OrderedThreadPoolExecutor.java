@@ -0,0 +1,162 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.engine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed thread pool serving queued tasks in the order of its {@link PoolPolicy.Ordering},
+ * according to the {@link RunOptions} of the run which submitted them. Tasks inherit the
+ * options of the run being executed by the submitting thread, and tasks of runs whose
+ * deadline has passed are dropped before they start, whatever the ordering. With the
+ * {@link PoolPolicy.Ordering#FIFO} ordering, only tasks of runs with a deadline are wrapped
+ * to carry the options of their run, other tasks are queued as they are.
+ */
+class OrderedThreadPoolExecutor extends ThreadPoolExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderedThreadPoolExecutor.class);
+
+    private final PoolPolicy.Ordering ordering;
+    private final FairQueueing queueing;
+    private final AtomicLong sequence = new AtomicLong();
+
+    OrderedThreadPoolExecutor(int threads, int queueCapacity, ThreadFactory threadFactory,
+                              RejectedExecutionHandler rejectedExecutionHandler,
+                              PoolPolicy.Ordering ordering, FairQueueing queueing) {
+        super(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                newQueue(ordering, queueCapacity), threadFactory, rejectedExecutionHandler);
+        this.ordering = ordering;
+        this.queueing = queueing;
+    }
+
+    private static BlockingQueue<Runnable> newQueue(PoolPolicy.Ordering ordering, int capacity) {
+        if (ordering == PoolPolicy.Ordering.FIFO) {
+            return new ArrayBlockingQueue<>(capacity);
+        }
+        return new BoundedPriorityQueue(capacity);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (!(command instanceof ScheduledTask)) {
+            RunOptions options = RunOptions.current();
+            if (ordering == PoolPolicy.Ordering.FIFO && !options.hasDeadline()) {
+                super.execute(command);
+                return;
+            }
+            double tag = ordering == PoolPolicy.Ordering.FAIR ? queueing.tag(options) : 0;
+            command = new ScheduledTask(command, options, ordering, tag, sequence.getAndIncrement());
+        }
+        super.execute(command);
+    }
+
+    @Override
+    protected void beforeExecute(Thread thread, Runnable runnable) {
+        if (ordering == PoolPolicy.Ordering.FAIR) {
+            queueing.advance(((ScheduledTask) runnable).tag);
+        }
+    }
+
+    private static class ScheduledTask implements Runnable, Comparable<ScheduledTask> {
+
+        private final Runnable command;
+        private final RunOptions options;
+        private final PoolPolicy.Ordering ordering;
+        private final double tag;
+        private final long sequence;
+
+        ScheduledTask(Runnable command, RunOptions options, PoolPolicy.Ordering ordering, double tag, long sequence) {
+            this.command = command;
+            this.options = options;
+            this.ordering = ordering;
+            this.tag = tag;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            if (options.isExpired()) {
+                // the run cannot meet its deadline anymore, do not take a thread from runs which can
+                LOGGER.debug("Dropping task of tenant ''{}'' whose deadline has passed", options.getTenant());
+                if (command instanceof Future) {
+                    ((Future<?>) command).cancel(false);
+                }
+                return;
+            }
+            RunOptions previous = RunOptions.enter(options);
+            try {
+                command.run();
+            } finally {
+                RunOptions.restore(previous);
+            }
+        }
+
+        @Override
+        public int compareTo(ScheduledTask other) {
+            int comparison;
+            if (ordering == PoolPolicy.Ordering.EARLIEST_DEADLINE_FIRST) {
+                comparison = compareDeadlines(options, other.options);
+            } else {
+                comparison = Double.compare(tag, other.tag);
+            }
+            return comparison != 0 ? comparison : Long.compare(sequence, other.sequence);
+        }
+
+        private static int compareDeadlines(RunOptions options, RunOptions other) {
+            if (options.hasDeadline() && other.hasDeadline()) {
+                return Long.signum(options.getDeadline() - other.getDeadline());
+            }
+            // tasks without deadline come last
+            return Boolean.compare(other.hasDeadline(), options.hasDeadline());
+        }
+    }
+
+    private static class BoundedPriorityQueue extends PriorityBlockingQueue<Runnable> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        BoundedPriorityQueue(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public boolean offer(Runnable runnable) {
+            // approximate bound, tasks are only offered by the pool
+            return size() < capacity && super.offer(runnable);
+        }
+    }
+}
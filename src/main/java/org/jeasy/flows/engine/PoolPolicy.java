@@ -0,0 +1,184 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.engine;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Sizing and saturation policy of an executor pool managed by a {@link WorkFlowEngine}.
+ *
+ * Pools have a fixed number of threads and a bounded queue. When both threads and queue
+ * are saturated, tasks are either executed by the submitting thread
+ * ({@link Rejection#CALLER_RUNS}, the default) which slows down producers, or rejected
+ * ({@link Rejection#ABORT}).
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class PoolPolicy {
+
+    /**
+     * What to do with tasks submitted to a saturated pool.
+     */
+    public enum Rejection {
+
+        /**
+         * Execute the task in the submitting thread.
+         */
+        CALLER_RUNS,
+
+        /**
+         * Reject the task with a {@link java.util.concurrent.RejectedExecutionException}.
+         */
+        ABORT
+    }
+
+    /**
+     * Order in which queued tasks are executed.
+     */
+    public enum Ordering {
+
+        /**
+         * Execute tasks in submission order.
+         */
+        FIFO,
+
+        /**
+         * Execute tasks in weighted fair queueing order according to the
+         * {@link RunOptions} of the runs which submitted them.
+         */
+        FAIR,
+
+        /**
+         * Execute tasks in order of the deadlines of the runs which submitted them
+         * (see {@link RunOptions#deadline(long, java.util.concurrent.TimeUnit)}), tasks
+         * without deadline last.
+         */
+        EARLIEST_DEADLINE_FIRST
+    }
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private final int threads;
+    private int queueCapacity;
+    private Rejection rejection;
+    private Ordering ordering;
+
+    private PoolPolicy(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be greater than zero");
+        }
+        this.threads = threads;
+        this.queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        this.rejection = Rejection.CALLER_RUNS;
+        this.ordering = Ordering.FIFO;
+    }
+
+    /**
+     * Create a policy for CPU-bound work: one thread per available processor.
+     *
+     * @return a new policy
+     */
+    public static PoolPolicy cpuBound() {
+        return new PoolPolicy(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a policy for I/O-bound work, which spends most of its time waiting:
+     * four threads per available processor.
+     *
+     * @return a new policy
+     */
+    public static PoolPolicy ioBound() {
+        return ioBound(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a policy for I/O-bound work with the given number of threads.
+     *
+     * @param threads number of threads of the pool
+     * @return a new policy
+     */
+    public static PoolPolicy ioBound(int threads) {
+        return new PoolPolicy(threads);
+    }
+
+    /**
+     * Set the maximum number of tasks waiting for a thread (defaults to 1024).
+     *
+     * @param queueCapacity maximum number of waiting tasks
+     * @return this policy
+     */
+    public PoolPolicy queueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("The queue capacity must be greater than zero");
+        }
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    /**
+     * Set what to do with tasks submitted to a saturated pool (defaults to {@link Rejection#CALLER_RUNS}).
+     *
+     * @param rejection policy
+     * @return this policy
+     */
+    public PoolPolicy rejection(Rejection rejection) {
+        this.rejection = rejection;
+        return this;
+    }
+
+    /**
+     * Set the order in which queued tasks are executed (defaults to {@link Ordering#FIFO}).
+     *
+     * @param ordering of queued tasks
+     * @return this policy
+     */
+    public PoolPolicy ordering(Ordering ordering) {
+        this.ordering = ordering;
+        return this;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public Rejection getRejection() {
+        return rejection;
+    }
+
+    public Ordering getOrdering() {
+        return ordering;
+    }
+
+    RejectedExecutionHandler getRejectedExecutionHandler() {
+        return rejection == Rejection.ABORT
+                ? new ThreadPoolExecutor.AbortPolicy()
+                : new ThreadPoolExecutor.CallerRunsPolicy();
+    }
+}
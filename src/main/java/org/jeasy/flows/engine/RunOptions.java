@@ -0,0 +1,176 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.engine;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options of a workflow run, used by the {@link WorkFlowEngine} to schedule runs fairly
+ * between tenants and priorities.
+ *
+ * Runs are scheduled with weighted fair queueing: each tenant gets a share of the engine
+ * proportional to its weight (see {@link WorkFlowEngineBuilder#withTenantWeight(String, double)}),
+ * and within a tenant, runs with priority {@code n} get {@code n} times the share of runs
+ * with priority 1. The same scheduling applies to the branches of parallel flows executed
+ * by fair pools of the engine (see {@link PoolPolicy.Ordering#FAIR}).
+ *
+ * Runs may also have a deadline. Pools of the engine never start tasks of runs whose
+ * deadline has passed, and can execute tasks in deadline order
+ * (see {@link PoolPolicy.Ordering#EARLIEST_DEADLINE_FIRST}).
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class RunOptions {
+
+    static final String DEFAULT_TENANT = "default";
+
+    private static final RunOptions DEFAULTS = new RunOptions();
+    private static final ThreadLocal<RunOptions> CURRENT = new ThreadLocal<>();
+
+    private String tenant = DEFAULT_TENANT;
+    private int priority = 1;
+    private boolean hasDeadline;
+    private long deadline;
+    private boolean profiled;
+
+    /**
+     * Set the tenant of the run (defaults to {@value #DEFAULT_TENANT}).
+     *
+     * @param tenant of the run
+     * @return these options
+     */
+    public RunOptions tenant(String tenant) {
+        this.tenant = tenant;
+        return this;
+    }
+
+    /**
+     * Set the priority of the run relative to other runs of the same tenant (defaults to 1).
+     *
+     * @param priority of the run, greater than zero
+     * @return these options
+     */
+    public RunOptions priority(int priority) {
+        if (priority < 1) {
+            throw new IllegalArgumentException("The priority must be greater than zero");
+        }
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Set the deadline of the run, relative to now. Tasks of the run submitted to pools
+     * of the engine are dropped if they have not started before the deadline: they are
+     * cancelled and reported as {@link org.jeasy.flows.work.WorkStatus#FAILED} by parallel flows.
+     *
+     * @param timeout from now after which the result of the run is no longer useful
+     * @param unit of the timeout
+     * @return these options
+     */
+    public RunOptions deadline(long timeout, TimeUnit unit) {
+        this.deadline = System.nanoTime() + unit.toNanos(timeout);
+        this.hasDeadline = true;
+        return this;
+    }
+
+    /**
+     * Set whether the run is profiled (defaults to false, unless the engine profiles all runs).
+     * The report of a profiled run is a {@link org.jeasy.flows.profile.ProfiledWorkReport}
+     * carrying the execution profile of the run.
+     *
+     * @param profiled true to profile the run
+     * @return these options
+     * @see WorkFlowEngineBuilder#withProfiling(boolean)
+     */
+    public RunOptions profile(boolean profiled) {
+        this.profiled = profiled;
+        return this;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public boolean hasDeadline() {
+        return hasDeadline;
+    }
+
+    public boolean isProfiled() {
+        return profiled;
+    }
+
+    /**
+     * Get the deadline of the run, as a {@link System#nanoTime()} value.
+     *
+     * @return the deadline of the run, only meaningful if {@link #hasDeadline()}
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+
+    boolean isExpired() {
+        return hasDeadline && System.nanoTime() - deadline > 0;
+    }
+
+    /**
+     * Get the options of the run being executed by the current thread.
+     */
+    static RunOptions current() {
+        RunOptions options = CURRENT.get();
+        return options != null ? options : DEFAULTS;
+    }
+
+    /**
+     * Set the options of the run being executed by the current thread.
+     *
+     * @return the previous options, to be restored with {@link #restore(RunOptions)}
+     */
+    static RunOptions enter(RunOptions options) {
+        RunOptions previous = CURRENT.get();
+        CURRENT.set(options);
+        return previous;
+    }
+
+    static void restore(RunOptions previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RunOptions {" +
+                "tenant='" + tenant + '\'' +
+                ", priority=" + priority +
+                (profiled ? ", profiled" : "") +
+                (hasDeadline ? ", deadline in " + TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()) + "ms" : "") +
+                '}';
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.engine;
+
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.workflow.WorkFlow;
+
+/**
+ * Handle of a workflow scheduled with {@link WorkFlowEngine#schedule(WorkFlow, Trigger)}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public interface ScheduledWorkFlow {
+
+    /**
+     * Get the scheduled workflow.
+     *
+     * @return the scheduled workflow
+     */
+    WorkFlow getWorkFlow();
+
+    /**
+     * Get the trigger of the scheduled workflow.
+     *
+     * @return the trigger
+     */
+    Trigger getTrigger();
+
+    /**
+     * Get the next time the workflow will be run, in milliseconds since the epoch.
+     *
+     * @return the next fire time, or -1 if the workflow is currently running or is cancelled
+     */
+    long getNextFireTime();
+
+    /**
+     * Get the number of finished runs of the workflow.
+     *
+     * @return the number of finished runs
+     */
+    long getRunCount();
+
+    /**
+     * Get the number of missed fire times, whether they were run late or skipped
+     * according to the {@link Trigger.MisfirePolicy}.
+     *
+     * @return the number of misfires
+     */
+    long getMisfireCount();
+
+    /**
+     * Get the report of the last finished run.
+     *
+     * @return the report of the last run, or null if the workflow has not been run yet
+     */
+    WorkReport getLastReport();
+
+    /**
+     * Cancel future runs of the workflow. A run in progress is not interrupted.
+     */
+    void cancel();
+
+    /**
+     * Check if the scheduled workflow is cancelled, either explicitly or because
+     * the engine has been shut down.
+     *
+     * @return true if cancelled
+     */
+    boolean isCancelled();
+}
@@ -0,0 +1,49 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.engine;
+
+import org.jeasy.flows.workflow.WorkFlow;
+
+import java.util.List;
+
+/**
+ * Listener notified when a {@link WorkFlowEngine} is shut down with
+ * {@link WorkFlowEngine#shutdown(long, java.util.concurrent.TimeUnit)}. This can be used
+ * to report metrics about runs that were drained or abandoned during the shutdown.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+@FunctionalInterface
+public interface ShutdownListener {
+
+    /**
+     * Called once in-flight runs have been drained, or when the shutdown timeout
+     * has elapsed and remaining runs have been cancelled.
+     *
+     * @param drained number of runs that were in flight when the shutdown started and finished in time
+     * @param abandoned workflows of runs that were still in flight when the timeout elapsed and were cancelled
+     * @param elapsed time spent draining in-flight runs, in nanoseconds
+     */
+    void onShutdown(int drained, List<WorkFlow> abandoned, long elapsed);
+}
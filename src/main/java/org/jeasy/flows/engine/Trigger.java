@@ -0,0 +1,274 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.engine;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Defines when a workflow scheduled with {@link WorkFlowEngine#schedule(org.jeasy.flows.workflow.WorkFlow, Trigger)}
+ * is run: at a fixed rate, with a fixed delay between runs, or on a cron expression.
+ *
+ * A scheduled workflow never overlaps with itself: a fire time which passes while the
+ * previous run is still in progress is postponed until the end of that run. A fire time
+ * handled more than the misfire threshold after it passed (because of an overlapping run
+ * or a saturated pool) is a misfire, which is handled according to the {@link MisfirePolicy}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public abstract class Trigger {
+
+    /**
+     * What to do with a fire time which was missed.
+     */
+    public enum MisfirePolicy {
+
+        /**
+         * Run the workflow once right away, then resume the schedule from that run. Fire times
+         * missed in the meantime are collapsed into this run. A fixed rate schedule restarts
+         * its period from the run.
+         */
+        FIRE_ONCE,
+
+        /**
+         * Skip missed fire times and wait for the next fire time of the schedule.
+         */
+        SKIP
+    }
+
+    private static final long DEFAULT_MISFIRE_THRESHOLD = TimeUnit.SECONDS.toMillis(1);
+
+    private MisfirePolicy misfirePolicy = MisfirePolicy.FIRE_ONCE;
+    private long misfireThreshold = DEFAULT_MISFIRE_THRESHOLD;
+
+    Trigger() {
+    }
+
+    /**
+     * Create a trigger running a workflow every period, measured between the starts of runs.
+     *
+     * @param initialDelay before the first run
+     * @param period between the starts of two runs
+     * @param unit of the initial delay and period
+     * @return a new trigger
+     */
+    public static Trigger fixedRate(long initialDelay, long period, TimeUnit unit) {
+        return new FixedRateTrigger(unit.toMillis(initialDelay), toPositiveMillis(period, unit));
+    }
+
+    /**
+     * Create a trigger running a workflow with a fixed delay between the end of a run
+     * and the start of the next one.
+     *
+     * @param initialDelay before the first run
+     * @param delay between the end of a run and the start of the next one
+     * @param unit of the initial delay and delay
+     * @return a new trigger
+     */
+    public static Trigger fixedDelay(long initialDelay, long delay, TimeUnit unit) {
+        return new FixedDelayTrigger(unit.toMillis(initialDelay), toPositiveMillis(delay, unit));
+    }
+
+    /**
+     * Create a trigger running a workflow at the times matching a cron expression, in the
+     * default time zone.
+     *
+     * @param expression a 5 fields cron expression (see {@link CronExpression})
+     * @return a new trigger
+     * @throws IllegalArgumentException if the expression is invalid
+     */
+    public static Trigger cron(String expression) {
+        return cron(expression, ZoneId.systemDefault());
+    }
+
+    /**
+     * Create a trigger running a workflow at the times matching a cron expression, in the
+     * given time zone.
+     *
+     * @param expression a 5 fields cron expression (see {@link CronExpression})
+     * @param zone in which the expression is evaluated
+     * @return a new trigger
+     * @throws IllegalArgumentException if the expression is invalid
+     */
+    public static Trigger cron(String expression, ZoneId zone) {
+        return new CronTrigger(CronExpression.parse(expression), zone);
+    }
+
+    /**
+     * Set what to do with missed fire times (defaults to {@link MisfirePolicy#FIRE_ONCE}).
+     *
+     * @param misfirePolicy policy
+     * @return this trigger
+     */
+    public Trigger misfirePolicy(MisfirePolicy misfirePolicy) {
+        this.misfirePolicy = misfirePolicy;
+        return this;
+    }
+
+    /**
+     * Set how late a fire time can be handled before it is considered missed (defaults to one second).
+     *
+     * @param threshold after which a fire time is missed
+     * @param unit of the threshold
+     * @return this trigger
+     */
+    public Trigger misfireThreshold(long threshold, TimeUnit unit) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("The misfire threshold must not be negative");
+        }
+        this.misfireThreshold = unit.toMillis(threshold);
+        return this;
+    }
+
+    public MisfirePolicy getMisfirePolicy() {
+        return misfirePolicy;
+    }
+
+    long getMisfireThreshold() {
+        return misfireThreshold;
+    }
+
+    /**
+     * Get the first fire time of a workflow scheduled at the given time.
+     */
+    abstract long firstFireTime(long now);
+
+    /**
+     * Get the fire time following a run which was fired at the given fire time
+     * and ended at the given time. The returned time may already have passed.
+     */
+    abstract long nextFireTime(long fireTime, long runEndTime);
+
+    /**
+     * Get the first fire time of the schedule strictly after the given time, skipping
+     * fire times which have passed.
+     */
+    abstract long nextFireTimeAfter(long fireTime, long now);
+
+    private static long toPositiveMillis(long duration, TimeUnit unit) {
+        long millis = unit.toMillis(duration);
+        if (millis < 1) {
+            throw new IllegalArgumentException("The period of a trigger must be at least one millisecond");
+        }
+        return millis;
+    }
+
+    private static class FixedRateTrigger extends Trigger {
+
+        private final long initialDelay, period;
+
+        FixedRateTrigger(long initialDelay, long period) {
+            this.initialDelay = initialDelay;
+            this.period = period;
+        }
+
+        @Override
+        long firstFireTime(long now) {
+            return now + initialDelay;
+        }
+
+        @Override
+        long nextFireTime(long fireTime, long runEndTime) {
+            return fireTime + period;
+        }
+
+        @Override
+        long nextFireTimeAfter(long fireTime, long now) {
+            return now < fireTime ? fireTime : fireTime + ((now - fireTime) / period + 1) * period;
+        }
+
+        @Override
+        public String toString() {
+            return "fixedRate(" + period + "ms)";
+        }
+    }
+
+    private static class FixedDelayTrigger extends Trigger {
+
+        private final long initialDelay, delay;
+
+        FixedDelayTrigger(long initialDelay, long delay) {
+            this.initialDelay = initialDelay;
+            this.delay = delay;
+        }
+
+        @Override
+        long firstFireTime(long now) {
+            return now + initialDelay;
+        }
+
+        @Override
+        long nextFireTime(long fireTime, long runEndTime) {
+            return runEndTime + delay;
+        }
+
+        @Override
+        long nextFireTimeAfter(long fireTime, long now) {
+            return now + delay;
+        }
+
+        @Override
+        public String toString() {
+            return "fixedDelay(" + delay + "ms)";
+        }
+    }
+
+    private static class CronTrigger extends Trigger {
+
+        private final CronExpression expression;
+        private final ZoneId zone;
+
+        CronTrigger(CronExpression expression, ZoneId zone) {
+            this.expression = expression;
+            this.zone = zone;
+        }
+
+        @Override
+        long firstFireTime(long now) {
+            return next(now);
+        }
+
+        @Override
+        long nextFireTime(long fireTime, long runEndTime) {
+            return next(fireTime);
+        }
+
+        @Override
+        long nextFireTimeAfter(long fireTime, long now) {
+            return next(Math.max(fireTime, now));
+        }
+
+        private long next(long time) {
+            ZonedDateTime after = ZonedDateTime.ofInstant(Instant.ofEpochMilli(time), zone);
+            return expression.next(after).toInstant().toEpochMilli();
+        }
+
+        @Override
+        public String toString() {
+            return "cron(" + expression + ")";
+        }
+    }
+}
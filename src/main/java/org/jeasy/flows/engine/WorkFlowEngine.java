@@ -23,19 +23,28 @@
  */
 package org.jeasy.flows.engine;
 
+import org.jeasy.flows.payload.PayloadAllocator;
 import org.jeasy.flows.work.WorkContext;
 import org.jeasy.flows.work.WorkReport;
 import org.jeasy.flows.workflow.WorkFlow;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Interface for a workflow engine.
  *
+ * Only {@link #run(WorkFlow, WorkContext)} must be implemented: other methods have default
+ * implementations for engines which do not support options, scheduling, pools, payloads
+ * or graceful shutdown, so that existing implementations keep compiling.
+ *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
 public interface WorkFlowEngine {
 
     /**
-     * Run the given workflow and return its report.
+     * Run the given workflow and return its report. {@link org.jeasy.flows.payload.Payload}s
+     * put in the work context are released when the run ends.
      *
      * @param workFlow to run
      * @param workContext context in which the workflow will be run
@@ -43,4 +52,112 @@ public interface WorkFlowEngine {
      */
     WorkReport run(WorkFlow workFlow, WorkContext workContext);
 
+    /**
+     * Run the given workflow with the given options and return its report.
+     *
+     * If the engine limits the number of concurrent runs, the run waits to be
+     * admitted in fair queueing order between tenants and priorities. Branches of
+     * parallel flows submitted to fair pools of the engine are queued the same way.
+     *
+     * If the run is profiled (see {@link RunOptions#profile(boolean)}), the returned report
+     * is a {@link org.jeasy.flows.profile.ProfiledWorkReport} carrying the execution profile
+     * of the run.
+     *
+     * The default implementation ignores the options and delegates to
+     * {@link #run(WorkFlow, WorkContext)}.
+     *
+     * @param workFlow to run
+     * @param workContext context in which the workflow will be run
+     * @param options of the run
+     * @return workflow report
+     * @see WorkFlowEngineBuilder#withMaxConcurrentRuns(int)
+     */
+    default WorkReport run(WorkFlow workFlow, WorkContext workContext, RunOptions options) {
+        return run(workFlow, workContext);
+    }
+
+    /**
+     * Schedule the given workflow to be run according to the given trigger, each time with
+     * a fresh work context. Runs of scheduled workflows go through {@link #run(WorkFlow, WorkContext)}
+     * like any other run, and never overlap with themselves. Scheduled workflows are cancelled
+     * when the engine is shut down.
+     *
+     * The default implementation throws an {@link UnsupportedOperationException}.
+     *
+     * @param workFlow to schedule
+     * @param trigger defining when to run the workflow
+     * @return a handle of the scheduled workflow
+     * @throws IllegalStateException if the engine is shut down
+     * @see WorkFlowEngineBuilder#withSchedulerPool(String)
+     */
+    default ScheduledWorkFlow schedule(WorkFlow workFlow, Trigger trigger) {
+        throw new UnsupportedOperationException("This engine does not support scheduling");
+    }
+
+    /**
+     * Get a pool managed by this engine. Pools are declared with
+     * {@link WorkFlowEngineBuilder#withPool(String, PoolPolicy)} and can be used by
+     * workflows in place of an executor service managed by the caller, for example
+     * in {@link org.jeasy.flows.workflow.ParallelFlow.Builder.WithStep#with(ExecutorService)}.
+     *
+     * <strong>The lifecycle of pools is managed by the engine, they must not be shut down
+     * by the caller.</strong>
+     *
+     * The default implementation manages no pool.
+     *
+     * @param name of the pool
+     * @return the pool with the given name
+     * @throws IllegalArgumentException if no pool with the given name is managed by this engine
+     */
+    default ExecutorService getPool(String name) {
+        throw new IllegalArgumentException(String.format("No pool named '%s' is managed by this engine", name));
+    }
+
+    /**
+     * Get the allocator of off-heap payloads managed by this engine.
+     *
+     * The default implementation throws an {@link UnsupportedOperationException}.
+     *
+     * @return the payload allocator
+     * @see WorkFlowEngineBuilder#withPayloadAllocator(PayloadAllocator)
+     */
+    default PayloadAllocator getPayloadAllocator() {
+        throw new UnsupportedOperationException("This engine does not manage payloads");
+    }
+
+    /**
+     * Stop accepting new runs and shut down the pools managed by this engine, without
+     * waiting for in-flight runs. Previously submitted tasks are executed, but no new
+     * tasks will be accepted.
+     *
+     * Runs requested after the shutdown return a {@link org.jeasy.flows.work.WorkStatus#REJECTED}
+     * report whose error is an {@link IllegalStateException}.
+     *
+     * The default implementation does nothing, as the engine manages no pool.
+     */
+    default void shutdown() {
+    }
+
+    /**
+     * Stop accepting new runs and wait for in-flight runs to finish, at most for the given
+     * timeout. Runs still in flight when the timeout elapses are cancelled through their
+     * work context (see {@link WorkContext#cancel()}), and pools managed by this engine
+     * are shut down, interrupting their running tasks if some runs were cancelled.
+     *
+     * Runs requested after the shutdown return a {@link org.jeasy.flows.work.WorkStatus#REJECTED}
+     * report whose error is an {@link IllegalStateException}.
+     *
+     * The default implementation delegates to {@link #shutdown()} and does not wait.
+     *
+     * @param timeout the maximum time to wait for in-flight runs
+     * @param unit the time unit of the timeout
+     * @return true if all in-flight runs finished before the timeout, false if some were cancelled
+     * @throws InterruptedException if interrupted while waiting
+     * @see WorkFlowEngineBuilder#withShutdownListener(ShutdownListener)
+     */
+    default boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        shutdown();
+        return true;
+    }
+
 }
@@ -23,6 +23,13 @@
  */
 package org.jeasy.flows.engine;
 
+import org.jeasy.flows.audit.AuditSink;
+import org.jeasy.flows.payload.PayloadAllocator;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Main entry point to create {@link WorkFlowEngine} instances.
  *
@@ -39,15 +46,161 @@ public class WorkFlowEngineBuilder {
         return new WorkFlowEngineBuilder();
     }
 
+    static final int UNLIMITED = -1;
+
+    private final Map<String, PoolPolicy> pools = new LinkedHashMap<>();
+    private ShutdownListener shutdownListener = (drained, abandoned, elapsed) -> { };
+    private PayloadAllocator payloadAllocator = new PayloadAllocator();
+    private AuditSink auditSink;
+    private final Map<String, Double> tenantWeights = new HashMap<>();
+    private int maxConcurrentRuns = UNLIMITED;
+    private ConcurrencyLimit admissionLimit;
+    private String schedulerPool;
+    private boolean profiling;
+
     private WorkFlowEngineBuilder() {
     }
 
+    /**
+     * Declare a pool managed by the engine. The pool is created when the engine is
+     * built and shut down with the engine.
+     *
+     * @param name of the pool
+     * @param policy sizing and saturation policy of the pool
+     * @return the builder instance
+     * @see WorkFlowEngine#getPool(String)
+     */
+    public WorkFlowEngineBuilder withPool(String name, PoolPolicy policy) {
+        if (pools.putIfAbsent(name, policy) != null) {
+            throw new IllegalArgumentException(String.format("A pool named '%s' is already declared", name));
+        }
+        return this;
+    }
+
+    /**
+     * Set the listener notified when the engine is shut down with a timeout.
+     *
+     * @param shutdownListener to notify of drained and abandoned runs
+     * @return the builder instance
+     * @see WorkFlowEngine#shutdown(long, java.util.concurrent.TimeUnit)
+     */
+    public WorkFlowEngineBuilder withShutdownListener(ShutdownListener shutdownListener) {
+        this.shutdownListener = shutdownListener;
+        return this;
+    }
+
+    /**
+     * Set the allocator of off-heap payloads (defaults to a {@link PayloadAllocator}
+     * pooling up to 64 MB of direct buffers, without spilling payloads to files).
+     *
+     * @param payloadAllocator to use
+     * @return the builder instance
+     * @see WorkFlowEngine#getPayloadAllocator()
+     */
+    public WorkFlowEngineBuilder withPayloadAllocator(PayloadAllocator payloadAllocator) {
+        this.payloadAllocator = payloadAllocator;
+        return this;
+    }
+
+    /**
+     * Set the sink recording each workflow run and each step executed by flows
+     * (defaults to no recording). The sink is set on the work context of each run
+     * (see {@link org.jeasy.flows.work.WorkContext#setAuditSink(AuditSink)}).
+     *
+     * @param auditSink to record runs and steps, for example an {@link org.jeasy.flows.audit.AuditLog}
+     * @return the builder instance
+     */
+    public WorkFlowEngineBuilder withAuditSink(AuditSink auditSink) {
+        this.auditSink = auditSink;
+        return this;
+    }
+
+    /**
+     * Limit the number of concurrent runs (defaults to no limit). Runs over the limit
+     * wait to be admitted in fair queueing order between tenants and priorities.
+     *
+     * @param maxConcurrentRuns maximum number of concurrent runs
+     * @return the builder instance
+     * @see RunOptions
+     */
+    public WorkFlowEngineBuilder withMaxConcurrentRuns(int maxConcurrentRuns) {
+        if (maxConcurrentRuns < 1) {
+            throw new IllegalArgumentException("The maximum number of concurrent runs must be greater than zero");
+        }
+        this.maxConcurrentRuns = maxConcurrentRuns;
+        return this;
+    }
+
+    /**
+     * Set the admission limit of the engine (defaults to no limit). Runs over the limit are
+     * not queued but rejected immediately with a {@link org.jeasy.flows.work.WorkStatus#REJECTED}
+     * report. The limit applies before {@link #withMaxConcurrentRuns(int)}, so that the
+     * number of runs waiting for fair admission is bounded.
+     *
+     * @param admissionLimit fixed or adaptive limit of concurrent runs
+     * @return the builder instance
+     */
+    public WorkFlowEngineBuilder withAdmissionLimit(ConcurrencyLimit admissionLimit) {
+        this.admissionLimit = admissionLimit;
+        return this;
+    }
+
+    /**
+     * Set the weight of a tenant in fair queueing (defaults to 1). A tenant with
+     * weight 2 gets twice the share of a tenant with weight 1.
+     *
+     * @param tenant name
+     * @param weight of the tenant, greater than zero
+     * @return the builder instance
+     * @see RunOptions#tenant(String)
+     */
+    public WorkFlowEngineBuilder withTenantWeight(String tenant, double weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("The weight of a tenant must be greater than zero");
+        }
+        this.tenantWeights.put(tenant, weight);
+        return this;
+    }
+
+    /**
+     * Run scheduled workflows in a pool managed by the engine (defaults to a pool owned
+     * by the scheduler, with one thread per available processor and an unbounded queue).
+     * The timer of the scheduler hands due runs over to the pool, so a pool rejecting
+     * tasks with {@link PoolPolicy.Rejection#ABORT} is preferable: with
+     * {@link PoolPolicy.Rejection#CALLER_RUNS}, a saturated pool delays the timer.
+     * Fire times rejected by the pool are counted as misfires.
+     *
+     * @param poolName name of a pool declared with {@link #withPool(String, PoolPolicy)}
+     * @return the builder instance
+     * @see WorkFlowEngine#schedule(org.jeasy.flows.workflow.WorkFlow, Trigger)
+     */
+    public WorkFlowEngineBuilder withSchedulerPool(String poolName) {
+        this.schedulerPool = poolName;
+        return this;
+    }
+
+    /**
+     * Profile all runs (defaults to false, runs can also be profiled individually with
+     * {@link RunOptions#profile(boolean)}). The report of a profiled run is a
+     * {@link org.jeasy.flows.profile.ProfiledWorkReport} carrying the span tree of the run
+     * and its critical path. Profiling takes two clock readings and one allocation per
+     * work unit executed by flows.
+     *
+     * @param profiling true to profile all runs
+     * @return the builder instance
+     */
+    public WorkFlowEngineBuilder withProfiling(boolean profiling) {
+        this.profiling = profiling;
+        return this;
+    }
+
     /**
      * Create a new {@link WorkFlowEngine}.
      * 
      * @return a new {@link WorkFlowEngine}.
      */
     public WorkFlowEngine build() {
-        return new WorkFlowEngineImpl();
+        return new WorkFlowEngineImpl(pools, shutdownListener, payloadAllocator, auditSink,
+                maxConcurrentRuns, tenantWeights, admissionLimit, schedulerPool, profiling);
     }
 }
@@ -23,20 +23,256 @@
  */
 package org.jeasy.flows.engine;
 
+import org.jeasy.flows.audit.AuditRecord;
+import org.jeasy.flows.audit.AuditSink;
+import org.jeasy.flows.payload.PayloadAllocator;
+import org.jeasy.flows.profile.ExecutionProfile;
+import org.jeasy.flows.profile.ProfiledWorkReport;
+import org.jeasy.flows.profile.Profiler;
+import org.jeasy.flows.profile.Span;
+import org.jeasy.flows.work.DefaultWorkReport;
 import org.jeasy.flows.work.WorkContext;
 import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
 import org.jeasy.flows.workflow.WorkFlow;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
 
 class WorkFlowEngineImpl implements WorkFlowEngine {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(WorkFlowEngineImpl.class);
 
+    private final ExecutorPools pools;
+    private final ShutdownListener shutdownListener;
+    private final PayloadAllocator payloadAllocator;
+    private final AuditSink auditSink;
+    private final FairAdmission admission;
+    private final AdmissionControl admissionControl;
+    private final WorkFlowScheduler scheduler;
+    private final boolean profiling;
+    private final Set<Run> inFlightRuns = ConcurrentHashMap.newKeySet();
+    private final Object drainMonitor = new Object();
+    private volatile boolean shutdown;
+
+    WorkFlowEngineImpl() {
+        this(Collections.emptyMap(), (drained, abandoned, elapsed) -> { }, new PayloadAllocator(), null,
+                WorkFlowEngineBuilder.UNLIMITED, Collections.emptyMap(), null, null, false);
+    }
+
+    WorkFlowEngineImpl(Map<String, PoolPolicy> pools, ShutdownListener shutdownListener,
+                       PayloadAllocator payloadAllocator, AuditSink auditSink,
+                       int maxConcurrentRuns, Map<String, Double> tenantWeights, ConcurrencyLimit admissionLimit,
+                       String schedulerPool, boolean profiling) {
+        Map<String, Double> weights = Collections.unmodifiableMap(new HashMap<>(tenantWeights));
+        this.pools = new ExecutorPools(pools, weights);
+        this.shutdownListener = shutdownListener;
+        this.payloadAllocator = payloadAllocator;
+        this.auditSink = auditSink;
+        this.admission = maxConcurrentRuns == WorkFlowEngineBuilder.UNLIMITED
+                ? null : new FairAdmission(maxConcurrentRuns, new FairQueueing(weights));
+        this.admissionControl = admissionLimit == null ? null : new AdmissionControl(admissionLimit);
+        this.profiling = profiling;
+        this.scheduler = new WorkFlowScheduler(this, schedulerPool == null ? null : this.pools.get(schedulerPool));
+    }
+
     public WorkReport run(WorkFlow workFlow, WorkContext workContext) {
-        LOGGER.info("Running workflow ''{}''", workFlow.getName());
-        return workFlow.execute(workContext);
+        return run(workFlow, workContext, new RunOptions());
+    }
+
+    @Override
+    public WorkReport run(WorkFlow workFlow, WorkContext workContext, RunOptions options) {
+        Profiler profiler = profiling || options.isProfiled() ? new Profiler() : null;
+        long readyTime = System.nanoTime();
+        Run run = new Run(workFlow, workContext);
+        inFlightRuns.add(run);
+        long startTime = System.currentTimeMillis();
+        long start = System.nanoTime();
+        WorkReport workReport = null;
+        Throwable thrown = null;
+        boolean admitted = false;
+        try {
+            if (shutdown) {
+                LOGGER.warn("Rejecting workflow ''{}'', the engine is shut down", workFlow.getName());
+                String message = String.format("Unable to run workflow '%s', the engine is shut down", workFlow.getName());
+                workReport = new DefaultWorkReport(WorkStatus.REJECTED, workContext, new IllegalStateException(message));
+                return workReport;
+            }
+            if (admissionControl != null) {
+                if (!admissionControl.tryAcquire()) {
+                    LOGGER.debug("Rejecting workflow ''{}'', the admission limit is reached", workFlow.getName());
+                    String message = String.format("Unable to run workflow '%s', the admission limit is reached", workFlow.getName());
+                    workReport = new DefaultWorkReport(WorkStatus.REJECTED, workContext, new RejectedExecutionException(message));
+                    return workReport;
+                }
+                admitted = true;
+            }
+            workReport = runAdmitted(workFlow, workContext, options, profiler, readyTime);
+            return workReport;
+        } catch (RuntimeException | Error e) {
+            thrown = e;
+            throw e;
+        } finally {
+            long duration = System.nanoTime() - start;
+            if (admitted) {
+                Throwable error = thrown != null ? thrown : workReport != null ? workReport.getError() : null;
+                admissionControl.release(duration, isDropped(error));
+            }
+            if (auditSink != null) {
+                auditSink.record(AuditRecord.of(AuditRecord.Type.RUN, workFlow.getName(), workReport, thrown, startTime, duration));
+            }
+            workContext.releasePayloads();
+            inFlightRuns.remove(run);
+            if (shutdown) {
+                synchronized (drainMonitor) {
+                    drainMonitor.notifyAll();
+                }
+            }
+        }
+    }
+
+    private WorkReport runAdmitted(WorkFlow workFlow, WorkContext workContext, RunOptions options,
+                                   Profiler profiler, long readyTime) {
+        LOGGER.debug("Running workflow ''{}''", workFlow.getName());
+        if (auditSink != null && workContext.getAuditSink() == null) {
+            workContext.setAuditSink(auditSink);
+        }
+        if (admission != null) {
+            try {
+                admission.acquire(options);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new DefaultWorkReport(WorkStatus.FAILED, workContext, e);
+            }
+        }
+        RunOptions previousOptions = RunOptions.enter(options);
+        try {
+            if (profiler == null) {
+                return workFlow.execute(workContext);
+            }
+            return runProfiled(workFlow, workContext, profiler, readyTime);
+        } finally {
+            RunOptions.restore(previousOptions);
+            if (admission != null) {
+                admission.release();
+            }
+        }
+    }
+
+    /**
+     * Run a workflow recording its spans. The queue wait of the root span is the time
+     * the run waited to be admitted.
+     */
+    private static WorkReport runProfiled(WorkFlow workFlow, WorkContext workContext, Profiler profiler, long readyTime) {
+        Profiler previousProfiler = workContext.getProfiler();
+        workContext.setProfiler(profiler);
+        Span root = profiler.enter(workFlow.getName(), null, readyTime);
+        WorkReport workReport = null;
+        Throwable thrown = null;
+        try {
+            workReport = workFlow.execute(workContext);
+        } catch (RuntimeException | Error e) {
+            thrown = e;
+            throw e;
+        } finally {
+            profiler.exit(root, workReport, thrown);
+            workContext.setProfiler(previousProfiler);
+        }
+        return workReport == null ? null : new ProfiledWorkReport(workReport, new ExecutionProfile(root));
+    }
+
+    /**
+     * Check if a run did not complete for lack of resources rather than because of its work,
+     * which is a sign of overload for adaptive admission limits.
+     */
+    private static boolean isDropped(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RejectedExecutionException || cause instanceof CancellationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    FairAdmission getAdmission() {
+        return admission;
+    }
+
+    @Override
+    public ScheduledWorkFlow schedule(WorkFlow workFlow, Trigger trigger) {
+        return scheduler.schedule(workFlow, trigger);
+    }
+
+    @Override
+    public ExecutorService getPool(String name) {
+        return pools.get(name);
+    }
+
+    @Override
+    public PayloadAllocator getPayloadAllocator() {
+        return payloadAllocator;
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        scheduler.shutdown();
+        pools.shutdown();
+    }
+
+    @Override
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        shutdown = true;
+        scheduler.shutdown();
+        long start = System.nanoTime();
+        long deadline = start + unit.toNanos(timeout);
+        int inFlight = inFlightRuns.size();
+        synchronized (drainMonitor) {
+            long remaining = deadline - start;
+            while (!inFlightRuns.isEmpty() && remaining > 0) {
+                TimeUnit.NANOSECONDS.timedWait(drainMonitor, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        List<WorkFlow> abandoned = new ArrayList<>();
+        for (Run run : inFlightRuns) {
+            run.workContext.cancel();
+            abandoned.add(run.workFlow);
+        }
+        if (abandoned.isEmpty()) {
+            pools.shutdown();
+        } else {
+            LOGGER.warn("Cancelling {} workflow(s) still running after the shutdown timeout", abandoned.size());
+            scheduler.shutdownNow();
+            pools.shutdownNow();
+        }
+        shutdownListener.onShutdown(Math.max(inFlight - abandoned.size(), 0), abandoned, elapsed);
+        return abandoned.isEmpty();
+    }
+
+    private static class Run {
+
+        private final WorkFlow workFlow;
+        private final WorkContext workContext;
+
+        Run(WorkFlow workFlow, WorkContext workContext) {
+            this.workFlow = workFlow;
+            this.workContext = workContext;
+        }
     }
 
 }
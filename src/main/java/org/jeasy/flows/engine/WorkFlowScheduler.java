@@ -0,0 +1,332 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.engine;
+
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.workflow.WorkFlow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Scheduler of recurring workflow runs. All scheduled workflows share a single timer
+ * thread waiting on a priority queue of fire times, so the cost of a scheduled workflow
+ * is one queue entry rather than one thread or one scheduled future. Due runs are handed
+ * over to an executor, either a pool of the engine or a pool owned by the scheduler with
+ * one thread per available processor. The timer thread and the pool are started when the
+ * first workflow is scheduled.
+ *
+ * A workflow is not in the queue while it is running, which prevents overlapping runs:
+ * its next fire time is computed when the run ends.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+class WorkFlowScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkFlowScheduler.class);
+
+    private final WorkFlowEngine engine;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition wakeUp = lock.newCondition();
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>();
+    private ExecutorService executor;
+    private boolean ownsExecutor;
+    private Thread timer;
+    private long sequence;
+    private volatile boolean shutdown;
+
+    /**
+     * Create a new {@link WorkFlowScheduler}.
+     *
+     * @param engine running scheduled workflows
+     * @param executor to run scheduled workflows in, or null to use a pool owned by the scheduler
+     */
+    WorkFlowScheduler(WorkFlowEngine engine, ExecutorService executor) {
+        this.engine = engine;
+        this.executor = executor;
+    }
+
+    ScheduledWorkFlow schedule(WorkFlow workFlow, Trigger trigger) {
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new IllegalStateException(String.format("Unable to schedule workflow '%s', the engine is shut down", workFlow.getName()));
+            }
+            start();
+            Entry entry = new Entry(workFlow, trigger, sequence++);
+            entry.fireTime = trigger.firstFireTime(System.currentTimeMillis());
+            queue.add(entry);
+            wakeUp.signal();
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void shutdown() {
+        stop();
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    void shutdownNow() {
+        stop();
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void stop() {
+        lock.lock();
+        try {
+            shutdown = true;
+            queue.clear();
+            wakeUp.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void start() {
+        if (timer != null) {
+            return;
+        }
+        if (executor == null) {
+            int threads = Runtime.getRuntime().availableProcessors();
+            executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), new ExecutorPools.NamedThreadFactory("scheduled"));
+            ownsExecutor = true;
+        }
+        timer = new Thread(this::fireDueEntries, "easy-flows-scheduler");
+        timer.setDaemon(true);
+        timer.start();
+    }
+
+    private void fireDueEntries() {
+        Entry entry;
+        while ((entry = awaitDueEntry()) != null) {
+            Entry due = entry;
+            try {
+                executor.execute(() -> run(due));
+            } catch (RejectedExecutionException e) {
+                LOGGER.warn("Unable to run scheduled workflow ''{}'', the executor rejected it", due.workFlow.getName());
+                lock.lock();
+                try {
+                    due.running = false;
+                    due.misfires++;
+                    reschedule(due, due.trigger.nextFireTimeAfter(due.fireTime, System.currentTimeMillis()));
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Wait for the next entry to fire, applying misfire policies on the way.
+     *
+     * @return the entry to run, marked as running, or null if the scheduler is shut down
+     */
+    private Entry awaitDueEntry() {
+        lock.lock();
+        try {
+            while (!shutdown) {
+                Entry entry = queue.peek();
+                if (entry == null) {
+                    wakeUp.await();
+                    continue;
+                }
+                long now = System.currentTimeMillis();
+                long delay = entry.fireTime - now;
+                if (delay > 0) {
+                    wakeUp.await(delay, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                queue.poll();
+                Trigger trigger = entry.trigger;
+                if (-delay > trigger.getMisfireThreshold()) {
+                    entry.misfires++;
+                    if (trigger.getMisfirePolicy() == Trigger.MisfirePolicy.SKIP) {
+                        entry.fireTime = trigger.nextFireTimeAfter(entry.fireTime, now);
+                        queue.add(entry);
+                        continue;
+                    }
+                    entry.fireTime = now; // fire once and resume the schedule from now
+                }
+                entry.running = true;
+                return entry;
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run(Entry entry) {
+        WorkReport workReport = null;
+        try {
+            workReport = engine.run(entry.workFlow, new WorkContext());
+        } catch (RuntimeException e) {
+            LOGGER.warn("Scheduled workflow ''{}'' failed", entry.workFlow.getName(), e);
+        } finally {
+            long end = System.currentTimeMillis();
+            lock.lock();
+            try {
+                entry.running = false;
+                entry.runs++;
+                entry.lastReport = workReport;
+                reschedule(entry, entry.trigger.nextFireTime(entry.fireTime, end));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void reschedule(Entry entry, long fireTime) {
+        if (entry.cancelled || shutdown) {
+            return;
+        }
+        entry.fireTime = fireTime;
+        queue.add(entry);
+        wakeUp.signal();
+    }
+
+    private class Entry implements ScheduledWorkFlow, Comparable<Entry> {
+
+        private final WorkFlow workFlow;
+        private final Trigger trigger;
+        private final long sequence;
+        // guarded by lock
+        private long fireTime;
+        private boolean running, cancelled;
+        private long runs, misfires;
+        private WorkReport lastReport;
+
+        Entry(WorkFlow workFlow, Trigger trigger, long sequence) {
+            this.workFlow = workFlow;
+            this.trigger = trigger;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public WorkFlow getWorkFlow() {
+            return workFlow;
+        }
+
+        @Override
+        public Trigger getTrigger() {
+            return trigger;
+        }
+
+        @Override
+        public long getNextFireTime() {
+            lock.lock();
+            try {
+                return running || isCancelled() ? -1 : fireTime;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public long getRunCount() {
+            lock.lock();
+            try {
+                return runs;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public long getMisfireCount() {
+            lock.lock();
+            try {
+                return misfires;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public WorkReport getLastReport() {
+            lock.lock();
+            try {
+                return lastReport;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            lock.lock();
+            try {
+                cancelled = true;
+                if (queue.remove(this)) {
+                    wakeUp.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            lock.lock();
+            try {
+                return cancelled || shutdown;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int comparison = Long.compare(fireTime, other.fireTime);
+            return comparison != 0 ? comparison : Long.compare(sequence, other.sequence);
+        }
+
+        @Override
+        public String toString() {
+            return "ScheduledWorkFlow {" +
+                    "workFlow=" + workFlow.getName() +
+                    ", trigger=" + trigger +
+                    '}';
+        }
+    }
+}
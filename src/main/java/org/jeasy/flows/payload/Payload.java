@@ -0,0 +1,182 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.payload;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A large byte payload stored off-heap, to be passed between work units through
+ * the {@link org.jeasy.flows.work.WorkContext}. Payloads are allocated by a
+ * {@link PayloadAllocator}, either in pooled direct buffers or in memory-mapped
+ * temporary files.
+ *
+ * Slices share the memory of the payload they are taken from without copying it.
+ * Releasing a payload or any of its slices releases the shared memory: it is returned
+ * to the pool of the allocator and must not be used anymore. Payloads put in a work
+ * context are released by the {@link org.jeasy.flows.engine.WorkFlowEngine} when the run ends.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public final class Payload {
+
+    private final ByteBuffer buffer;
+    private final ByteBuffer storage;
+    private final PayloadAllocator allocator;
+    private final boolean mapped;
+    private final AtomicBoolean released;
+
+    /**
+     * Create a payload stored in the first bytes of the given storage buffer.
+     */
+    Payload(ByteBuffer storage, int size, PayloadAllocator allocator, boolean mapped) {
+        ByteBuffer view = storage.duplicate();
+        ((Buffer) view).clear();
+        ((Buffer) view).limit(size);
+        this.buffer = view.slice();
+        this.storage = storage;
+        this.allocator = allocator;
+        this.mapped = mapped;
+        this.released = new AtomicBoolean();
+    }
+
+    private Payload(ByteBuffer buffer, Payload parent) {
+        this.buffer = buffer;
+        this.storage = parent.storage;
+        this.allocator = parent.allocator;
+        this.mapped = parent.mapped;
+        this.released = parent.released;
+    }
+
+    /**
+     * Get the size of this payload in bytes.
+     *
+     * @return the size of this payload
+     */
+    public int size() {
+        return buffer.limit();
+    }
+
+    /**
+     * Get a view of the content of this payload. The view has its own position and limit,
+     * initially set to the start and the end of the payload.
+     *
+     * @return a view of the content of this payload
+     * @throws IllegalStateException if this payload has been released
+     */
+    public ByteBuffer buffer() {
+        checkNotReleased();
+        return buffer.duplicate();
+    }
+
+    /**
+     * Get a slice of this payload, sharing its memory.
+     *
+     * @param offset of the slice in this payload
+     * @param length of the slice
+     * @return a slice of this payload
+     * @throws IllegalStateException if this payload has been released
+     */
+    public Payload slice(int offset, int length) {
+        checkNotReleased();
+        if (offset < 0 || length < 0 || offset + length > size()) {
+            throw new IndexOutOfBoundsException(String.format("Invalid slice [%d, %d) of a payload of %d bytes", offset, offset + length, size()));
+        }
+        ByteBuffer view = buffer.duplicate();
+        ((Buffer) view).position(offset);
+        ((Buffer) view).limit(offset + length);
+        return new Payload(view.slice(), this);
+    }
+
+    /**
+     * Copy the content of this payload to the heap.
+     *
+     * @return a copy of the content of this payload
+     * @throws IllegalStateException if this payload has been released
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[size()];
+        buffer().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Copy the content of this payload to a new payload of the same allocator. The copy
+     * does not share memory with this payload, and is released independently.
+     *
+     * @return a copy of this payload
+     * @throws IllegalStateException if this payload has been released
+     * @throws java.io.UncheckedIOException if the copy cannot be spilled to a file
+     */
+    public Payload copy() {
+        ByteBuffer content = buffer();
+        Payload copy = allocator.allocate(size());
+        copy.buffer().put(content);
+        return copy;
+    }
+
+    /**
+     * Check if this payload is stored in a memory-mapped temporary file.
+     *
+     * @return true if this payload is memory-mapped
+     */
+    public boolean isMapped() {
+        return mapped;
+    }
+
+    /**
+     * Check if this payload has been released.
+     *
+     * @return true if this payload has been released
+     */
+    public boolean isReleased() {
+        return released.get();
+    }
+
+    /**
+     * Release the memory of this payload and of all slices sharing it. Releasing
+     * a payload more than once has no effect.
+     */
+    public void release() {
+        if (released.compareAndSet(false, true)) {
+            allocator.recycle(storage, mapped);
+        }
+    }
+
+    private void checkNotReleased() {
+        if (released.get()) {
+            throw new IllegalStateException("The payload has been released");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Payload {" +
+                "size=" + size() +
+                ", mapped=" + mapped +
+                ", released=" + released.get() +
+                '}';
+    }
+}
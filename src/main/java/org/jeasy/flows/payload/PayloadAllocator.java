@@ -0,0 +1,176 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.payload;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocates {@link Payload}s off-heap.
+ *
+ * Payloads are stored in direct buffers, rounded up to the next power of two (and at
+ * least {@value #MIN_BUFFER_SIZE} bytes). Released buffers are kept in a pool per size
+ * and reused by later allocations, up to a maximum number of pooled bytes.
+ *
+ * When a spill directory is configured, payloads larger than the spill threshold are
+ * stored in memory-mapped temporary files of this directory instead, so that they do not
+ * count against the direct memory limit of the JVM. The files are deleted as soon as they
+ * are mapped, and the mapped memory is reclaimed by the garbage collector once released
+ * payloads are no longer referenced.
+ *
+ * <strong>Payload allocator instances are thread-safe.</strong>
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class PayloadAllocator {
+
+    static final int MIN_BUFFER_SIZE = 4096;
+
+    private static final int MIN_SIZE_CLASS = Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE);
+    private static final int MAX_SIZE_CLASS = 30;
+    private static final long DEFAULT_MAX_POOLED_BYTES = 64L * 1024 * 1024;
+
+    private final long maxPooledBytes;
+    private final long spillThreshold;
+    private final Path spillDirectory;
+    private final Queue<ByteBuffer>[] pools;
+    private final AtomicLong pooledBytes = new AtomicLong();
+
+    /**
+     * Create a new {@link PayloadAllocator} pooling up to 64 MB of direct buffers,
+     * without spilling payloads to files.
+     */
+    public PayloadAllocator() {
+        this(DEFAULT_MAX_POOLED_BYTES, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * Create a new {@link PayloadAllocator}.
+     *
+     * @param maxPooledBytes maximum number of bytes of released buffers kept for reuse
+     * @param spillThreshold size in bytes above which payloads are stored in memory-mapped files
+     * @param spillDirectory directory of memory-mapped files, or null to never spill payloads to files
+     */
+    @SuppressWarnings("unchecked")
+    public PayloadAllocator(long maxPooledBytes, long spillThreshold, Path spillDirectory) {
+        this.maxPooledBytes = maxPooledBytes;
+        this.spillThreshold = spillThreshold;
+        this.spillDirectory = spillDirectory;
+        this.pools = (Queue<ByteBuffer>[]) new Queue<?>[MAX_SIZE_CLASS + 1];
+        for (int sizeClass = MIN_SIZE_CLASS; sizeClass <= MAX_SIZE_CLASS; sizeClass++) {
+            pools[sizeClass] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Allocate a payload of the given size. The content of the payload is undefined.
+     *
+     * @param size of the payload in bytes
+     * @return a new payload
+     * @throws UncheckedIOException if the payload cannot be spilled to a file
+     */
+    public Payload allocate(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("The size of a payload must be positive");
+        }
+        if (spillDirectory != null && size > spillThreshold) {
+            return new Payload(map(size), size, this, true);
+        }
+        int sizeClass = sizeClass(size);
+        ByteBuffer buffer = sizeClass <= MAX_SIZE_CLASS ? pools[sizeClass].poll() : null;
+        if (buffer != null) {
+            pooledBytes.addAndGet(-buffer.capacity());
+        } else {
+            buffer = ByteBuffer.allocateDirect(sizeClass <= MAX_SIZE_CLASS ? 1 << sizeClass : size);
+        }
+        return new Payload(buffer, size, this, false);
+    }
+
+    /**
+     * Allocate a payload holding a copy of the given bytes.
+     *
+     * @param content of the payload
+     * @return a new payload
+     */
+    public Payload allocate(byte[] content) {
+        Payload payload = allocate(content.length);
+        payload.buffer().put(content);
+        return payload;
+    }
+
+    /**
+     * Get the number of bytes of released buffers kept for reuse.
+     *
+     * @return the number of pooled bytes
+     */
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    void recycle(ByteBuffer buffer, boolean mapped) {
+        int capacity = buffer.capacity();
+        if (mapped || Integer.bitCount(capacity) != 1 || capacity < MIN_BUFFER_SIZE) {
+            return; // reclaimed by the garbage collector
+        }
+        if (pooledBytes.addAndGet(capacity) > maxPooledBytes) {
+            pooledBytes.addAndGet(-capacity);
+            return;
+        }
+        pools[Integer.numberOfTrailingZeros(capacity)].offer(buffer);
+    }
+
+    private static int sizeClass(int size) {
+        if (size <= MIN_BUFFER_SIZE) {
+            return MIN_SIZE_CLASS;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1);
+    }
+
+    private ByteBuffer map(int size) {
+        try {
+            Path file = Files.createTempFile(spillDirectory, "easy-flows-payload-", ".bin");
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(file.toFile(), "rw");
+                 FileChannel channel = randomAccessFile.getChannel()) {
+                randomAccessFile.setLength(size);
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            } finally {
+                try {
+                    Files.delete(file);
+                } catch (IOException e) {
+                    file.toFile().deleteOnExit(); // mapped files cannot be deleted on some platforms
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to spill payload to a file", e);
+        }
+    }
+}
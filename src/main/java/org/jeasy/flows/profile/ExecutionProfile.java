@@ -0,0 +1,116 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.profile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execution profile of a workflow run: the tree of {@link Span}s of the run and of
+ * every work unit executed by its flows (steps of sequential flows, branches of
+ * conditional and parallel flows, iterations of repeat flows, and so on).
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class ExecutionProfile {
+
+    private final Span root;
+
+    /**
+     * Create a new {@link ExecutionProfile}.
+     *
+     * @param root span of the run
+     */
+    public ExecutionProfile(Span root) {
+        this.root = root;
+    }
+
+    /**
+     * Get the span of the run.
+     *
+     * @return the root span
+     */
+    public Span getRoot() {
+        return root;
+    }
+
+    /**
+     * Get the critical path of the run: the chain of spans which determined its latency.
+     * Among nested spans, the last one to end is on the critical path, preceded by the last
+     * one to end before it started, and so on. Spans running in parallel with a span of the
+     * critical path are therefore not on it, since making them faster would not make the
+     * run faster.
+     *
+     * @return spans of the critical path, each one followed by the critical path of its nested spans
+     */
+    public List<Span> getCriticalPath() {
+        List<Span> path = new ArrayList<>();
+        addCriticalPath(root, path);
+        return path;
+    }
+
+    private static void addCriticalPath(Span span, List<Span> path) {
+        path.add(span);
+        List<Span> children = span.getChildren();
+        children.sort(Comparator.comparingLong(Span::getEnd));
+        List<Span> chain = new ArrayList<>();
+        long bound = span.getEnd();
+        for (int index = children.size() - 1; index >= 0; index--) {
+            Span child = children.get(index);
+            if (child.getEnd() <= bound) {
+                chain.add(child);
+                bound = child.getStart();
+            }
+        }
+        Collections.reverse(chain);
+        for (Span child : chain) {
+            addCriticalPath(child, path);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        append(builder, root, 0);
+        return builder.toString();
+    }
+
+    private static void append(StringBuilder builder, Span span, int depth) {
+        for (int i = 0; i < depth; i++) {
+            builder.append("  ");
+        }
+        builder.append(span.getName())
+                .append(" [").append(span.getStatus()).append("]")
+                .append(" start=").append(TimeUnit.NANOSECONDS.toMicros(span.getStart())).append("us")
+                .append(" wait=").append(TimeUnit.NANOSECONDS.toMicros(span.getQueueWait())).append("us")
+                .append(" run=").append(TimeUnit.NANOSECONDS.toMicros(span.getDuration())).append("us")
+                .append(System.lineSeparator());
+        for (Span child : span.getChildren()) {
+            append(builder, child, depth + 1);
+        }
+    }
+}
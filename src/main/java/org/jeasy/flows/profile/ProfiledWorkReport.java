@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.profile;
+
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+
+/**
+ * Report of a profiled workflow run: the report of the workflow, with the
+ * {@link ExecutionProfile} of the run.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class ProfiledWorkReport implements WorkReport {
+
+    private final WorkReport report;
+    private final ExecutionProfile profile;
+
+    /**
+     * Create a new {@link ProfiledWorkReport}.
+     *
+     * @param report of the workflow
+     * @param profile of the run
+     */
+    public ProfiledWorkReport(WorkReport report, ExecutionProfile profile) {
+        this.report = report;
+        this.profile = profile;
+    }
+
+    /**
+     * Get the report of the workflow, for example a {@link org.jeasy.flows.workflow.ParallelFlowReport}.
+     *
+     * @return the report of the workflow
+     */
+    public WorkReport getReport() {
+        return report;
+    }
+
+    /**
+     * Get the execution profile of the run.
+     *
+     * @return the execution profile
+     */
+    public ExecutionProfile getProfile() {
+        return profile;
+    }
+
+    @Override
+    public WorkStatus getStatus() {
+        return report.getStatus();
+    }
+
+    @Override
+    public Throwable getError() {
+        return report.getError();
+    }
+
+    @Override
+    public WorkContext getWorkContext() {
+        return report.getWorkContext();
+    }
+
+    @Override
+    public String toString() {
+        return "ProfiledWorkReport {" +
+                "report=" + report +
+                ", profile=" + System.lineSeparator() + profile +
+                '}';
+    }
+}
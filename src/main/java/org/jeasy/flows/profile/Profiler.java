@@ -0,0 +1,104 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.profile;
+
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+
+/**
+ * Records the {@link Span}s of a workflow run. A profiler is set on the work context of
+ * a profiled run by the {@link org.jeasy.flows.engine.WorkFlowEngine}, and flows open a
+ * span for each work unit they execute. Spans opened in a thread are nested in the span
+ * which is current in that thread, except for work units handed over to another thread
+ * (such as parallel branches), whose parent span is given explicitly.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class Profiler {
+
+    private final long origin = System.nanoTime();
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+
+    /**
+     * Get the span which is current in the calling thread.
+     *
+     * @return the current span, or null if no span is open in the calling thread
+     */
+    public Span current() {
+        return current.get();
+    }
+
+    /**
+     * Open a span which is ready to run now, nested in the current span of the calling thread.
+     *
+     * @param name of the span
+     * @return the opened span, which is now current in the calling thread
+     */
+    public Span enter(String name) {
+        long now = System.nanoTime();
+        return enter(name, current.get(), now, now);
+    }
+
+    /**
+     * Open a span which was ready to run at the given time, for example when it was
+     * submitted to an executor service, and starts running now.
+     *
+     * @param name of the span
+     * @param parent of the span, or null to nest it in the current span of the calling thread
+     * @param readyTime time at which the work was ready to run, as given by {@link System#nanoTime()}
+     * @return the opened span, which is now current in the calling thread
+     */
+    public Span enter(String name, Span parent, long readyTime) {
+        return enter(name, parent != null ? parent : current.get(), readyTime, System.nanoTime());
+    }
+
+    private Span enter(String name, Span parent, long readyTime, long now) {
+        Span span = new Span(name, readyTime - origin, Math.max(now - readyTime, 0));
+        if (parent != null) {
+            parent.addChild(span);
+        }
+        span.previous = current.get();
+        current.set(span);
+        return span;
+    }
+
+    /**
+     * Close a span opened in the calling thread.
+     *
+     * @param span to close
+     * @param report of the work, or null if it returned no report or threw an exception
+     * @param thrown exception thrown by the work, if any
+     */
+    public void exit(Span span, WorkReport report, Throwable thrown) {
+        long end = System.nanoTime() - origin;
+        WorkStatus status = thrown != null ? WorkStatus.FAILED : report != null ? report.getStatus() : null;
+        span.end(end - span.getStart() - span.getQueueWait(), status);
+        if (span.previous == null) {
+            current.remove();
+        } else {
+            current.set(span.previous);
+        }
+        span.previous = null;
+    }
+}
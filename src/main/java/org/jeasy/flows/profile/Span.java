@@ -0,0 +1,154 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.profile;
+
+import org.jeasy.flows.work.WorkStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Timing of the execution of a workflow run or of a work unit executed by a flow. Times
+ * are in nanoseconds, and the start of a span is relative to the start of the run. A span
+ * starts when its work is ready to execute, then waits in a queue (for example, a parallel
+ * branch waiting for a thread of the executor service, or a run waiting to be admitted by
+ * the engine) before running.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class Span {
+
+    private final String name;
+    private final long start;
+    private final long queueWait;
+    private final String thread;
+    private final List<Span> children = Collections.synchronizedList(new ArrayList<>());
+    private long duration;
+    private WorkStatus status;
+    // span which was current in the executing thread before this one, thread-confined
+    Span previous;
+
+    Span(String name, long start, long queueWait) {
+        this.name = name;
+        this.start = start;
+        this.queueWait = queueWait;
+        this.thread = Thread.currentThread().getName();
+    }
+
+    void end(long duration, WorkStatus status) {
+        this.duration = duration;
+        this.status = status;
+    }
+
+    void addChild(Span child) {
+        children.add(child);
+    }
+
+    /**
+     * Get the name of the workflow or work unit.
+     *
+     * @return the name of the span
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the time at which the work was ready to execute.
+     *
+     * @return the start of the span, in nanoseconds since the start of the run
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * Get the time spent waiting before running.
+     *
+     * @return the queue wait, in nanoseconds
+     */
+    public long getQueueWait() {
+        return queueWait;
+    }
+
+    /**
+     * Get the time spent running, including the time of nested spans.
+     *
+     * @return the run time, in nanoseconds
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Get the time at which the work finished.
+     *
+     * @return the end of the span, in nanoseconds since the start of the run
+     */
+    public long getEnd() {
+        return start + queueWait + duration;
+    }
+
+    /**
+     * Get the status of the work.
+     *
+     * @return the status, or null if the work returned no report
+     */
+    public WorkStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Get the name of the thread which executed the work.
+     *
+     * @return the thread name
+     */
+    public String getThread() {
+        return thread;
+    }
+
+    /**
+     * Get the spans of the work units executed by this one, in start order.
+     *
+     * @return nested spans
+     */
+    public List<Span> getChildren() {
+        synchronized (children) {
+            return new ArrayList<>(children);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Span {" +
+                "name='" + name + '\'' +
+                ", start=" + start +
+                ", queueWait=" + queueWait +
+                ", duration=" + duration +
+                ", status=" + status +
+                ", thread='" + thread + '\'' +
+                '}';
+    }
+}
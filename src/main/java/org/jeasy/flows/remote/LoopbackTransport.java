@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.remote;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory transport executing requests on a {@link RemoteWorker} of the same JVM.
+ *
+ * Requests and results are serialised and deserialised as they would be on the wire,
+ * so that flows can be tested on a single machine with the same copy semantics and
+ * serialisation failures as with a remote worker, including values of classes
+ * not accepted by {@link SocketWorker}s.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class LoopbackTransport implements WorkTransport {
+
+    private final RemoteWorker worker;
+    private final Set<String> allowedClasses = ConcurrentHashMap.newKeySet();
+
+    public LoopbackTransport(RemoteWorker worker) {
+        this.worker = worker;
+    }
+
+    /**
+     * Accept values of the given classes in requests and results, in addition to the
+     * default ones (see {@link SocketWorker}).
+     *
+     * @param types of values to accept
+     * @return this transport
+     */
+    public LoopbackTransport allow(Class<?>... types) {
+        for (Class<?> type : types) {
+            allowedClasses.add(type.getName());
+        }
+        return this;
+    }
+
+    @Override
+    public RemoteWorkResult execute(RemoteWorkRequest request) throws IOException {
+        RemoteWorkRequest received = copy(request, RemoteWorkRequest.class);
+        return copy(worker.execute(received), RemoteWorkResult.class);
+    }
+
+    private <T> T copy(T object, Class<T> type) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(bytes)) {
+            outputStream.writeObject(object);
+        }
+        try (ObjectInputStream inputStream = new RemoteObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()), allowedClasses)) {
+            return type.cast(inputStream.readObject());
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unable to deserialise " + type.getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.remote;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Mutual challenge-response authentication of a {@link SocketTransport} and a
+ * {@link SocketWorker} sharing a secret, performed on each connection before any object
+ * is exchanged. Each side sends a random challenge and proves it knows the secret by
+ * returning an HMAC-SHA256 of the challenge of the other side, so that the secret itself
+ * never goes over the wire.
+ *
+ * This authenticates peers but does not encrypt nor sign the objects exchanged afterwards:
+ * on untrusted networks, connections should go through TLS or an SSH tunnel.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+class PeerAuthentication {
+
+    static final int MINIMUM_SECRET_LENGTH = 16;
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int CHALLENGE_LENGTH = 32;
+    private static final int PROOF_LENGTH = 32;
+    private static final byte WORKER = 'W';
+    private static final byte TRANSPORT = 'T';
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final byte[] secret;
+
+    PeerAuthentication(byte[] secret) {
+        if (secret == null || secret.length < MINIMUM_SECRET_LENGTH) {
+            String message = String.format("The shared secret must be at least %d bytes long", MINIMUM_SECRET_LENGTH);
+            throw new IllegalArgumentException(message);
+        }
+        this.secret = Arrays.copyOf(secret, secret.length);
+    }
+
+    /**
+     * Authenticate the transport connected to the worker, and authenticate the worker to it.
+     *
+     * @param socket accepted by the worker
+     * @throws IOException if the transport does not know the secret
+     */
+    void authenticateTransport(Socket socket) throws IOException {
+        DataInputStream input = new DataInputStream(socket.getInputStream());
+        DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+        byte[] workerChallenge = challenge();
+        output.write(workerChallenge);
+        output.flush();
+        byte[] transportChallenge = read(input, CHALLENGE_LENGTH);
+        byte[] transportProof = read(input, PROOF_LENGTH);
+        if (!MessageDigest.isEqual(transportProof, proof(TRANSPORT, workerChallenge))) {
+            throw new IOException("Transport " + socket.getRemoteSocketAddress() + " failed to authenticate");
+        }
+        output.write(proof(WORKER, transportChallenge));
+        output.flush();
+    }
+
+    /**
+     * Authenticate the worker the transport is connected to, and authenticate the transport to it.
+     *
+     * @param socket connected to the worker
+     * @throws IOException if the worker does not know the secret or rejects the transport
+     */
+    void authenticateWorker(Socket socket) throws IOException {
+        DataInputStream input = new DataInputStream(socket.getInputStream());
+        DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+        byte[] workerChallenge = read(input, CHALLENGE_LENGTH);
+        byte[] transportChallenge = challenge();
+        output.write(transportChallenge);
+        output.write(proof(TRANSPORT, workerChallenge));
+        output.flush();
+        byte[] workerProof = read(input, PROOF_LENGTH);
+        if (!MessageDigest.isEqual(workerProof, proof(WORKER, transportChallenge))) {
+            throw new IOException("Worker " + socket.getRemoteSocketAddress() + " failed to authenticate");
+        }
+    }
+
+    private static byte[] challenge() {
+        byte[] challenge = new byte[CHALLENGE_LENGTH];
+        RANDOM.nextBytes(challenge);
+        return challenge;
+    }
+
+    private static byte[] read(DataInputStream input, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * The role is part of the proof, so that a proof cannot be replayed to the other side.
+     */
+    private byte[] proof(byte role, byte[] challenge) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret, ALGORITHM));
+            mac.update(role);
+            return mac.doFinal(challenge);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+}
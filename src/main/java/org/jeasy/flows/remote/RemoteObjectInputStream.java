@@ -0,0 +1,145 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.remote;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Object input stream resolving only the classes of requests, results and of the values
+ * they may hold, so that a peer cannot make the other side instantiate arbitrary
+ * serialisable classes (deserialisation gadgets).
+ *
+ * Accepted classes are {@link RemoteWorkRequest}, {@link RemoteWorkResult}, strings,
+ * boxed primitives, big numbers, {@link java.util.HashMap} (the entries of requests
+ * and results), the accumulators of {@link org.jeasy.flows.work.WorkContext}, exceptions
+ * of the {@code java.*} packages and the classes exceptions are made of, arrays of these
+ * classes, and any additional class given at construction time. Other exceptions, such as
+ * application exceptions or {@code javax.*} ones whose deserialisation calls methods on
+ * deserialised state, must be accepted explicitly.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+class RemoteObjectInputStream extends ObjectInputStream {
+
+    static final Set<String> DEFAULT_ALLOWED_CLASSES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            RemoteWorkRequest.class.getName(),
+            RemoteWorkResult.class.getName(),
+            org.jeasy.flows.work.WorkStatus.class.getName(),
+            "java.lang.Enum",
+            "java.lang.String",
+            "java.lang.Boolean",
+            "java.lang.Character",
+            "java.lang.Number",
+            "java.lang.Byte",
+            "java.lang.Short",
+            "java.lang.Integer",
+            "java.lang.Long",
+            "java.lang.Float",
+            "java.lang.Double",
+            "java.math.BigInteger",
+            "java.math.BigDecimal",
+            "java.util.HashMap",
+            // accumulators of work contexts
+            "java.util.concurrent.atomic.LongAdder$SerializationProxy",
+            "java.util.concurrent.atomic.DoubleAdder$SerializationProxy",
+            "java.util.concurrent.ConcurrentLinkedQueue",
+            "org.jeasy.flows.work.WorkContext$RegisterProxy",
+            // classes exceptions are made of
+            "java.lang.StackTraceElement",
+            "java.util.ArrayList",
+            "java.util.Collections$EmptyList",
+            "java.util.Collections$UnmodifiableCollection",
+            "java.util.Collections$UnmodifiableList",
+            "java.util.Collections$UnmodifiableRandomAccessList"
+    )));
+
+    private final Set<String> allowedClasses;
+
+    /**
+     * Create a new {@link RemoteObjectInputStream}.
+     *
+     * @param inputStream to read objects from
+     * @param allowedClasses names of the classes accepted in addition to the default ones
+     * @throws IOException if the stream header cannot be read
+     */
+    RemoteObjectInputStream(InputStream inputStream, Set<String> allowedClasses) throws IOException {
+        super(inputStream);
+        this.allowedClasses = allowedClasses;
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass description) throws IOException, ClassNotFoundException {
+        String name = description.getName();
+        String componentName = componentName(name);
+        if (componentName == null || isAllowed(componentName)) {
+            return super.resolveClass(description);
+        }
+        throw new InvalidClassException(name, "Class not allowed in remote work requests and results");
+    }
+
+    @Override
+    protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+        throw new InvalidClassException("Proxy classes are not allowed in remote work requests and results");
+    }
+
+    private boolean isAllowed(String name) throws ClassNotFoundException {
+        if (DEFAULT_ALLOWED_CLASSES.contains(name) || allowedClasses.contains(name)) {
+            return true;
+        }
+        if (!name.startsWith("java.")) {
+            return false;
+        }
+        // exceptions of failed works, loaded without being initialised
+        Class<?> type = Class.forName(name, false, getClass().getClassLoader());
+        return Throwable.class.isAssignableFrom(type);
+    }
+
+    /**
+     * Get the name of the class of the elements of an array type, or the given name if
+     * it is not an array type.
+     *
+     * @return the component class name, or null for arrays of primitives
+     */
+    private static String componentName(String name) {
+        int dimensions = 0;
+        while (dimensions < name.length() && name.charAt(dimensions) == '[') {
+            dimensions++;
+        }
+        if (dimensions == 0) {
+            return name;
+        }
+        if (name.charAt(dimensions) == 'L' && name.endsWith(";")) {
+            return name.substring(dimensions + 1, name.length() - 1);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.remote;
+
+import org.jeasy.flows.work.DefaultWorkReport;
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A work executed by a worker, possibly running in another JVM, through a {@link WorkTransport}.
+ * Remote works can be used like any other work, for example as branches of a
+ * {@link org.jeasy.flows.workflow.ParallelFlow} to spread them over several workers.
+ *
+ * The entries of the work context are sent to the worker, and the entries written by
+ * the work on the worker are copied back into the work context once the work has been
+ * executed. Entries must therefore be serialisable. Other entries of the work context are
+ * left untouched, so that updates made by other work units while the remote work is running
+ * are not lost, but these updates are not visible to the worker. Values the worker mutates
+ * in place without putting them again, such as accumulators, are not copied back.
+ *
+ * If the request could not be delivered by a transport (a {@link ConnectException} is
+ * thrown), the next transport is tried. Other transport failures, such as a timeout while
+ * waiting for the result, may happen after the work has been executed, so the next transport
+ * is tried only for idempotent works (see {@link #RemoteWork(String, boolean, WorkTransport...)}).
+ * The report is {@link WorkStatus#FAILED} if no transport returns a result.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class RemoteWork implements Work {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RemoteWork.class);
+
+    private final String name;
+    private final boolean idempotent;
+    private final List<WorkTransport> transports;
+
+    /**
+     * Create a new {@link RemoteWork} which is not idempotent: the next transport is
+     * tried only if the request could not be delivered.
+     *
+     * @param name of the work registered on the workers
+     * @param transports to the workers, tried in order until one returns a result
+     */
+    public RemoteWork(String name, WorkTransport... transports) {
+        this(name, false, transports);
+    }
+
+    /**
+     * Create a new {@link RemoteWork}.
+     *
+     * @param name of the work registered on the workers
+     * @param idempotent true if the work can safely be executed more than once, so that
+     * the next transport is tried whenever a transport fails, even if the work may have
+     * been executed
+     * @param transports to the workers, tried in order until one returns a result
+     */
+    public RemoteWork(String name, boolean idempotent, WorkTransport... transports) {
+        if (transports.length == 0) {
+            throw new IllegalArgumentException("At least one transport is required");
+        }
+        this.name = name;
+        this.idempotent = idempotent;
+        this.transports = new ArrayList<>(Arrays.asList(transports));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public WorkReport execute(WorkContext workContext) {
+        Map<String, Object> entries = new HashMap<>();
+        workContext.getEntrySet().forEach(entry -> entries.put(entry.getKey(), entry.getValue()));
+        RemoteWorkRequest request = new RemoteWorkRequest(name, entries);
+
+        IOException failure = null;
+        for (WorkTransport transport : transports) {
+            RemoteWorkResult result;
+            try {
+                result = transport.execute(request);
+            } catch (NotSerializableException e) {
+                // retrying on another worker would fail the same way
+                return new DefaultWorkReport(WorkStatus.FAILED, workContext, e);
+            } catch (IOException e) {
+                LOGGER.warn("Unable to execute work ''{}'' with transport {}", name, transport, e);
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+                if (idempotent || e instanceof ConnectException) {
+                    continue;
+                }
+                // the work may have been executed, executing it again is not safe
+                String message = String.format("Unable to get the result of work '%s' with transport %s", name, transport);
+                return new DefaultWorkReport(WorkStatus.FAILED, workContext, new IOException(message, failure));
+            }
+            result.getEntries().forEach(workContext::put);
+            return new DefaultWorkReport(result.getStatus(), workContext, result.getError());
+        }
+        String message = String.format("Unable to execute work '%s' with any of its transports", name);
+        return new DefaultWorkReport(WorkStatus.FAILED, workContext, new IOException(message, failure));
+    }
+}
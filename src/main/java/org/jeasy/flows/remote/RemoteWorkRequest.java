@@ -0,0 +1,63 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.remote;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Request sent by a {@link RemoteWork} to a worker: the name of the work to execute
+ * and a copy of the entries of the work context.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class RemoteWorkRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String workName;
+    private final HashMap<String, Object> entries;
+
+    public RemoteWorkRequest(String workName, Map<String, Object> entries) {
+        this.workName = workName;
+        this.entries = new HashMap<>(entries);
+    }
+
+    public String getWorkName() {
+        return workName;
+    }
+
+    public Map<String, Object> getEntries() {
+        return entries;
+    }
+
+    @Override
+    public String toString() {
+        return "RemoteWorkRequest {" +
+                "workName='" + workName + '\'' +
+                ", entries=" + entries +
+                '}';
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.remote;
+
+import org.jeasy.flows.work.WorkStatus;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Result returned by a worker to a {@link RemoteWork}: the status and error of the
+ * work report, and the entries of the work context written by the work.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class RemoteWorkResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final WorkStatus status;
+    private final Throwable error;
+    private final HashMap<String, Object> entries;
+
+    public RemoteWorkResult(WorkStatus status, Throwable error, Map<String, Object> entries) {
+        this.status = status;
+        this.error = error;
+        this.entries = new HashMap<>(entries);
+    }
+
+    public WorkStatus getStatus() {
+        return status;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public Map<String, Object> getEntries() {
+        return entries;
+    }
+
+    @Override
+    public String toString() {
+        return "RemoteWorkResult {" +
+                "status=" + status +
+                ", error=" + error +
+                ", entries=" + entries +
+                '}';
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.remote;
+
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkContextChange;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Worker side of remote execution: a registry of works, looked up by name to
+ * execute requests received by a transport.
+ *
+ * <strong>Remote worker instances are thread-safe.</strong>
+ *
+ * @see SocketWorker
+ * @see LoopbackTransport
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class RemoteWorker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RemoteWorker.class);
+
+    private final Map<String, Work> works = new ConcurrentHashMap<>();
+
+    /**
+     * Register a work under its name.
+     *
+     * @param work to register
+     * @return this worker
+     */
+    public RemoteWorker register(Work work) {
+        return register(work.getName(), work);
+    }
+
+    /**
+     * Register a work under the given name.
+     *
+     * @param name to register the work under
+     * @param work to register
+     * @return this worker
+     */
+    public RemoteWorker register(String name, Work work) {
+        works.put(name, work);
+        return this;
+    }
+
+    /**
+     * Execute a request. The work is executed with a new work context holding the
+     * entries of the request, and the result holds only the entries written by the work.
+     *
+     * @param request to execute
+     * @return the result of the execution, {@link WorkStatus#FAILED} if no work is
+     * registered under the requested name or if the work throws an exception
+     */
+    public RemoteWorkResult execute(RemoteWorkRequest request) {
+        WorkContext workContext = new WorkContext(true);
+        request.getEntries().forEach(workContext::put);
+        int checkpoint = workContext.getChanges().size();
+        Work work = works.get(request.getWorkName());
+        if (work == null) {
+            String message = String.format("No work registered under the name '%s'", request.getWorkName());
+            return new RemoteWorkResult(WorkStatus.FAILED, new IllegalArgumentException(message), Collections.emptyMap());
+        }
+        WorkReport workReport;
+        try {
+            workReport = work.execute(workContext);
+        } catch (RuntimeException e) {
+            LOGGER.error("Unable to execute work ''{}''", request.getWorkName(), e);
+            return new RemoteWorkResult(WorkStatus.FAILED, e, writtenEntries(workContext, checkpoint));
+        }
+        if (workReport == null) {
+            return new RemoteWorkResult(WorkStatus.COMPLETED, null, writtenEntries(workContext, checkpoint));
+        }
+        return new RemoteWorkResult(workReport.getStatus(), workReport.getError(), writtenEntries(workContext, checkpoint));
+    }
+
+    private static Map<String, Object> writtenEntries(WorkContext workContext, int checkpoint) {
+        Map<String, Object> entries = new HashMap<>();
+        for (WorkContextChange change : workContext.getChangesSince(checkpoint)) {
+            entries.put(change.getKey(), workContext.get(change.getKey()));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.remote;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transport executing requests on a {@link SocketWorker} over TCP. Requests and
+ * results are written with Java serialisation, one connection per request.
+ *
+ * The transport and the worker authenticate each other with the secret they share
+ * before exchanging requests and results, and results may only hold values of the
+ * classes accepted by default (see {@link SocketWorker}) or of classes accepted with
+ * {@link #allow(Class[])}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class SocketTransport implements WorkTransport {
+
+    private static final long DEFAULT_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
+    private final InetSocketAddress address;
+    private final int timeout;
+    private final PeerAuthentication authentication;
+    private final Set<String> allowedClasses = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Create a new {@link SocketTransport} with a timeout of 30 seconds.
+     *
+     * @param host of the worker
+     * @param port of the worker
+     * @param secret shared with the worker, at least 16 bytes long
+     */
+    public SocketTransport(String host, int port, byte[] secret) {
+        this(host, port, secret, DEFAULT_TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Create a new {@link SocketTransport}.
+     *
+     * @param host of the worker
+     * @param port of the worker
+     * @param secret shared with the worker, at least 16 bytes long
+     * @param timeout to connect to the worker and to wait for the result
+     * @param unit of the timeout
+     */
+    public SocketTransport(String host, int port, byte[] secret, long timeout, TimeUnit unit) {
+        this.address = new InetSocketAddress(host, port);
+        this.timeout = (int) Math.min(unit.toMillis(timeout), Integer.MAX_VALUE);
+        this.authentication = new PeerAuthentication(secret);
+    }
+
+    /**
+     * Accept values of the given classes in results, in addition to the default ones.
+     *
+     * @param types of values to accept
+     * @return this transport
+     */
+    public SocketTransport allow(Class<?>... types) {
+        for (Class<?> type : types) {
+            allowedClasses.add(type.getName());
+        }
+        return this;
+    }
+
+    @Override
+    public RemoteWorkResult execute(RemoteWorkRequest request) throws IOException {
+        try (Socket socket = new Socket()) {
+            connect(socket);
+            ObjectOutputStream outputStream = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            outputStream.writeObject(request);
+            outputStream.flush();
+            ObjectInputStream inputStream = new RemoteObjectInputStream(new BufferedInputStream(socket.getInputStream()), allowedClasses);
+            return (RemoteWorkResult) inputStream.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Unexpected result from worker " + address, e);
+        }
+    }
+
+    /**
+     * Connect to the worker and authenticate it. The request has not been sent yet, so
+     * failures are reported as {@link ConnectException}s.
+     */
+    private void connect(Socket socket) throws IOException {
+        try {
+            socket.connect(address, timeout);
+            socket.setSoTimeout(timeout);
+            authentication.authenticateWorker(socket);
+        } catch (ConnectException e) {
+            throw e;
+        } catch (IOException e) {
+            ConnectException connectException = new ConnectException("Unable to connect to worker " + address + ": " + e.getMessage());
+            connectException.initCause(e);
+            throw connectException;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SocketTransport {" +
+                "address=" + address +
+                '}';
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.remote;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves requests of {@link SocketTransport}s by executing them on a {@link RemoteWorker}.
+ * Each connection is handled by its own thread.
+ *
+ * Transports must know the secret shared with the worker to connect to it, and requests
+ * may only hold values of the classes accepted by default (strings, boxed primitives,
+ * big numbers, accumulators of work contexts and exceptions of {@code java.*} packages)
+ * or of classes accepted with {@link #allow(Class[])}, so that a peer cannot run
+ * deserialisation gadgets on the worker.
+ * Authentication does not encrypt requests: on untrusted networks, connections should go
+ * through TLS or an SSH tunnel.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class SocketWorker implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SocketWorker.class);
+
+    private static final int HANDSHAKE_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(10);
+
+    private final RemoteWorker worker;
+    private final PeerAuthentication authentication;
+    private final Set<String> allowedClasses = ConcurrentHashMap.newKeySet();
+    private final ServerSocket serverSocket;
+    private final ExecutorService connectionExecutor;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Create a new {@link SocketWorker} listening on the loopback address.
+     *
+     * @param worker to execute requests
+     * @param secret shared with transports, at least 16 bytes long
+     * @param port to listen on, or 0 to use any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public SocketWorker(RemoteWorker worker, byte[] secret, int port) throws IOException {
+        this(worker, secret, InetAddress.getLoopbackAddress(), port);
+    }
+
+    /**
+     * Create a new {@link SocketWorker}.
+     *
+     * @param worker to execute requests
+     * @param secret shared with transports, at least 16 bytes long
+     * @param address to listen on
+     * @param port to listen on, or 0 to use any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public SocketWorker(RemoteWorker worker, byte[] secret, InetAddress address, int port) throws IOException {
+        this.worker = worker;
+        this.authentication = new PeerAuthentication(secret);
+        this.serverSocket = new ServerSocket(port, 0, address);
+        this.connectionExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "easy-flows-socket-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Accept values of the given classes in requests, in addition to the default ones.
+     * Only classes which are safe to deserialise from any authenticated transport should
+     * be accepted.
+     *
+     * @param types of values to accept
+     * @return this worker
+     */
+    public SocketWorker allow(Class<?>... types) {
+        for (Class<?> type : types) {
+            allowedClasses.add(type.getName());
+        }
+        return this;
+    }
+
+    /**
+     * Start accepting connections.
+     *
+     * @return this worker
+     */
+    public SocketWorker start() {
+        connectionExecutor.execute(this::accept);
+        return this;
+    }
+
+    /**
+     * Get the port this worker is listening on.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stop accepting connections and close open ones. Requests being executed
+     * do not return their result.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket connection : connections) {
+            connection.close();
+        }
+        connectionExecutor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket connection = serverSocket.accept();
+                connections.add(connection);
+                connectionExecutor.execute(() -> serve(connection));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    LOGGER.error("Unable to accept connection", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket connection) {
+        try (Socket socket = connection) {
+            socket.setSoTimeout(HANDSHAKE_TIMEOUT);
+            authentication.authenticateTransport(socket);
+            socket.setSoTimeout(0);
+            ObjectInputStream inputStream = new RemoteObjectInputStream(new BufferedInputStream(socket.getInputStream()), allowedClasses);
+            RemoteWorkRequest request = (RemoteWorkRequest) inputStream.readObject();
+            RemoteWorkResult result = worker.execute(request);
+            ObjectOutputStream outputStream = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            outputStream.writeObject(result);
+            outputStream.flush();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            if (!serverSocket.isClosed()) {
+                LOGGER.error("Unable to serve request from {}", connection.getRemoteSocketAddress(), e);
+            }
+        } finally {
+            connections.remove(connection);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.remote;
+
+import java.io.IOException;
+
+/**
+ * Transport used by a {@link RemoteWork} to execute a work on a worker, possibly
+ * running in another JVM.
+ *
+ * Implementations must throw an {@link IOException} when the worker cannot be reached
+ * or fails before returning a result, and a {@link java.net.ConnectException} when they
+ * know the request has not been delivered, so that the next transport (if any) can be
+ * tried without executing the work twice. Failures of the work itself are returned in
+ * the {@link RemoteWorkResult}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+@FunctionalInterface
+public interface WorkTransport {
+
+    /**
+     * Execute the requested work on a worker.
+     *
+     * @param request to send to the worker
+     * @return the result of the execution
+     * @throws IOException if the worker cannot be reached or does not return a result
+     */
+    RemoteWorkResult execute(RemoteWorkRequest request) throws IOException;
+}
@@ -0,0 +1,140 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.work;
+
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A decorator that hedges the execution of a unit of work: if the first attempt has
+ * not finished after a given delay, a second attempt is started and the report of the
+ * first attempt to succeed is returned. The other attempt is then cancelled.
+ *
+ * The hedging delay adapts to the observed latencies of the unit of work: it is the
+ * given percentile (95 by default) of the most recent latencies. Until enough latencies
+ * have been recorded, the initial delay is used.
+ *
+ * The latency of each attempt is measured from inside the attempt, so the delay follows
+ * the latencies of the decorated work and not the hedged ones. An attempt cancelled
+ * before it finishes records the time it ran, which is a lower bound of its latency.
+ *
+ * <strong>Only idempotent work should be hedged, since the decorated work might be
+ * executed twice with the same context.</strong> Both attempts share the context given
+ * to {@link #execute(WorkContext)}: the attempt which is cancelled is only interrupted,
+ * so it might still write to the context after the report of the other one has been
+ * returned, unless the decorated work stops writing once interrupted.
+ *
+ * <strong>It is the responsibility of the caller to manage the lifecycle of the
+ * executor service.</strong>
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class HedgedWork implements Work {
+
+    private static final int WINDOW_SIZE = 128;
+
+    private final Work work;
+    private final ExecutorService executorService;
+    private final LatencyTracker latencyTracker;
+
+    /**
+     * Create a new {@link HedgedWork} hedging after the 95th percentile of latencies,
+     * with an initial delay of 10 milliseconds.
+     *
+     * @param work to hedge
+     * @param executorService to use to execute attempts
+     */
+    public HedgedWork(Work work, ExecutorService executorService) {
+        this(work, executorService, 95, 10, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Create a new {@link HedgedWork}.
+     *
+     * @param work to hedge
+     * @param executorService to use to execute attempts
+     * @param percentile of recent latencies after which a second attempt is started
+     * @param initialDelay to use until enough latencies have been recorded
+     * @param unit of the initial delay
+     */
+    public HedgedWork(Work work, ExecutorService executorService, double percentile, long initialDelay, TimeUnit unit) {
+        this.work = work;
+        this.executorService = executorService;
+        this.latencyTracker = new LatencyTracker(WINDOW_SIZE, percentile, unit.toNanos(initialDelay));
+    }
+
+    @Override
+    public String getName() {
+        return work.getName();
+    }
+
+    @Override
+    public WorkReport execute(WorkContext workContext) {
+        CompletionService<WorkReport> completionService = new ExecutorCompletionService<>(executorService);
+        Future<WorkReport> firstAttempt = completionService.submit(() -> attempt(workContext));
+        Future<WorkReport> secondAttempt = null;
+        try {
+            Future<WorkReport> done = completionService.poll(latencyTracker.getEstimate(), TimeUnit.NANOSECONDS);
+            if (done == null) {
+                secondAttempt = completionService.submit(() -> attempt(workContext));
+                done = completionService.take();
+            }
+            WorkReport workReport = getReport(done, workContext);
+            if (secondAttempt != null && workReport != null && !WorkStatus.COMPLETED.equals(workReport.getStatus())) {
+                // the other attempt might still succeed
+                workReport = getReport(completionService.take(), workContext);
+            }
+            return workReport;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new DefaultWorkReport(WorkStatus.FAILED, workContext, e);
+        } finally {
+            firstAttempt.cancel(true);
+            if (secondAttempt != null) {
+                secondAttempt.cancel(true);
+            }
+        }
+    }
+
+    private WorkReport attempt(WorkContext workContext) {
+        long startTime = System.nanoTime();
+        try {
+            return work.execute(workContext);
+        } finally {
+            latencyTracker.record(System.nanoTime() - startTime);
+        }
+    }
+
+    private WorkReport getReport(Future<WorkReport> attempt, WorkContext workContext) throws InterruptedException {
+        try {
+            return attempt.get();
+        } catch (ExecutionException e) {
+            return new DefaultWorkReport(WorkStatus.FAILED, workContext, e.getCause());
+        }
+    }
+}
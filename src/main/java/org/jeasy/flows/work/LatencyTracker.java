@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.work;
+
+import java.util.Arrays;
+
+/**
+ * Keep track of the most recent latencies of a unit of work and estimate a percentile
+ * of their distribution.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+class LatencyTracker {
+
+    private static final int REFRESH_INTERVAL = 16;
+
+    private final long[] samples;
+    private final double percentile;
+    private int count;
+    private int next;
+    private volatile long estimate;
+
+    /**
+     * Create a new {@link LatencyTracker}.
+     *
+     * @param windowSize number of recent samples to keep
+     * @param percentile to estimate, between 0 (exclusive) and 100 (inclusive)
+     * @param initialEstimate estimate to use until enough samples have been recorded
+     */
+    LatencyTracker(int windowSize, double percentile, long initialEstimate) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("The window size must be greater than zero");
+        }
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("The percentile must be in the range ]0, 100]");
+        }
+        this.samples = new long[windowSize];
+        this.percentile = percentile;
+        this.estimate = initialEstimate;
+    }
+
+    /**
+     * Record a latency. The estimate is refreshed every few samples to keep
+     * recording cheap.
+     *
+     * @param latency to record
+     */
+    synchronized void record(long latency) {
+        samples[next] = latency;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        if (next % REFRESH_INTERVAL == 0 && count >= Math.min(REFRESH_INTERVAL, samples.length)) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100 * count) - 1;
+            estimate = sorted[Math.max(rank, 0)];
+        }
+    }
+
+    /**
+     * Get the current estimate of the percentile.
+     *
+     * @return the current estimate
+     */
+    long getEstimate() {
+        return estimate;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.work;
+
+import java.util.UUID;
+
+/**
+ * A {@link TypedWork} specialized for primitive {@code long} input and output values,
+ * so that numeric flows such as {@link org.jeasy.flows.workflow.LongSequentialFlow}
+ * do not box intermediate values.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+@FunctionalInterface
+public interface LongWork {
+
+    /**
+     * The name of the unit of work. The name must be unique within a workflow definition.
+     *
+     * @return name of the unit of work.
+     */
+    default String getName() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Execute the unit of work.
+     *
+     * @param input value, usually the output of the previous unit of work
+     * @param workContext context in which this unit of work is being executed
+     * @return the output value
+     * @throws RuntimeException if the unit of work has failed
+     */
+    long execute(long input, WorkContext workContext);
+
+    /**
+     * Adapt this work to a {@link TypedWork} of boxed values.
+     *
+     * @return a typed work executing this work
+     */
+    default TypedWork<Long, Long> boxed() {
+        LongWork longWork = this;
+        return new TypedWork<Long, Long>() {
+            @Override
+            public String getName() {
+                return longWork.getName();
+            }
+
+            @Override
+            public Long execute(Long input, WorkContext workContext) {
+                return longWork.execute(input, workContext);
+            }
+        };
+    }
+
+    /**
+     * Adapt a long work to a {@link Work} reading its input from the work context and
+     * writing its output to the work context, so that it can be used in any flow. The
+     * input value can be any {@link Number}. An exception thrown by the long work is
+     * reported as a {@link WorkStatus#FAILED} report.
+     *
+     * @param longWork to adapt
+     * @param inputKey key of the input value in the work context
+     * @param outputKey key of the output value in the work context
+     * @return a work executing the long work
+     */
+    static Work asWork(LongWork longWork, String inputKey, String outputKey) {
+        TypedWork<Number, Long> typedWork = new TypedWork<Number, Long>() {
+            @Override
+            public String getName() {
+                return longWork.getName();
+            }
+
+            @Override
+            public Long execute(Number input, WorkContext workContext) {
+                return longWork.execute(input.longValue(), workContext);
+            }
+        };
+        return TypedWork.asWork(typedWork, inputKey, outputKey);
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.work;
+
+import org.jeasy.flows.payload.Payload;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A decorator that coalesces concurrent executions of a unit of work with the same key:
+ * the first execution for a key (the leader) executes the decorated work, and executions
+ * with the same key starting while it is in flight (the followers) wait for it and share
+ * its outcome instead of executing the work again. Once the leader has finished, the next
+ * execution for the key executes the work again, results are not cached.
+ *
+ * Executions are coalesced whether they come from sibling branches of a parallel flow
+ * or from separate workflow runs, as long as they go through the same decorator instance.
+ *
+ * The key is computed from the work context by the given function, and executions for
+ * which it returns null are never coalesced. A follower gets a report with the status and
+ * error of the leader's report, bound to the follower's own work context. When the follower
+ * runs with a different work context than the leader, the values of the given result keys
+ * are copied from the leader's context into the follower's context. Values are shared, not
+ * cloned, except off-heap {@link Payload}s: each follower gets its own copy, made by the
+ * leader before its run can release the original, and released with the follower's run.
+ *
+ * <strong>Only work whose outcome depends only on the key should be coalesced.</strong>
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class SingleFlightWork implements Work {
+
+    private final Work work;
+    private final Function<WorkContext, ?> keyFunction;
+    private final Set<String> resultKeys;
+    private final ConcurrentMap<Object, Flight> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Create a new {@link SingleFlightWork}.
+     *
+     * @param work to decorate
+     * @param keyFunction computing the key of an execution from its work context
+     * @param resultKeys keys of the values written by the work, copied to the contexts of followers
+     */
+    public SingleFlightWork(Work work, Function<WorkContext, ?> keyFunction, String... resultKeys) {
+        this.work = work;
+        this.keyFunction = keyFunction;
+        this.resultKeys = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(resultKeys)));
+    }
+
+    @Override
+    public String getName() {
+        return work.getName();
+    }
+
+    @Override
+    public WorkReport execute(WorkContext workContext) {
+        Object key = keyFunction.apply(workContext);
+        if (key == null) {
+            return work.execute(workContext);
+        }
+        Flight flight = new Flight();
+        Flight leader;
+        while ((leader = inFlight.putIfAbsent(key, flight)) != null) {
+            if (leader.join(workContext)) {
+                coalesced.increment();
+                return follow(leader, workContext);
+            }
+            // the leader has just finished, it is removed from the map concurrently
+            inFlight.remove(key, leader);
+        }
+        WorkReport workReport;
+        try {
+            workReport = work.execute(workContext);
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.close();
+            flight.outcome.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(key, flight);
+        // no follower can join a closed flight, so payloads are copied for all of them
+        // before the run of the leader can release the originals
+        List<WorkContext> followers = flight.close();
+        try {
+            flight.copyPayloads(workReport, followers);
+            flight.outcome.complete(workReport);
+        } catch (RuntimeException | Error e) {
+            flight.outcome.completeExceptionally(e);
+        }
+        return workReport;
+    }
+
+    /**
+     * Get the number of executions currently in flight, one per key.
+     *
+     * @return the number of executions in flight
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Get the number of executions which shared the outcome of an execution in flight
+     * instead of executing the work.
+     *
+     * @return the number of coalesced executions
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    private WorkReport follow(Flight leader, WorkContext workContext) {
+        WorkReport leaderReport;
+        try {
+            leaderReport = leader.outcome.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new DefaultWorkReport(WorkStatus.FAILED, workContext, e);
+        } catch (ExecutionException e) {
+            return new DefaultWorkReport(WorkStatus.FAILED, workContext, e.getCause());
+        }
+        if (leaderReport == null) {
+            return null;
+        }
+        WorkContext leaderContext = leaderReport.getWorkContext();
+        if (leaderContext == workContext) {
+            return leaderReport;
+        }
+        if (leaderContext != null) {
+            Map<String, Payload> payloadCopies = leader.payloadCopies(workContext);
+            for (String resultKey : resultKeys) {
+                Object value = leaderContext.get(resultKey);
+                if (value instanceof Payload) {
+                    value = payloadCopies.get(resultKey);
+                }
+                if (value != null) {
+                    workContext.put(resultKey, value);
+                }
+            }
+        }
+        return new DefaultWorkReport(leaderReport.getStatus(), workContext, leaderReport.getError());
+    }
+
+    /**
+     * An execution in flight for a key, with the contexts of its followers.
+     */
+    private final class Flight {
+
+        private final CompletableFuture<WorkReport> outcome = new CompletableFuture<>();
+        private final Map<WorkContext, Map<String, Payload>> payloadCopies = new IdentityHashMap<>();
+        private List<WorkContext> followers = new ArrayList<>();
+
+        /**
+         * Register a follower, unless the leader does not accept followers anymore.
+         */
+        synchronized boolean join(WorkContext workContext) {
+            if (followers == null) {
+                return false;
+            }
+            followers.add(workContext);
+            return true;
+        }
+
+        synchronized List<WorkContext> close() {
+            List<WorkContext> joined = followers;
+            followers = null;
+            return joined;
+        }
+
+        synchronized void copyPayloads(WorkReport workReport, List<WorkContext> followers) {
+            WorkContext leaderContext = workReport == null ? null : workReport.getWorkContext();
+            if (leaderContext == null) {
+                return;
+            }
+            for (WorkContext follower : followers) {
+                if (follower == leaderContext || payloadCopies.containsKey(follower)) {
+                    continue;
+                }
+                Map<String, Payload> copies = new HashMap<>();
+                for (String resultKey : resultKeys) {
+                    Object value = leaderContext.get(resultKey);
+                    if (value instanceof Payload) {
+                        copies.put(resultKey, ((Payload) value).copy());
+                    }
+                }
+                payloadCopies.put(follower, copies);
+            }
+        }
+
+        synchronized Map<String, Payload> payloadCopies(WorkContext workContext) {
+            Map<String, Payload> copies = payloadCopies.get(workContext);
+            return copies == null ? Collections.emptyMap() : copies;
+        }
+    }
+}
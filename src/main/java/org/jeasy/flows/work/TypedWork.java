@@ -0,0 +1,123 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.work;
+
+import java.util.UUID;
+
+/**
+ * A unit of work taking an input value and returning an output value. In a
+ * {@link org.jeasy.flows.workflow.TypedSequentialFlow}, the output of a typed work is
+ * passed directly as input to the next one, without going through the {@link WorkContext}.
+ *
+ * Unlike {@link Work}, a typed work reports a failure by throwing an exception. Typed
+ * work units can still use the work context, for example to read settings of the run
+ * or to check whether the run has been cancelled.
+ *
+ * @param <I> type of the input value
+ * @param <O> type of the output value
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+@FunctionalInterface
+public interface TypedWork<I, O> {
+
+    /**
+     * The name of the unit of work. The name must be unique within a workflow definition.
+     *
+     * @return name of the unit of work.
+     */
+    default String getName() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Execute the unit of work.
+     *
+     * @param input value, usually the output of the previous unit of work
+     * @param workContext context in which this unit of work is being executed
+     * @return the output value
+     * @throws RuntimeException if the unit of work has failed
+     */
+    O execute(I input, WorkContext workContext);
+
+    /**
+     * Adapt a typed work to a {@link Work} reading its input from the work context and
+     * writing its output to the work context, so that it can be used in any flow. An
+     * exception thrown by the typed work is reported as a {@link WorkStatus#FAILED} report.
+     *
+     * @param typedWork to adapt
+     * @param inputKey key of the input value in the work context
+     * @param outputKey key of the output value in the work context
+     * @param <I> type of the input value
+     * @param <O> type of the output value
+     * @return a work executing the typed work
+     */
+    static <I, O> Work asWork(TypedWork<I, O> typedWork, String inputKey, String outputKey) {
+        return new Work() {
+            @Override
+            public String getName() {
+                return typedWork.getName();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public WorkReport execute(WorkContext workContext) {
+                try {
+                    O output = typedWork.execute((I) workContext.get(inputKey), workContext);
+                    workContext.put(outputKey, output);
+                    return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+                } catch (RuntimeException e) {
+                    return new DefaultWorkReport(WorkStatus.FAILED, workContext, e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Adapt a {@link Work} to a typed work passing its input through unchanged, so that
+     * existing work units can be used in a {@link org.jeasy.flows.workflow.TypedSequentialFlow}.
+     * A {@link WorkStatus#FAILED} report of the work is thrown as an exception.
+     *
+     * @param work to adapt
+     * @param <T> type of the input and output values
+     * @return a typed work executing the work
+     */
+    static <T> TypedWork<T, T> of(Work work) {
+        return new TypedWork<T, T>() {
+            @Override
+            public String getName() {
+                return work.getName();
+            }
+
+            @Override
+            public T execute(T input, WorkContext workContext) {
+                WorkReport workReport = work.execute(workContext);
+                if (workReport != null && !WorkStatus.COMPLETED.equals(workReport.getStatus())) {
+                    String message = String.format("Work unit '%s' has not completed (%s)", work.getName(), workReport.getStatus());
+                    throw new RuntimeException(message, workReport.getError());
+                }
+                return input;
+            }
+        };
+    }
+}
@@ -23,9 +23,24 @@
  */
 package org.jeasy.flows.work;
 
+import org.jeasy.flows.audit.AuditSink;
+import org.jeasy.flows.payload.Payload;
+import org.jeasy.flows.profile.Profiler;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 /**
  * Work execution context. This can be used to pass initial parameters to the
@@ -38,9 +53,59 @@ import java.util.concurrent.ConcurrentHashMap;
 public class WorkContext {
 	
 	private final Map<String, Object> context = new ConcurrentHashMap<>();
+	private final Queue<Payload> payloads = new ConcurrentLinkedQueue<>();
+	private volatile boolean cancelled;
+	private volatile AuditSink auditSink;
+	private volatile Profiler profiler;
+	private final List<WorkContextChange> changes;
+	private final ThreadLocal<String> currentStep;
+
+	/**
+	 * Create a new {@link WorkContext} which does not track changes.
+	 */
+	public WorkContext() {
+		this(false);
+	}
+
+	/**
+	 * Create a new {@link WorkContext}.
+	 *
+	 * When changes are tracked, each write is appended to a change log recording the
+	 * written key and the work which wrote it (see {@link #getChanges()}), so that the
+	 * keys written by a step can be known without comparing copies of the context.
+	 * Steps are attributed by flows, which record the work they execute in each thread.
+	 * Steps are identified by the name of their work, so attributing changes requires
+	 * works with a stable name: the default {@link Work#getName()} is a new random name on
+	 * each call. When changes are not tracked, nothing is recorded.
+	 *
+	 * @param trackChanges true to record the keys written by each step
+	 */
+	public WorkContext(boolean trackChanges) {
+		this.changes = trackChanges ? new ArrayList<>() : null;
+		this.currentStep = trackChanges ? new ThreadLocal<>() : null;
+	}
 
+	/**
+	 * Put a value in the context. {@link Payload}s put in the context are released
+	 * by {@link #releasePayloads()}, even if they are replaced in the meantime.
+	 *
+	 * @param key of the value
+	 * @param value to put in the context
+	 */
 	public void put(String key, Object value) {
-		context.put(key, value);
+		if (value instanceof Payload) {
+			payloads.add((Payload) value);
+		}
+		if (changes == null) {
+			context.put(key, value);
+			return;
+		}
+		String step = currentStep.get();
+		synchronized (changes) {
+			// write under the lock so that the last change of a key is the one of its value
+			context.put(key, value);
+			changes.add(new WorkContextChange(changes.size(), step, key));
+		}
 	}
 
 	public Object get(String key) {
@@ -51,8 +116,333 @@ public class WorkContext {
 		return context.entrySet();
 	}
 
+	/**
+	 * Get a payload from the context.
+	 *
+	 * @param key of the payload
+	 * @return the payload, or null if there is no value for this key
+	 * @throws ClassCastException if the value for this key is not a payload
+	 */
+	public Payload getPayload(String key) {
+		return (Payload) context.get(key);
+	}
+
+	/**
+	 * Get the counter of the given key, creating it if needed. Accumulators such as
+	 * counters let the work units of a parallel flow aggregate values in the context
+	 * without contention nor read-modify-write cycles on the context: each work unit
+	 * updates the accumulator, and its value is read once all work units are done.
+	 *
+	 * @param key of the counter
+	 * @return the counter of the given key
+	 * @throws ClassCastException if the value for this key is not a counter
+	 */
+	public LongAdder counter(String key) {
+		return accumulator(key, LongAdder.class, LongAdder::new);
+	}
+
+	/**
+	 * Get the floating-point counter of the given key, creating it if needed.
+	 *
+	 * @param key of the counter
+	 * @return the counter of the given key
+	 * @throws ClassCastException if the value for this key is not a floating-point counter
+	 * @see #counter(String)
+	 */
+	public DoubleAdder doubleCounter(String key) {
+		return accumulator(key, DoubleAdder.class, DoubleAdder::new);
+	}
+
+	/**
+	 * Get the bag of the given key, creating it if needed. Elements can be added to the
+	 * bag concurrently, and are iterated in no particular order.
+	 *
+	 * @param key of the bag
+	 * @param <T> type of elements
+	 * @return the bag of the given key
+	 * @throws ClassCastException if the value for this key is not a bag
+	 * @see #counter(String)
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Queue<T> bag(String key) {
+		return accumulator(key, ConcurrentLinkedQueue.class, ConcurrentLinkedQueue::new);
+	}
+
+	/**
+	 * Get the register of the maximum of values accumulated with the given key, creating
+	 * it if needed. The register is {@link Long#MIN_VALUE} until a value is accumulated.
+	 *
+	 * @param key of the register
+	 * @return the register of the given key
+	 * @throws ClassCastException if the value for this key is not a register of the maximum,
+	 * for instance if the key was first used with {@link #min(String)}
+	 * @see #counter(String)
+	 */
+	public LongAccumulator max(String key) {
+		return accumulator(key, MaxRegister.class, MaxRegister::new);
+	}
+
+	/**
+	 * Get the register of the minimum of values accumulated with the given key, creating
+	 * it if needed. The register is {@link Long#MAX_VALUE} until a value is accumulated.
+	 *
+	 * @param key of the register
+	 * @return the register of the given key
+	 * @throws ClassCastException if the value for this key is not a register of the minimum,
+	 * for instance if the key was first used with {@link #max(String)}
+	 * @see #counter(String)
+	 */
+	public LongAccumulator min(String key) {
+		return accumulator(key, MinRegister.class, MinRegister::new);
+	}
+
+	private <T> T accumulator(String key, Class<T> type, Supplier<T> factory) {
+		Object value = context.get(key);
+		if (value == null) {
+			value = createAccumulator(key, factory.get());
+		}
+		if (!type.isInstance(value)) {
+			String message = String.format("The value of key '%s' is not a %s but a %s",
+					key, type.getSimpleName(), value.getClass().getSimpleName());
+			throw new ClassCastException(message);
+		}
+		return type.cast(value);
+	}
+
+	/**
+	 * Put the given accumulator in the context unless another one was put concurrently,
+	 * in which case the other one is returned. Creating an accumulator is recorded as a
+	 * change, while updating it is not.
+	 */
+	private Object createAccumulator(String key, Object accumulator) {
+		if (changes == null) {
+			Object previous = context.putIfAbsent(key, accumulator);
+			return previous != null ? previous : accumulator;
+		}
+		String step = currentStep.get();
+		synchronized (changes) {
+			Object previous = context.putIfAbsent(key, accumulator);
+			if (previous != null) {
+				return previous;
+			}
+			changes.add(new WorkContextChange(changes.size(), step, key));
+			return accumulator;
+		}
+	}
+
+	/**
+	 * Release all {@link Payload}s put in this context. This is done by the
+	 * {@link org.jeasy.flows.engine.WorkFlowEngine} when a run ends, so payloads
+	 * must be copied (see {@link Payload#toByteArray()}) to be used after the run.
+	 */
+	public void releasePayloads() {
+		Payload payload;
+		while ((payload = payloads.poll()) != null) {
+			payload.release();
+		}
+	}
+
+	/**
+	 * Check if this context records the keys written by each step.
+	 *
+	 * @return true if changes are tracked
+	 */
+	public boolean isTrackingChanges() {
+		return changes != null;
+	}
+
+	/**
+	 * Execute a work as the given step, so that the keys it writes from the current thread
+	 * are attributed to the step. This is called by flows for each work unit they execute,
+	 * and simply executes the work if changes are not tracked. The step of the current
+	 * thread is restored when the work returns, so nested steps are attributed correctly.
+	 *
+	 * @param step name of the work being executed
+	 * @param work to execute
+	 * @return the report of the work
+	 */
+	public WorkReport executeStep(String step, Work work) {
+		if (currentStep == null) {
+			return work.execute(this);
+		}
+		String previousStep = currentStep.get();
+		currentStep.set(step);
+		try {
+			return work.execute(this);
+		} finally {
+			if (previousStep == null) {
+				currentStep.remove();
+			} else {
+				currentStep.set(previousStep);
+			}
+		}
+	}
+
+	/**
+	 * Get the change log of this context, in write order.
+	 *
+	 * @return the changes of this context, or an empty list if changes are not tracked
+	 */
+	public List<WorkContextChange> getChanges() {
+		return getChangesSince(0);
+	}
+
+	/**
+	 * Get the changes of this context from the given position of the change log. This
+	 * can be used to checkpoint a context by saving only the keys written since the
+	 * last checkpoint.
+	 *
+	 * @param sequence position of the first change to return
+	 * @return the changes from the given position, in write order
+	 */
+	public List<WorkContextChange> getChangesSince(int sequence) {
+		if (changes == null) {
+			return Collections.emptyList();
+		}
+		synchronized (changes) {
+			if (sequence >= changes.size()) {
+				return Collections.emptyList();
+			}
+			return new ArrayList<>(changes.subList(Math.max(sequence, 0), changes.size()));
+		}
+	}
+
+	/**
+	 * Get the keys written by the given step. Only works overriding {@link Work#getName()}
+	 * with a stable name can be looked up.
+	 *
+	 * @param step name of the work
+	 * @return the keys written by the step, in first write order
+	 */
+	public Set<String> getChangedKeys(String step) {
+		Set<String> keys = new LinkedHashSet<>();
+		for (WorkContextChange change : getChanges()) {
+			if (step.equals(change.getStep())) {
+				keys.add(change.getKey());
+			}
+		}
+		return keys;
+	}
+
+	/**
+	 * Set the sink recording the steps executed by flows with this context. This is
+	 * done by the {@link org.jeasy.flows.engine.WorkFlowEngine} when it is configured
+	 * with an audit sink.
+	 *
+	 * @param auditSink to record steps, or null to not record them
+	 */
+	public void setAuditSink(AuditSink auditSink) {
+		this.auditSink = auditSink;
+	}
+
+	/**
+	 * Get the sink recording the steps executed by flows with this context.
+	 *
+	 * @return the audit sink, or null if steps are not recorded
+	 */
+	public AuditSink getAuditSink() {
+		return auditSink;
+	}
+
+	/**
+	 * Set the profiler recording the spans of work units executed by flows with this
+	 * context. This is done by the {@link org.jeasy.flows.engine.WorkFlowEngine} for
+	 * profiled runs.
+	 *
+	 * @param profiler to record spans, or null to not record them
+	 */
+	public void setProfiler(Profiler profiler) {
+		this.profiler = profiler;
+	}
+
+	/**
+	 * Get the profiler recording the spans of work units executed by flows with this context.
+	 *
+	 * @return the profiler, or null if spans are not recorded
+	 */
+	public Profiler getProfiler() {
+		return profiler;
+	}
+
+	/**
+	 * Request the cancellation of the workflow executed with this context.
+	 * Cancellation is cooperative: sequential and repeat flows check it before
+	 * each work unit and stop with a {@link WorkStatus#FAILED} report whose error
+	 * is a {@link java.util.concurrent.CancellationException}. A work unit which
+	 * is already running is not interrupted, but it may check
+	 * {@link #isCancelled()} itself.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Check if the cancellation of the workflow executed with this context has been requested.
+	 *
+	 * @return true if the cancellation has been requested
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
 	@Override
 	public String toString() {
 		return "context=" + context + '}';
 	}
+
+	/**
+	 * Register of the maximum. It has its own type so that a key used with both
+	 * {@link #max(String)} and {@link #min(String)} fails fast.
+	 */
+	private static final class MaxRegister extends LongAccumulator {
+
+		private static final long serialVersionUID = 1L;
+
+		MaxRegister() {
+			super(Math::max, Long.MIN_VALUE);
+		}
+
+		private Object writeReplace() {
+			return new RegisterProxy(true, get());
+		}
+	}
+
+	/**
+	 * Register of the minimum, see {@link MaxRegister}.
+	 */
+	private static final class MinRegister extends LongAccumulator {
+
+		private static final long serialVersionUID = 1L;
+
+		MinRegister() {
+			super(Math::min, Long.MAX_VALUE);
+		}
+
+		private Object writeReplace() {
+			return new RegisterProxy(false, get());
+		}
+	}
+
+	/**
+	 * Serialized form of registers, which keeps their kind when a context is shipped to
+	 * a remote worker.
+	 */
+	private static final class RegisterProxy implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final boolean max;
+		private final long value;
+
+		RegisterProxy(boolean max, long value) {
+			this.max = max;
+			this.value = value;
+		}
+
+		private Object readResolve() {
+			LongAccumulator register = max ? new MaxRegister() : new MinRegister();
+			register.accumulate(value);
+			return register;
+		}
+	}
 }
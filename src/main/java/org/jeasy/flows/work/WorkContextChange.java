@@ -0,0 +1,80 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.work;
+
+/**
+ * Entry of the change log of a {@link WorkContext}: a key written by a step.
+ *
+ * @see WorkContext#WorkContext(boolean)
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class WorkContextChange {
+
+    private final int sequence;
+    private final String step;
+    private final String key;
+
+    WorkContextChange(int sequence, String step, String key) {
+        this.sequence = sequence;
+        this.step = step;
+        this.key = key;
+    }
+
+    /**
+     * Get the position of this change in the change log, starting from 0.
+     *
+     * @return the position of this change in the change log
+     */
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Get the name of the work which wrote the key.
+     *
+     * @return the name of the work, or null if the key was written outside of a flow step
+     */
+    public String getStep() {
+        return step;
+    }
+
+    /**
+     * Get the key which was written.
+     *
+     * @return the key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkContextChange {" +
+                "sequence=" + sequence +
+                ", step='" + step + '\'' +
+                ", key='" + key + '\'' +
+                '}';
+    }
+}
@@ -43,11 +43,59 @@ public interface WorkReportPredicate {
 
     WorkReportPredicate ALWAYS_TRUE = workReport -> true;
     WorkReportPredicate ALWAYS_FALSE = workReport -> false;
-    WorkReportPredicate COMPLETED = workReport -> workReport.getStatus().equals(WorkStatus.COMPLETED);
-    WorkReportPredicate FAILED = workReport -> workReport.getStatus().equals(WorkStatus.FAILED);
+    WorkReportPredicate COMPLETED = statusIn(WorkStatus.COMPLETED);
+    WorkReportPredicate FAILED = statusIn(WorkStatus.FAILED);
 
     /**
-     * A predicate that returns true after a given number of times.
+     * Create a predicate that is satisfied if this predicate and the given one are
+     * satisfied. The given predicate is not applied if this one is not satisfied,
+     * except that status checks are always applied first.
+     *
+     * @param other predicate
+     * @return the conjunction of this predicate and the given one
+     */
+    default WorkReportPredicate and(WorkReportPredicate other) {
+        return WorkReportPredicates.and(this, other);
+    }
+
+    /**
+     * Create a predicate that is satisfied if this predicate or the given one is
+     * satisfied. The given predicate is not applied if this one is satisfied,
+     * except that status checks are always applied first.
+     *
+     * @param other predicate
+     * @return the disjunction of this predicate and the given one
+     */
+    default WorkReportPredicate or(WorkReportPredicate other) {
+        return WorkReportPredicates.or(this, other);
+    }
+
+    /**
+     * Create a predicate that is satisfied if this predicate is not satisfied.
+     *
+     * @return the negation of this predicate
+     */
+    default WorkReportPredicate negate() {
+        return WorkReportPredicates.negate(this);
+    }
+
+    /**
+     * Create a predicate that is satisfied if the status of the work report is one
+     * of the given statuses.
+     *
+     * @param statuses to check
+     * @return a predicate on the status of the work report
+     */
+    static WorkReportPredicate statusIn(WorkStatus... statuses) {
+        return WorkReportPredicates.status(statuses);
+    }
+
+    /**
+     * A predicate that returns false every given number of times it is applied, and
+     * true otherwise. The predicate is stateful: its counter is reset each time it
+     * returns false so that a flow using it can be executed again, but it should not
+     * be shared between concurrent executions. {@link org.jeasy.flows.workflow.RepeatFlow}s
+     * built with {@code times(int)} count iterations per execution instead.
      *
      * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
      */
@@ -63,7 +111,7 @@ public interface WorkReportPredicate {
 
         @Override
         public boolean apply(WorkReport workReport) {
-            return counter.incrementAndGet() != times;
+            return counter.getAndUpdate(count -> count + 1 >= times ? 0 : count + 1) + 1 < times;
         }
 
         public static TimesPredicate times(int times) {
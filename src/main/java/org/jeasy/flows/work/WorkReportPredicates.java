@@ -0,0 +1,230 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.work;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.jeasy.flows.work.WorkReportPredicate.ALWAYS_FALSE;
+import static org.jeasy.flows.work.WorkReportPredicate.ALWAYS_TRUE;
+
+/**
+ * Implementations of {@link WorkReportPredicate} combinators.
+ *
+ * Combinators normalise predicates when they are composed (which typically happens when
+ * a flow is built), so that evaluation is as cheap as possible:
+ *
+ * <ul>
+ *     <li>nested conjunctions and disjunctions are flattened</li>
+ *     <li>{@link WorkReportPredicate#ALWAYS_TRUE} and {@link WorkReportPredicate#ALWAYS_FALSE}
+ *     operands are folded</li>
+ *     <li>status predicates are merged into a single bit mask check and evaluated before
+ *     other operands, which keep their relative order</li>
+ * </ul>
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+final class WorkReportPredicates {
+
+    private WorkReportPredicates() {
+    }
+
+    static WorkReportPredicate status(WorkStatus... statuses) {
+        int mask = 0;
+        for (WorkStatus status : statuses) {
+            mask |= bit(status);
+        }
+        return status(mask);
+    }
+
+    static WorkReportPredicate and(WorkReportPredicate left, WorkReportPredicate right) {
+        return compose(true, left, right);
+    }
+
+    static WorkReportPredicate or(WorkReportPredicate left, WorkReportPredicate right) {
+        return compose(false, left, right);
+    }
+
+    static WorkReportPredicate negate(WorkReportPredicate predicate) {
+        if (predicate == ALWAYS_TRUE) {
+            return ALWAYS_FALSE;
+        }
+        if (predicate == ALWAYS_FALSE) {
+            return ALWAYS_TRUE;
+        }
+        if (predicate instanceof StatusPredicate) {
+            return status(~((StatusPredicate) predicate).mask & allStatuses());
+        }
+        if (predicate instanceof NotPredicate) {
+            return ((NotPredicate) predicate).predicate;
+        }
+        return new NotPredicate(predicate);
+    }
+
+    /*
+     * A conjunction is absorbed by ALWAYS_FALSE and ignores ALWAYS_TRUE operands,
+     * a disjunction is absorbed by ALWAYS_TRUE and ignores ALWAYS_FALSE operands.
+     */
+    private static WorkReportPredicate compose(boolean conjunction, WorkReportPredicate... predicates) {
+        WorkReportPredicate absorbing = conjunction ? ALWAYS_FALSE : ALWAYS_TRUE;
+        WorkReportPredicate neutral = conjunction ? ALWAYS_TRUE : ALWAYS_FALSE;
+        int mask = conjunction ? allStatuses() : 0;
+        boolean hasStatusOperand = false;
+        List<WorkReportPredicate> operands = new ArrayList<>();
+        for (WorkReportPredicate predicate : flatten(conjunction, predicates)) {
+            if (predicate == absorbing) {
+                return absorbing;
+            }
+            if (predicate == neutral) {
+                continue;
+            }
+            if (predicate instanceof StatusPredicate) {
+                int operandMask = ((StatusPredicate) predicate).mask;
+                mask = conjunction ? mask & operandMask : mask | operandMask;
+                hasStatusOperand = true;
+            } else {
+                operands.add(predicate);
+            }
+        }
+        if (hasStatusOperand) {
+            WorkReportPredicate statusPredicate = status(mask);
+            if (statusPredicate == absorbing) {
+                return absorbing;
+            }
+            if (statusPredicate != neutral) {
+                operands.add(0, statusPredicate); // cheapest check first
+            }
+        }
+        if (operands.isEmpty()) {
+            return neutral;
+        }
+        if (operands.size() == 1) {
+            return operands.get(0);
+        }
+        WorkReportPredicate[] array = operands.toArray(new WorkReportPredicate[0]);
+        return conjunction ? new AndPredicate(array) : new OrPredicate(array);
+    }
+
+    private static List<WorkReportPredicate> flatten(boolean conjunction, WorkReportPredicate... predicates) {
+        List<WorkReportPredicate> flattened = new ArrayList<>();
+        for (WorkReportPredicate predicate : predicates) {
+            if (conjunction && predicate instanceof AndPredicate) {
+                for (WorkReportPredicate operand : ((AndPredicate) predicate).predicates) {
+                    flattened.add(operand);
+                }
+            } else if (!conjunction && predicate instanceof OrPredicate) {
+                for (WorkReportPredicate operand : ((OrPredicate) predicate).predicates) {
+                    flattened.add(operand);
+                }
+            } else {
+                flattened.add(predicate);
+            }
+        }
+        return flattened;
+    }
+
+    private static WorkReportPredicate status(int mask) {
+        if (mask == 0) {
+            return ALWAYS_FALSE;
+        }
+        if (mask == allStatuses()) {
+            return ALWAYS_TRUE;
+        }
+        return new StatusPredicate(mask);
+    }
+
+    private static int allStatuses() {
+        return (1 << WorkStatus.values().length) - 1;
+    }
+
+    private static int bit(WorkStatus status) {
+        return 1 << status.ordinal();
+    }
+
+    static final class StatusPredicate implements WorkReportPredicate {
+
+        private final int mask;
+
+        StatusPredicate(int mask) {
+            this.mask = mask;
+        }
+
+        @Override
+        public boolean apply(WorkReport workReport) {
+            return (mask & bit(workReport.getStatus())) != 0;
+        }
+    }
+
+    static final class AndPredicate implements WorkReportPredicate {
+
+        private final WorkReportPredicate[] predicates;
+
+        AndPredicate(WorkReportPredicate[] predicates) {
+            this.predicates = predicates;
+        }
+
+        @Override
+        public boolean apply(WorkReport workReport) {
+            for (WorkReportPredicate predicate : predicates) {
+                if (!predicate.apply(workReport)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    static final class OrPredicate implements WorkReportPredicate {
+
+        private final WorkReportPredicate[] predicates;
+
+        OrPredicate(WorkReportPredicate[] predicates) {
+            this.predicates = predicates;
+        }
+
+        @Override
+        public boolean apply(WorkReport workReport) {
+            for (WorkReportPredicate predicate : predicates) {
+                if (predicate.apply(workReport)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    static final class NotPredicate implements WorkReportPredicate {
+
+        private final WorkReportPredicate predicate;
+
+        NotPredicate(WorkReportPredicate predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean apply(WorkReport workReport) {
+            return !predicate.apply(workReport);
+        }
+    }
+}
@@ -38,5 +38,11 @@ public enum WorkStatus {
     /**
      * The unit of work has completed successfully
      */
-    COMPLETED
+    COMPLETED,
+
+    /**
+     * The unit of work has not been executed because it was rejected, for example
+     * by the admission control of an engine under overload
+     */
+    REJECTED
 }
@@ -23,6 +23,19 @@
  */
 package org.jeasy.flows.workflow;
 
+import org.jeasy.flows.audit.AuditRecord;
+import org.jeasy.flows.audit.AuditSink;
+import org.jeasy.flows.profile.Profiler;
+import org.jeasy.flows.profile.Span;
+import org.jeasy.flows.work.DefaultWorkReport;
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
+
 abstract class AbstractWorkFlow implements WorkFlow {
 
     private final String name;
@@ -34,4 +47,85 @@ abstract class AbstractWorkFlow implements WorkFlow {
     public String getName() {
         return name;
     }
+
+    /**
+     * Execute a work unit of a flow, recording its span in the profiler of the work context
+     * and recording it in the audit sink of the work context if any, and attributing the keys
+     * it writes in the work context to it when the context tracks changes. The name of the
+     * work is computed once, as works which do not override {@link Work#getName()} get a
+     * new random name on each call.
+     */
+    static WorkReport executeStep(Work work, WorkContext workContext) {
+        Profiler profiler = workContext.getProfiler();
+        if (profiler == null && workContext.getAuditSink() == null && !workContext.isTrackingChanges()) {
+            return work.execute(workContext);
+        }
+        String step = work.getName();
+        if (profiler == null) {
+            return executeAuditedStep(work, step, workContext);
+        }
+        return executeProfiledStep(work, step, workContext, profiler, profiler.enter(step));
+    }
+
+    /**
+     * Prepare the execution of a work unit of a flow in another thread, such as a branch
+     * of a parallel flow. When the run is profiled, the span of the work unit is nested in
+     * the current span of the calling thread, and the time until the work unit starts is
+     * recorded as queue wait.
+     */
+    static Supplier<WorkReport> branch(Work work, WorkContext workContext) {
+        Profiler profiler = workContext.getProfiler();
+        if (profiler == null) {
+            return () -> executeStep(work, workContext);
+        }
+        Span parent = profiler.current();
+        long readyTime = System.nanoTime();
+        return () -> {
+            String step = work.getName();
+            return executeProfiledStep(work, step, workContext, profiler, profiler.enter(step, parent, readyTime));
+        };
+    }
+
+    private static WorkReport executeProfiledStep(Work work, String step, WorkContext workContext, Profiler profiler, Span span) {
+        WorkReport workReport = null;
+        Throwable thrown = null;
+        try {
+            workReport = executeAuditedStep(work, step, workContext);
+            return workReport;
+        } catch (RuntimeException | Error e) {
+            thrown = e;
+            throw e;
+        } finally {
+            profiler.exit(span, workReport, thrown);
+        }
+    }
+
+    private static WorkReport executeAuditedStep(Work work, String step, WorkContext workContext) {
+        AuditSink auditSink = workContext.getAuditSink();
+        if (auditSink == null) {
+            return workContext.executeStep(step, work);
+        }
+        long startTime = System.currentTimeMillis();
+        long start = System.nanoTime();
+        WorkReport workReport = null;
+        Throwable thrown = null;
+        try {
+            workReport = workContext.executeStep(step, work);
+            return workReport;
+        } catch (RuntimeException | Error e) {
+            thrown = e;
+            throw e;
+        } finally {
+            long duration = System.nanoTime() - start;
+            auditSink.record(AuditRecord.of(AuditRecord.Type.STEP, step, workReport, thrown, startTime, duration));
+        }
+    }
+
+    /**
+     * Report returned by flows which stop because their context has been cancelled.
+     */
+    WorkReport cancelledReport(WorkContext workContext) {
+        String message = String.format("Workflow '%s' has been cancelled", name);
+        return new DefaultWorkReport(WorkStatus.FAILED, workContext, new CancellationException(message));
+    }
 }
@@ -62,17 +62,39 @@ public class ConditionalFlow extends AbstractWorkFlow {
      * {@inheritDoc}
      */
     public WorkReport execute(WorkContext workContext) {
-        WorkReport jobReport = initialWorkUnit.execute(workContext);
+        if (workContext.isCancelled()) {
+            return cancelledReport(workContext);
+        }
+        WorkReport jobReport = executeStep(initialWorkUnit, workContext);
+        if (workContext.isCancelled()) {
+            return cancelledReport(workContext);
+        }
         if (predicate.apply(jobReport)) {
-            jobReport = nextOnPredicateSuccess.execute(workContext);
+            jobReport = executeStep(nextOnPredicateSuccess, workContext);
         } else {
             if (nextOnPredicateFailure != null && !(nextOnPredicateFailure instanceof NoOpWork)) { // else is optional
-                jobReport = nextOnPredicateFailure.execute(workContext);
+                jobReport = executeStep(nextOnPredicateFailure, workContext);
             }
         }
         return jobReport;
     }
 
+    Work getInitialWorkUnit() {
+        return initialWorkUnit;
+    }
+
+    Work getNextOnPredicateSuccess() {
+        return nextOnPredicateSuccess;
+    }
+
+    Work getNextOnPredicateFailure() {
+        return nextOnPredicateFailure;
+    }
+
+    WorkReportPredicate getPredicate() {
+        return predicate;
+    }
+
     public static class Builder {
 
         private Builder() {
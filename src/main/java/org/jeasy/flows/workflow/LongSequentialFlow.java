@@ -0,0 +1,139 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.workflow;
+
+import org.jeasy.flows.work.LongWork;
+import org.jeasy.flows.work.WorkContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+
+/**
+ * A {@link TypedSequentialFlow} specialized for {@link LongWork} units: the output value
+ * of each work unit is passed as input to the next one as a primitive {@code long},
+ * without boxing it nor going through the {@link WorkContext}.
+ *
+ * If a unit of work fails, its exception is propagated and next work units are skipped.
+ * A long sequential flow is itself a long work, so it can be nested in another one, or
+ * used in any other flow with {@link LongWork#asWork(LongWork, String, String)}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class LongSequentialFlow implements LongWork {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LongSequentialFlow.class.getName());
+
+    private final String name;
+    private final LongWork[] workUnits;
+
+    LongSequentialFlow(String name, List<LongWork> workUnits) {
+        this.name = name;
+        this.workUnits = workUnits.toArray(new LongWork[0]);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws CancellationException if the work context has been cancelled
+     */
+    @Override
+    public long execute(long input, WorkContext workContext) {
+        long value = input;
+        for (LongWork work : workUnits) {
+            if (workContext.isCancelled()) {
+                LOGGER.info("Workflow ''{}'' has been cancelled, skipping work unit ''{}'' and subsequent ones", name, work.getName());
+                throw new CancellationException(String.format("Workflow '%s' has been cancelled", name));
+            }
+            value = work.execute(value, workContext);
+        }
+        return value;
+    }
+
+    public static class Builder {
+
+        private Builder() {
+            // force usage of static method aNewLongSequentialFlow
+        }
+
+        public static NameStep aNewLongSequentialFlow() {
+            return new BuildSteps();
+        }
+
+        public interface NameStep extends ExecuteStep {
+            ExecuteStep named(String name);
+        }
+
+        public interface ExecuteStep {
+            ThenStep execute(LongWork initialWork);
+        }
+
+        public interface ThenStep {
+            ThenStep then(LongWork nextWork);
+            LongSequentialFlow build();
+        }
+
+        private static class BuildSteps implements NameStep, ExecuteStep, ThenStep {
+
+            private String name;
+            private final List<LongWork> works;
+
+            BuildSteps() {
+                this.name = UUID.randomUUID().toString();
+                this.works = new ArrayList<>();
+            }
+
+            @Override
+            public ExecuteStep named(String name) {
+                this.name = name;
+                return this;
+            }
+
+            @Override
+            public ThenStep execute(LongWork initialWork) {
+                this.works.add(initialWork);
+                return this;
+            }
+
+            @Override
+            public ThenStep then(LongWork nextWork) {
+                this.works.add(nextWork);
+                return this;
+            }
+
+            @Override
+            public LongSequentialFlow build() {
+                return new LongSequentialFlow(this.name, this.works);
+            }
+        }
+    }
+}
@@ -32,6 +32,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A parallel flow executes a set of work units in parallel. A {@link ParallelFlow}
@@ -66,11 +67,23 @@ public class ParallelFlow extends AbstractWorkFlow {
      */
     public ParallelFlowReport execute(WorkContext workContext) {
         ParallelFlowReport workFlowReport = new ParallelFlowReport();
+        if (workContext.isCancelled()) {
+            workFlowReport.add(cancelledReport(workContext));
+            return workFlowReport;
+        }
         List<WorkReport> workReports = workExecutor.executeInParallel(workUnits, workContext);
         workFlowReport.addAll(workReports);
         return workFlowReport;
     }
 
+    List<Work> getWorkUnits() {
+        return workUnits;
+    }
+
+    ParallelFlowExecutor getWorkExecutor() {
+        return workExecutor;
+    }
+
     public static class Builder {
 
         private Builder() {
@@ -104,6 +117,17 @@ public class ParallelFlow extends AbstractWorkFlow {
         }
 
         public interface BuildStep {
+            /**
+             * Execute cheap work units in the calling thread instead of offloading them
+             * to the executor service. A work unit is cheap if its average execution time
+             * is below the given threshold. One of the expensive work units is also
+             * executed in the calling thread instead of leaving it idle.
+             *
+             * @param inlineThreshold under which work units are executed in the calling thread
+             * @param unit of the threshold
+             * @return the builder instance
+             */
+            BuildStep adaptive(long inlineThreshold, TimeUnit unit);
             ParallelFlow build();
         }
 
@@ -112,10 +136,12 @@ public class ParallelFlow extends AbstractWorkFlow {
             private String name;
             private final List<Work> works;
             private ExecutorService executorService;
+            private long inlineThreshold;
 
             public BuildSteps() {
                 this.name = UUID.randomUUID().toString();
                 this.works = new ArrayList<>();
+                this.inlineThreshold = -1;
             }
 
             @Override
@@ -136,11 +162,20 @@ public class ParallelFlow extends AbstractWorkFlow {
                 return this;
             }
 
+            @Override
+            public BuildStep adaptive(long inlineThreshold, TimeUnit unit) {
+                if (inlineThreshold < 0) {
+                    throw new IllegalArgumentException("The inline threshold must not be negative");
+                }
+                this.inlineThreshold = unit.toNanos(inlineThreshold);
+                return this;
+            }
+
             @Override
             public ParallelFlow build() {
                 return new ParallelFlow(
                         this.name, this.works,
-                        new ParallelFlowExecutor(this.executorService));
+                        new ParallelFlowExecutor(this.executorService, this.inlineThreshold));
             }
         }
 
@@ -23,31 +23,67 @@
  */
 package org.jeasy.flows.workflow;
 
+import org.jeasy.flows.work.DefaultWorkReport;
 import org.jeasy.flows.work.Work;
 import org.jeasy.flows.work.WorkContext;
 import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 class ParallelFlowExecutor {
 
+    private static final long NOT_ADAPTIVE = -1;
+
     private final ExecutorService workExecutor;
+    private final long inlineThreshold;
+    private final Map<Work, Long> costs = new ConcurrentHashMap<>();
 
     ParallelFlowExecutor(ExecutorService workExecutor) {
+        this(workExecutor, NOT_ADAPTIVE);
+    }
+
+    /**
+     * Create a new {@link ParallelFlowExecutor}.
+     *
+     * @param workExecutor to offload work units to
+     * @param inlineThreshold in nanoseconds under which the average execution time of a work
+     * unit is cheap enough to execute it in the calling thread, or a negative value to always
+     * offload work units to the executor service
+     */
+    ParallelFlowExecutor(ExecutorService workExecutor, long inlineThreshold) {
         this.workExecutor = workExecutor;
+        this.inlineThreshold = inlineThreshold;
+    }
+
+    ExecutorService getWorkExecutor() {
+        return workExecutor;
+    }
+
+    long getInlineThreshold() {
+        return inlineThreshold;
     }
 
     List<WorkReport> executeInParallel(List<Work> workUnits, WorkContext workContext) {
+        if (inlineThreshold >= 0) {
+            return executeAdaptively(workUnits, workContext);
+        }
+
         // prepare tasks for parallel submission
         List<Callable<WorkReport>> tasks = new ArrayList<>(workUnits.size());
-        workUnits.forEach(work -> tasks.add(() -> work.execute(workContext)));
+        workUnits.forEach(work -> tasks.add(AbstractWorkFlow.branch(work, workContext)::get));
 
         // submit work units and wait for results
         List<Future<WorkReport>> futures;
@@ -56,25 +92,160 @@ class ParallelFlowExecutor {
         } catch (InterruptedException e) {
             throw new RuntimeException("The parallel flow was interrupted while executing work units", e);
         }
-        Map<Work, Future<WorkReport>> workToReportFuturesMap = new HashMap<>();
+        // gather reports, in the same order as work units
+        List<WorkReport> workReports = new ArrayList<>(workUnits.size());
         for (int index = 0; index < workUnits.size(); index++) {
-            workToReportFuturesMap.put(workUnits.get(index), futures.get(index));
-        }
-
-        // gather reports
-        List<WorkReport> workReports = new ArrayList<>();
-        for (Map.Entry<Work, Future<WorkReport>> entry : workToReportFuturesMap.entrySet()) {
+            Work work = workUnits.get(index);
             try {
-                workReports.add(entry.getValue().get());
+                workReports.add(futures.get(index).get());
+            } catch (CancellationException e) {
+                workReports.add(cancelledReport(work, workContext, e));
             } catch (InterruptedException e) {
-                String message = String.format("The parallel flow was interrupted while waiting for the result of work unit '%s'", entry.getKey().getName());
+                String message = String.format("The parallel flow was interrupted while waiting for the result of work unit '%s'", work.getName());
                 throw new RuntimeException(message, e);
             } catch (ExecutionException e) {
-                String message = String.format("Unable to execute work unit '%s'", entry.getKey().getName());
+                String message = String.format("Unable to execute work unit '%s'", work.getName());
                 throw new RuntimeException(message, e);
             }
         }
 
         return workReports;
     }
+
+    /**
+     * Execute cheap work units in the calling thread and offload others to the executor
+     * service. Work units are cheap if their average execution time is known and is below
+     * the inline threshold. One of the expensive work units is also executed in the calling
+     * thread rather than leaving it idle while waiting for the others.
+     *
+     * @return reports of work units, in the same order as work units
+     */
+    private List<WorkReport> executeAdaptively(List<Work> workUnits, WorkContext workContext) {
+        int callerRunsIndex = -1;
+        List<Future<WorkReport>> futures = new ArrayList<>(workUnits.size());
+        for (int index = 0; index < workUnits.size(); index++) {
+            Work work = workUnits.get(index);
+            Long cost = costs.get(work);
+            if (cost != null && cost < inlineThreshold) {
+                futures.add(null);
+            } else if (callerRunsIndex < 0) {
+                callerRunsIndex = index;
+                futures.add(null);
+            } else {
+                Supplier<WorkReport> branch = AbstractWorkFlow.branch(work, workContext);
+                futures.add(this.workExecutor.submit(() -> measure(work, branch)));
+            }
+        }
+
+        // execute inline work units while offloaded ones are running
+        List<WorkReport> workReports = new ArrayList<>(workUnits.size());
+        try {
+            for (int index = 0; index < workUnits.size(); index++) {
+                Work work = workUnits.get(index);
+                Future<WorkReport> future = futures.get(index);
+                if (future == null) {
+                    try {
+                        workReports.add(measure(work, () -> AbstractWorkFlow.executeStep(work, workContext)));
+                    } catch (RuntimeException e) {
+                        String message = String.format("Unable to execute work unit '%s'", work.getName());
+                        throw new RuntimeException(message, e);
+                    }
+                } else {
+                    workReports.add(null); // gathered below
+                }
+            }
+
+            // gather reports of offloaded work units
+            for (int index = 0; index < workUnits.size(); index++) {
+                Future<WorkReport> future = futures.get(index);
+                if (future == null) {
+                    continue;
+                }
+                try {
+                    workReports.set(index, future.get());
+                } catch (CancellationException e) {
+                    workReports.set(index, cancelledReport(workUnits.get(index), workContext, e));
+                } catch (InterruptedException e) {
+                    String message = String.format("The parallel flow was interrupted while waiting for the result of work unit '%s'", workUnits.get(index).getName());
+                    throw new RuntimeException(message, e);
+                } catch (ExecutionException e) {
+                    String message = String.format("Unable to execute work unit '%s'", workUnits.get(index).getName());
+                    throw new RuntimeException(message, e);
+                }
+            }
+        } catch (RuntimeException e) {
+            futures.forEach(future -> {
+                if (future != null) {
+                    future.cancel(true);
+                }
+            });
+            throw e;
+        }
+        return workReports;
+    }
+
+    /**
+     * Report of a work unit which was cancelled before completing, for example by an
+     * executor service dropping tasks which can no longer meet their deadline.
+     */
+    private static WorkReport cancelledReport(Work work, WorkContext workContext, CancellationException e) {
+        String message = String.format("Work unit '%s' has been cancelled", work.getName());
+        CancellationException error = new CancellationException(message);
+        error.initCause(e);
+        return new DefaultWorkReport(WorkStatus.FAILED, workContext, error);
+    }
+
+    private WorkReport measure(Work work, Supplier<WorkReport> step) {
+        long start = System.nanoTime();
+        try {
+            return step.get();
+        } finally {
+            long cost = System.nanoTime() - start;
+            // exponentially weighted moving average giving a weight of 1/4 to the new sample
+            costs.merge(work, cost, (average, sample) -> average + (sample - average) / 4);
+        }
+    }
+
+    /**
+     * Execute work units in parallel and return as soon as the given number of
+     * work units have successfully completed, or as soon as this number cannot be
+     * reached anymore. Work units that are still running are then cancelled. A work
+     * unit throwing an exception is reported as failed.
+     *
+     * @return reports of finished work units, in completion order
+     */
+    List<WorkReport> executeUntilCompleted(List<Work> workUnits, WorkContext workContext, int quorum) {
+        CompletionService<WorkReport> completionService = new ExecutorCompletionService<>(this.workExecutor);
+        Map<Future<WorkReport>, Work> futureToWorkMap = new HashMap<>();
+        List<WorkReport> workReports = new ArrayList<>();
+        int completed = 0;
+        try {
+            // submitted in the try block so that work units already submitted are cancelled if one is rejected
+            for (Work work : workUnits) {
+                futureToWorkMap.put(completionService.submit(AbstractWorkFlow.branch(work, workContext)::get), work);
+            }
+            while (completed < quorum && quorum - completed <= futureToWorkMap.size()) {
+                Future<WorkReport> future = completionService.take();
+                Work work = futureToWorkMap.remove(future);
+                WorkReport workReport;
+                try {
+                    workReport = future.get();
+                } catch (CancellationException e) {
+                    workReport = cancelledReport(work, workContext, e);
+                } catch (ExecutionException e) {
+                    // other work units may still reach the quorum
+                    workReport = new DefaultWorkReport(WorkStatus.FAILED, workContext, e.getCause());
+                }
+                workReports.add(workReport);
+                if (workReport != null && WorkStatus.COMPLETED.equals(workReport.getStatus())) {
+                    completed++;
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new RuntimeException("The parallel flow was interrupted while waiting for the result of work units", e);
+        } finally {
+            futureToWorkMap.keySet().forEach(future -> future.cancel(true));
+        }
+        return workReports;
+    }
 }
@@ -28,11 +28,16 @@ import org.jeasy.flows.work.WorkReport;
 import org.jeasy.flows.work.WorkStatus;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Aggregate report of the partial reports of work units executed in a parallel flow.
+ * Partial reports can be added concurrently, and the aggregate status, error and
+ * context are computed from a snapshot of the partial reports added so far.
  *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
@@ -57,7 +62,8 @@ public class ParallelFlowReport implements WorkReport {
     }
 
     /**
-     * Get partial reports.
+     * Get partial reports. The returned list must not be modified while partial
+     * reports are being added.
      *
      * @return partial reports
      */
@@ -66,11 +72,21 @@ public class ParallelFlowReport implements WorkReport {
     }
 
     void add(WorkReport workReport) {
-        reports.add(workReport);
+        synchronized (reports) {
+            reports.add(workReport);
+        }
     }
 
     void addAll(List<WorkReport> workReports) {
-        reports.addAll(workReports);
+        synchronized (reports) {
+            reports.addAll(workReports);
+        }
+    }
+
+    private List<WorkReport> snapshot() {
+        synchronized (reports) {
+            return new ArrayList<>(reports);
+        }
     }
 
     /**
@@ -80,14 +96,14 @@ public class ParallelFlowReport implements WorkReport {
      *
      * <ul>
      *     <li>{@link org.jeasy.flows.work.WorkStatus#COMPLETED}: If all work units have successfully completed</li>
-     *     <li>{@link org.jeasy.flows.work.WorkStatus#FAILED}: If one of the work units has failed</li>
+     *     <li>{@link org.jeasy.flows.work.WorkStatus#FAILED}: If one of the work units has failed or has been rejected</li>
      * </ul>
      * @return workflow status
      */
     @Override
     public WorkStatus getStatus() {
-        for (WorkReport report : reports) {
-            if (report.getStatus().equals(WorkStatus.FAILED)) {
+        for (WorkReport report : snapshot()) {
+            if (!WorkStatus.COMPLETED.equals(report.getStatus())) {
                 return WorkStatus.FAILED;
             }
         }
@@ -101,7 +117,7 @@ public class ParallelFlowReport implements WorkReport {
      */
     @Override
     public Throwable getError() {
-        for (WorkReport report : reports) {
+        for (WorkReport report : snapshot()) {
             Throwable error = report.getError();
             if (error != null) {
                 return error;
@@ -120,8 +136,12 @@ public class ParallelFlowReport implements WorkReport {
     @Override
     public WorkContext getWorkContext() {
         WorkContext workContext = new WorkContext();
-        for (WorkReport report : reports) {
+        Set<WorkContext> mergedContexts = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (WorkReport report : snapshot()) {
             WorkContext partialContext = report.getWorkContext();
+            if (!mergedContexts.add(partialContext)) {
+                continue; // work units usually share the same context, merge it only once
+            }
             for (Map.Entry<String, Object> entry : partialContext.getEntrySet()) {
                 workContext.put(entry.getKey(), entry.getValue());
             }
@@ -0,0 +1,181 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.workflow;
+
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A quorum flow executes a set of work units in parallel and returns as soon as
+ * a given number of them (the quorum) have successfully completed. Work units that
+ * are still running at that point are cancelled. A {@link QuorumFlow} requires a
+ * {@link ExecutorService} to execute work units in parallel using multiple threads.
+ *
+ * <strong>It is the responsibility of the caller to manage the lifecycle of the
+ * executor service.</strong>
+ *
+ * The status of a quorum flow execution is defined as:
+ *
+ * <ul>
+ *     <li>{@link org.jeasy.flows.work.WorkStatus#COMPLETED}: If the quorum of work units has successfully completed</li>
+ *     <li>{@link org.jeasy.flows.work.WorkStatus#FAILED}: If too many work units have failed to reach the quorum</li>
+ * </ul>
+ *
+ * @see RaceFlow
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class QuorumFlow extends AbstractWorkFlow {
+
+    private final List<Work> workUnits = new ArrayList<>();
+    private final int quorum;
+    private final ParallelFlowExecutor workExecutor;
+
+    QuorumFlow(String name, List<Work> workUnits, int quorum, ParallelFlowExecutor parallelFlowExecutor) {
+        super(name);
+        if (quorum < 1 || quorum > workUnits.size()) {
+            throw new IllegalArgumentException("The quorum must be between 1 and the number of work units");
+        }
+        this.workUnits.addAll(workUnits);
+        this.quorum = quorum;
+        this.workExecutor = parallelFlowExecutor;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public QuorumFlowReport execute(WorkContext workContext) {
+        if (workContext.isCancelled()) {
+            return new QuorumFlowReport(Collections.singletonList(cancelledReport(workContext)), quorum);
+        }
+        List<WorkReport> workReports = workExecutor.executeUntilCompleted(workUnits, workContext, quorum);
+        return new QuorumFlowReport(workReports, quorum);
+    }
+
+    List<Work> getWorkUnits() {
+        return workUnits;
+    }
+
+    int getQuorum() {
+        return quorum;
+    }
+
+    ParallelFlowExecutor getWorkExecutor() {
+        return workExecutor;
+    }
+
+    public static class Builder {
+
+        private Builder() {
+            // force usage of method aNewQuorumFlow
+        }
+
+        public static NameStep aNewQuorumFlow() {
+            return new BuildSteps();
+        }
+
+        public interface NameStep extends ExecuteStep {
+            ExecuteStep named(String name);
+        }
+
+        public interface ExecuteStep {
+            WithStep execute(Work... workUnits);
+        }
+
+        public interface WithStep {
+            /**
+             *  A {@link QuorumFlow} requires an {@link ExecutorService} to
+             *  execute work units in parallel using multiple threads.
+             *
+             *  <strong>It is the responsibility of the caller to manage the lifecycle
+             *  of the executor service.</strong>
+             *
+             * @param executorService to use to execute work units in parallel
+             * @return the builder instance
+             */
+            QuorumStep with(ExecutorService executorService);
+        }
+
+        public interface QuorumStep {
+            BuildStep quorum(int quorum);
+        }
+
+        public interface BuildStep {
+            QuorumFlow build();
+        }
+
+        private static class BuildSteps implements NameStep, ExecuteStep, WithStep, QuorumStep, BuildStep {
+
+            private String name;
+            private final List<Work> works;
+            private ExecutorService executorService;
+            private int quorum;
+
+            public BuildSteps() {
+                this.name = UUID.randomUUID().toString();
+                this.works = new ArrayList<>();
+            }
+
+            @Override
+            public ExecuteStep named(String name) {
+                this.name = name;
+                return this;
+            }
+
+            @Override
+            public WithStep execute(Work... workUnits) {
+                this.works.addAll(Arrays.asList(workUnits));
+                return this;
+            }
+
+            @Override
+            public QuorumStep with(ExecutorService executorService) {
+                this.executorService = executorService;
+                return this;
+            }
+
+            @Override
+            public BuildStep quorum(int quorum) {
+                this.quorum = quorum;
+                return this;
+            }
+
+            @Override
+            public QuorumFlow build() {
+                return new QuorumFlow(
+                        this.name, this.works, this.quorum,
+                        new ParallelFlowExecutor(this.executorService));
+            }
+        }
+
+    }
+}
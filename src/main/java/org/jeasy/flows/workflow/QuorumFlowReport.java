@@ -0,0 +1,170 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.workflow;
+
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Aggregate report of the partial reports of work units that finished before a
+ * {@link QuorumFlow} (or a {@link RaceFlow}) returned. Partial reports are in completion
+ * order, and reports of work units cancelled after the quorum was reached are not included.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class QuorumFlowReport implements WorkReport {
+
+    private final List<WorkReport> reports;
+    private final int quorum;
+
+    /**
+     * Create a new {@link QuorumFlowReport}.
+     *
+     * @param reports of work units that finished, in completion order
+     * @param quorum number of work units required to successfully complete
+     */
+    public QuorumFlowReport(List<WorkReport> reports, int quorum) {
+        this.reports = reports;
+        this.quorum = quorum;
+    }
+
+    /**
+     * Get partial reports, in completion order.
+     *
+     * @return partial reports
+     */
+    public List<WorkReport> getReports() {
+        return reports;
+    }
+
+    /**
+     * Get partial reports of work units that have successfully completed, in completion order.
+     * In a {@link RaceFlow}, the first one is the report of the winning work unit.
+     *
+     * @return partial reports of completed work units
+     */
+    public List<WorkReport> getCompletedReports() {
+        List<WorkReport> completedReports = new ArrayList<>();
+        for (WorkReport report : reports) {
+            if (isCompleted(report)) {
+                completedReports.add(report);
+            }
+        }
+        return completedReports;
+    }
+
+    /**
+     * Get the number of work units required to successfully complete.
+     *
+     * @return the quorum
+     */
+    public int getQuorum() {
+        return quorum;
+    }
+
+    /**
+     * Return the status of the quorum flow.
+     *
+     * The status of a quorum flow is defined as follows:
+     *
+     * <ul>
+     *     <li>{@link org.jeasy.flows.work.WorkStatus#COMPLETED}: If the quorum of work units has successfully completed</li>
+     *     <li>{@link org.jeasy.flows.work.WorkStatus#FAILED}: If too many work units have failed or have been rejected to reach the quorum</li>
+     * </ul>
+     * @return workflow status
+     */
+    @Override
+    public WorkStatus getStatus() {
+        int completed = 0;
+        for (WorkReport report : reports) {
+            if (isCompleted(report)) {
+                completed++;
+            }
+        }
+        return completed >= quorum ? WorkStatus.COMPLETED : WorkStatus.FAILED;
+    }
+
+    /**
+     * Return the first error of partial reports.
+     *
+     * @return the first error of partial reports.
+     */
+    @Override
+    public Throwable getError() {
+        for (WorkReport report : reports) {
+            if (report == null) {
+                continue;
+            }
+            Throwable error = report.getError();
+            if (error != null) {
+                return error;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The quorum flow context is the union of all partial contexts.
+     *
+     * @return the union of all partial contexts
+     */
+    @Override
+    public WorkContext getWorkContext() {
+        WorkContext workContext = new WorkContext();
+        Set<WorkContext> mergedContexts = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (WorkReport report : reports) {
+            if (report == null) {
+                continue;
+            }
+            WorkContext partialContext = report.getWorkContext();
+            if (!mergedContexts.add(partialContext)) {
+                continue; // work units usually share the same context, merge it only once
+            }
+            for (Map.Entry<String, Object> entry : partialContext.getEntrySet()) {
+                workContext.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return workContext;
+    }
+
+    private static boolean isCompleted(WorkReport report) {
+        return report != null && WorkStatus.COMPLETED.equals(report.getStatus());
+    }
+
+    @Override
+    public String toString() {
+        return "QuorumFlowReport {" +
+                "quorum=" + quorum +
+                ", reports=" + reports +
+                '}';
+    }
+}
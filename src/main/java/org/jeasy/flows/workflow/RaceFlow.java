@@ -0,0 +1,134 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.workflow;
+
+import org.jeasy.flows.work.Work;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A race flow executes a set of work units in parallel and returns as soon as one
+ * of them has successfully completed. Work units that are still running at that point
+ * are cancelled. A race flow is a {@link QuorumFlow} with a quorum of one.
+ *
+ * <strong>It is the responsibility of the caller to manage the lifecycle of the
+ * executor service.</strong>
+ *
+ * The status of a race flow execution is defined as:
+ *
+ * <ul>
+ *     <li>{@link org.jeasy.flows.work.WorkStatus#COMPLETED}: If one of the work units has successfully completed</li>
+ *     <li>{@link org.jeasy.flows.work.WorkStatus#FAILED}: If all work units have failed</li>
+ * </ul>
+ *
+ * The report of the winning work unit is the first one of
+ * {@link QuorumFlowReport#getCompletedReports()}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class RaceFlow extends QuorumFlow {
+
+    RaceFlow(String name, List<Work> workUnits, ParallelFlowExecutor parallelFlowExecutor) {
+        super(name, workUnits, 1, parallelFlowExecutor);
+    }
+
+    public static class Builder {
+
+        private Builder() {
+            // force usage of method aNewRaceFlow
+        }
+
+        public static NameStep aNewRaceFlow() {
+            return new BuildSteps();
+        }
+
+        public interface NameStep extends ExecuteStep {
+            ExecuteStep named(String name);
+        }
+
+        public interface ExecuteStep {
+            WithStep execute(Work... workUnits);
+        }
+
+        public interface WithStep {
+            /**
+             *  A {@link RaceFlow} requires an {@link ExecutorService} to
+             *  execute work units in parallel using multiple threads.
+             *
+             *  <strong>It is the responsibility of the caller to manage the lifecycle
+             *  of the executor service.</strong>
+             *
+             * @param executorService to use to execute work units in parallel
+             * @return the builder instance
+             */
+            BuildStep with(ExecutorService executorService);
+        }
+
+        public interface BuildStep {
+            RaceFlow build();
+        }
+
+        private static class BuildSteps implements NameStep, ExecuteStep, WithStep, BuildStep {
+
+            private String name;
+            private final List<Work> works;
+            private ExecutorService executorService;
+
+            public BuildSteps() {
+                this.name = UUID.randomUUID().toString();
+                this.works = new ArrayList<>();
+            }
+
+            @Override
+            public ExecuteStep named(String name) {
+                this.name = name;
+                return this;
+            }
+
+            @Override
+            public WithStep execute(Work... workUnits) {
+                this.works.addAll(Arrays.asList(workUnits));
+                return this;
+            }
+
+            @Override
+            public BuildStep with(ExecutorService executorService) {
+                this.executorService = executorService;
+                return this;
+            }
+
+            @Override
+            public RaceFlow build() {
+                return new RaceFlow(
+                        this.name, this.works,
+                        new ParallelFlowExecutor(this.executorService));
+            }
+        }
+
+    }
+}
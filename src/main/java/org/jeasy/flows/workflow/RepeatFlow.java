@@ -32,7 +32,9 @@ import org.jeasy.flows.work.WorkReport;
 import java.util.UUID;
 
 /**
- * A repeat flow executes a work repeatedly until its report satisfies a given predicate.
+ * A repeat flow executes a work repeatedly until its report satisfies a given predicate,
+ * or a given number of times. In the latter case, iterations are counted per execution,
+ * so the same repeat flow can be executed concurrently.
  *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
@@ -40,24 +42,67 @@ public class RepeatFlow extends AbstractWorkFlow {
 
     private final Work work;
     private final WorkReportPredicate predicate;
+    private final int times;
 
     RepeatFlow(String name, Work work, WorkReportPredicate predicate) {
+        this(name, work, predicate, 0);
+    }
+
+    /**
+     * Create a new {@link RepeatFlow}.
+     *
+     * @param name of the flow
+     * @param work to repeat
+     * @param predicate to stop repeating the work
+     * @param times number of iterations, or zero to only use the predicate
+     */
+    RepeatFlow(String name, Work work, WorkReportPredicate predicate, int times) {
         super(name);
         this.work = work;
         this.predicate = predicate;
+        this.times = times;
     }
 
     /**
      * {@inheritDoc}
      */
     public WorkReport execute(WorkContext workContext) {
+        if (times > 0) {
+            return executeTimes(workContext);
+        }
         WorkReport workReport;
         do {
-            workReport = work.execute(workContext);
+            if (workContext.isCancelled()) {
+                return cancelledReport(workContext);
+            }
+            workReport = executeStep(work, workContext);
         } while (predicate.apply(workReport));
         return workReport;
     }
 
+    private WorkReport executeTimes(WorkContext workContext) {
+        WorkReport workReport = null;
+        for (int iteration = 0; iteration < times; iteration++) {
+            if (workContext.isCancelled()) {
+                return cancelledReport(workContext);
+            }
+            workReport = executeStep(work, workContext);
+        }
+        return workReport;
+    }
+
+    Work getWork() {
+        return work;
+    }
+
+    WorkReportPredicate getPredicate() {
+        return predicate;
+    }
+
+    int getTimes() {
+        return times;
+    }
+
     public static class Builder {
 
         private Builder() {
@@ -90,6 +135,7 @@ public class RepeatFlow extends AbstractWorkFlow {
             private String name;
             private Work work;
             private WorkReportPredicate predicate;
+            private int times;
 
             BuildSteps() {
                 this.name = UUID.randomUUID().toString();
@@ -112,18 +158,20 @@ public class RepeatFlow extends AbstractWorkFlow {
             @Override
             public BuildStep until(WorkReportPredicate predicate) {
                 this.predicate = predicate;
+                this.times = 0;
                 return this;
             }
 
             @Override
             public BuildStep times(int times) {
                 until(WorkReportPredicate.TimesPredicate.times(times));
+                this.times = times;
                 return this;
             }
 
             @Override
             public RepeatFlow build() {
-                return new RepeatFlow(name, work, predicate);
+                return new RepeatFlow(name, work, predicate, times);
             }
         }
 
@@ -33,12 +33,12 @@ import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static org.jeasy.flows.work.WorkStatus.FAILED;
+import static org.jeasy.flows.work.WorkStatus.COMPLETED;
 
 /**
  * A sequential flow executes a set of work units in sequence.
  *
- * If a unit of work fails, next work units in the pipeline will be skipped.
+ * If a unit of work fails or is rejected, next work units in the pipeline will be skipped.
  *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
@@ -59,15 +59,23 @@ public class SequentialFlow extends AbstractWorkFlow {
     public WorkReport execute(WorkContext workContext) {
         WorkReport workReport = null;
         for (Work work : workUnits) {
-            workReport = work.execute(workContext);
-            if (workReport != null && FAILED.equals(workReport.getStatus())) {
-                LOGGER.info("Work unit ''{}'' has failed, skipping subsequent work units", work.getName());
+            if (workContext.isCancelled()) {
+                LOGGER.info("Workflow ''{}'' has been cancelled, skipping work unit ''{}'' and subsequent ones", getName(), work.getName());
+                return cancelledReport(workContext);
+            }
+            workReport = executeStep(work, workContext);
+            if (workReport != null && !COMPLETED.equals(workReport.getStatus())) {
+                LOGGER.info("Work unit ''{}'' has not completed ({}), skipping subsequent work units", work.getName(), workReport.getStatus());
                 break;
             }
         }
         return workReport;
     }
 
+    List<Work> getWorkUnits() {
+        return workUnits;
+    }
+
     public static class Builder {
 
         private Builder() {
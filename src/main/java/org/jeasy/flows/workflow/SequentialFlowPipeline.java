@@ -0,0 +1,297 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.workflow;
+
+import org.jeasy.flows.work.DefaultWorkReport;
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.jeasy.flows.work.WorkStatus.COMPLETED;
+
+/**
+ * A pipeline executes a {@link SequentialFlow} over a stream of work contexts in an
+ * assembly-line fashion: each work unit of the flow runs in its own thread, so that
+ * the first work unit can process context N+1 while the second one processes context N.
+ *
+ * For each context, the semantics of the sequential flow are preserved: work units are
+ * executed in order and if a unit of work fails, next work units are skipped for that
+ * context. Work units are connected with bounded queues, so a slow work unit slows down
+ * the previous ones instead of accumulating pending contexts in memory.
+ *
+ * A pipeline requires an {@link ExecutorService} with at least as many threads as the
+ * number of work units in the sequential flow, for each call to {@link #process(List)}
+ * running at the same time on that executor service.
+ *
+ * <strong>It is the responsibility of the caller to manage the lifecycle of the
+ * executor service.</strong>
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class SequentialFlowPipeline {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SequentialFlowPipeline.class.getName());
+
+    private static final Item END = new Item(-1, null);
+    private static final long STAGE_CHECK_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final List<Work> workUnits;
+    private final ExecutorService executorService;
+    private final int bufferSize;
+
+    SequentialFlowPipeline(SequentialFlow sequentialFlow, ExecutorService executorService, int bufferSize) {
+        this.workUnits = new ArrayList<>(sequentialFlow.getWorkUnits());
+        this.executorService = executorService;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Execute the sequential flow for each one of the given contexts.
+     *
+     * Each call occupies one thread of the executor service per work unit until all
+     * contexts have been processed. Concurrent calls on the same executor service can
+     * therefore deadlock if it does not have enough threads for all of them: stages of
+     * each call would wait for stages of the same call which are still queued.
+     *
+     * If a work unit throws an {@link Error}, or if a stage cannot be submitted to the
+     * executor service, the other stages are cancelled and the exception is rethrown.
+     *
+     * @param workContexts to process
+     * @return the report of each context, in the same order as the given contexts
+     */
+    public List<WorkReport> process(List<WorkContext> workContexts) {
+        WorkReport[] workReports = new WorkReport[workContexts.size()];
+        if (workContexts.isEmpty() || workUnits.isEmpty()) {
+            return Arrays.asList(workReports);
+        }
+
+        // connect stages with bounded queues, the first stage reads contexts from the input list
+        List<BlockingQueue<Item>> queues = new ArrayList<>(workUnits.size());
+        for (int i = 0; i < workUnits.size(); i++) {
+            queues.add(new ArrayBlockingQueue<>(bufferSize));
+        }
+        List<Future<?>> stages = new ArrayList<>(workUnits.size());
+        try {
+            stages.add(executorService.submit(() -> {
+                feed(workContexts, queues.get(0));
+                return null;
+            }));
+            for (int i = 1; i < workUnits.size(); i++) {
+                Work work = workUnits.get(i);
+                BlockingQueue<Item> in = queues.get(i - 1);
+                BlockingQueue<Item> out = queues.get(i);
+                stages.add(executorService.submit(() -> {
+                    relay(work, in, out);
+                    return null;
+                }));
+            }
+        } catch (RejectedExecutionException e) {
+            cancel(stages);
+            throw e;
+        }
+
+        // gather reports from the last stage, watching for stages which died without forwarding END
+        BlockingQueue<Item> results = queues.get(workUnits.size() - 1);
+        try {
+            Item item;
+            while ((item = results.poll(STAGE_CHECK_INTERVAL, TimeUnit.NANOSECONDS)) != END) {
+                if (item == null) {
+                    checkStages(stages);
+                } else {
+                    workReports[item.index] = item.workReport;
+                }
+            }
+        } catch (InterruptedException e) {
+            cancel(stages);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("The pipeline was interrupted while waiting for work reports", e);
+        }
+        return Arrays.asList(workReports);
+    }
+
+    private void checkStages(List<Future<?>> stages) throws InterruptedException {
+        for (Future<?> stage : stages) {
+            if (!stage.isDone()) {
+                continue;
+            }
+            try {
+                stage.get();
+            } catch (ExecutionException e) {
+                cancel(stages);
+                Throwable cause = e.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new RuntimeException("A stage of the pipeline has failed", cause);
+            } catch (CancellationException e) {
+                cancel(stages);
+                throw new RuntimeException("A stage of the pipeline has been cancelled", e);
+            }
+        }
+    }
+
+    private void cancel(List<Future<?>> stages) {
+        stages.forEach(stage -> stage.cancel(true));
+    }
+
+    private void feed(List<WorkContext> workContexts, BlockingQueue<Item> out) throws InterruptedException {
+        Work work = workUnits.get(0);
+        for (int index = 0; index < workContexts.size(); index++) {
+            Item item = new Item(index, workContexts.get(index));
+            execute(work, item);
+            out.put(item);
+        }
+        out.put(END);
+    }
+
+    private void relay(Work work, BlockingQueue<Item> in, BlockingQueue<Item> out) throws InterruptedException {
+        Item item;
+        while ((item = in.take()) != END) {
+            if (item.workReport == null || COMPLETED.equals(item.workReport.getStatus())) {
+                execute(work, item);
+            }
+            out.put(item);
+        }
+        out.put(END);
+    }
+
+    private void execute(Work work, Item item) {
+        try {
+            item.workReport = AbstractWorkFlow.executeStep(work, item.workContext);
+        } catch (RuntimeException e) {
+            // a failing stage must not stall the whole pipeline
+            item.workReport = new DefaultWorkReport(WorkStatus.FAILED, item.workContext, e);
+        }
+        if (item.workReport != null && !COMPLETED.equals(item.workReport.getStatus())) {
+            LOGGER.info("Work unit ''{}'' has not completed ({}), skipping subsequent work units", work.getName(), item.workReport.getStatus());
+        }
+    }
+
+    private static class Item {
+
+        private final int index;
+        private final WorkContext workContext;
+        private WorkReport workReport;
+
+        Item(int index, WorkContext workContext) {
+            this.index = index;
+            this.workContext = workContext;
+        }
+    }
+
+    public static class Builder {
+
+        private Builder() {
+            // force usage of static method aNewSequentialFlowPipeline
+        }
+
+        public static OfStep aNewSequentialFlowPipeline() {
+            return new BuildSteps();
+        }
+
+        public interface OfStep {
+            WithStep of(SequentialFlow sequentialFlow);
+        }
+
+        public interface WithStep {
+            /**
+             *  A {@link SequentialFlowPipeline} requires an {@link ExecutorService} with
+             *  at least as many threads as the number of work units in the flow.
+             *
+             *  <strong>It is the responsibility of the caller to manage the lifecycle
+             *  of the executor service.</strong>
+             *
+             * @param executorService to use to execute work units
+             * @return the builder instance
+             */
+            BuildStep with(ExecutorService executorService);
+        }
+
+        public interface BuildStep {
+            /**
+             * Set the capacity of the queues between work units (defaults to 16).
+             *
+             * @param bufferSize capacity of the queues between work units
+             * @return the builder instance
+             */
+            BuildStep bufferSize(int bufferSize);
+            SequentialFlowPipeline build();
+        }
+
+        private static class BuildSteps implements OfStep, WithStep, BuildStep {
+
+            private SequentialFlow sequentialFlow;
+            private ExecutorService executorService;
+            private int bufferSize;
+
+            BuildSteps() {
+                this.bufferSize = 16;
+            }
+
+            @Override
+            public WithStep of(SequentialFlow sequentialFlow) {
+                this.sequentialFlow = sequentialFlow;
+                return this;
+            }
+
+            @Override
+            public BuildStep with(ExecutorService executorService) {
+                this.executorService = executorService;
+                return this;
+            }
+
+            @Override
+            public BuildStep bufferSize(int bufferSize) {
+                if (bufferSize < 1) {
+                    throw new IllegalArgumentException("The buffer size must be greater than zero");
+                }
+                this.bufferSize = bufferSize;
+                return this;
+            }
+
+            @Override
+            public SequentialFlowPipeline build() {
+                return new SequentialFlowPipeline(this.sequentialFlow, this.executorService, this.bufferSize);
+            }
+        }
+    }
+}
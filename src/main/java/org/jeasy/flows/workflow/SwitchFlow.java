@@ -0,0 +1,241 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.workflow;
+
+import org.jeasy.flows.work.NoOpWork;
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * A switch flow is defined by 4 artifacts:
+ *
+ * <ul>
+ *     <li>The work to execute first</li>
+ *     <li>A function computing a key from the report of the first work</li>
+ *     <li>The work to execute for each key</li>
+ *     <li>The work to execute if no work is registered for the computed key (optional)</li>
+ * </ul>
+ *
+ * The next work is looked up in a table in constant time, regardless of the number of
+ * branches. When all keys are constants of the same enumeration, the table is an array
+ * indexed by the ordinal of the key.
+ *
+ * @see SwitchFlow.Builder
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class SwitchFlow extends AbstractWorkFlow {
+
+    private final Work initialWorkUnit, defaultWorkUnit;
+    private final Function<WorkReport, ?> keyFunction;
+    private final Map<Object, Work> branches;
+    private final Class<?> enumType;
+    private final Work[] enumBranches;
+
+    SwitchFlow(String name, Work initialWorkUnit, Function<WorkReport, ?> keyFunction, Map<Object, Work> branches, Work defaultWorkUnit) {
+        super(name);
+        this.initialWorkUnit = initialWorkUnit;
+        this.keyFunction = keyFunction;
+        this.branches = new HashMap<>(branches);
+        this.defaultWorkUnit = defaultWorkUnit;
+        this.enumType = enumTypeOf(branches);
+        this.enumBranches = enumType != null ? toEnumTable(enumType, branches) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public WorkReport execute(WorkContext workContext) {
+        if (workContext.isCancelled()) {
+            return cancelledReport(workContext);
+        }
+        WorkReport jobReport = executeStep(initialWorkUnit, workContext);
+        if (workContext.isCancelled()) {
+            return cancelledReport(workContext);
+        }
+        Work next = lookup(keyFunction.apply(jobReport));
+        if (next != null && !(next instanceof NoOpWork)) { // default branch is optional
+            jobReport = executeStep(next, workContext);
+        }
+        return jobReport;
+    }
+
+    Work getInitialWorkUnit() {
+        return initialWorkUnit;
+    }
+
+    Function<WorkReport, ?> getKeyFunction() {
+        return keyFunction;
+    }
+
+    Map<Object, Work> getBranches() {
+        return branches;
+    }
+
+    Work getDefaultWorkUnit() {
+        return defaultWorkUnit;
+    }
+
+    private Work lookup(Object key) {
+        Work work;
+        if (enumBranches != null && key instanceof Enum && ((Enum<?>) key).getDeclaringClass() == enumType) {
+            work = enumBranches[((Enum<?>) key).ordinal()];
+        } else {
+            work = branches.get(key);
+        }
+        return work != null ? work : defaultWorkUnit;
+    }
+
+    /**
+     * Get the enumeration of the keys of the given branches.
+     *
+     * @return the enumeration of all keys, or null if keys are not all constants of the same enumeration
+     */
+    private static Class<?> enumTypeOf(Map<Object, Work> branches) {
+        Class<?> enumType = null;
+        for (Object key : branches.keySet()) {
+            if (!(key instanceof Enum)) {
+                return null;
+            }
+            Class<?> keyType = ((Enum<?>) key).getDeclaringClass();
+            if (enumType != null && enumType != keyType) {
+                return null;
+            }
+            enumType = keyType;
+        }
+        return enumType;
+    }
+
+    private static Work[] toEnumTable(Class<?> enumType, Map<Object, Work> branches) {
+        Work[] table = new Work[enumType.getEnumConstants().length];
+        for (Map.Entry<Object, Work> branch : branches.entrySet()) {
+            table[((Enum<?>) branch.getKey()).ordinal()] = branch.getValue();
+        }
+        return table;
+    }
+
+    public static class Builder {
+
+        private Builder() {
+            // force usage of static method aNewSwitchFlow
+        }
+
+        public static NameStep aNewSwitchFlow() {
+            return new BuildSteps();
+        }
+
+        public interface NameStep extends ExecuteStep {
+            ExecuteStep named(String name);
+        }
+
+        public interface ExecuteStep {
+            OnStep execute(Work initialWorkUnit);
+        }
+
+        public interface OnStep {
+            /**
+             * Set the function computing the key of the branch to execute from the
+             * report of the initial work. The function may use the work context
+             * of the report.
+             *
+             * @param keyFunction computing the key of the branch to execute
+             * @return the builder instance
+             */
+            CaseStep on(Function<WorkReport, ?> keyFunction);
+        }
+
+        public interface CaseStep extends OtherwiseStep {
+            CaseStep when(Object key, Work work);
+        }
+
+        public interface OtherwiseStep extends BuildStep {
+            BuildStep otherwise(Work work);
+        }
+
+        public interface BuildStep {
+            SwitchFlow build();
+        }
+
+        private static class BuildSteps implements NameStep, ExecuteStep, OnStep, CaseStep, OtherwiseStep, BuildStep {
+
+            private String name;
+            private Work initialWorkUnit, defaultWorkUnit;
+            private Function<WorkReport, ?> keyFunction;
+            private final Map<Object, Work> branches;
+
+            BuildSteps() {
+                this.name = UUID.randomUUID().toString();
+                this.initialWorkUnit = new NoOpWork();
+                this.defaultWorkUnit = new NoOpWork();
+                this.keyFunction = workReport -> null;
+                this.branches = new LinkedHashMap<>();
+            }
+
+            @Override
+            public ExecuteStep named(String name) {
+                this.name = name;
+                return this;
+            }
+
+            @Override
+            public OnStep execute(Work initialWorkUnit) {
+                this.initialWorkUnit = initialWorkUnit;
+                return this;
+            }
+
+            @Override
+            public CaseStep on(Function<WorkReport, ?> keyFunction) {
+                this.keyFunction = keyFunction;
+                return this;
+            }
+
+            @Override
+            public CaseStep when(Object key, Work work) {
+                if (this.branches.putIfAbsent(key, work) != null) {
+                    throw new IllegalArgumentException("A work is already registered for key " + key);
+                }
+                return this;
+            }
+
+            @Override
+            public BuildStep otherwise(Work work) {
+                this.defaultWorkUnit = work;
+                return this;
+            }
+
+            @Override
+            public SwitchFlow build() {
+                return new SwitchFlow(this.name, this.initialWorkUnit,
+                        this.keyFunction, this.branches, this.defaultWorkUnit);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.workflow;
+
+import org.jeasy.flows.work.TypedWork;
+import org.jeasy.flows.work.WorkContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+
+/**
+ * A typed sequential flow executes a chain of {@link TypedWork} units in sequence, passing
+ * the output value of each work unit as input to the next one. Values are passed directly
+ * between work units rather than through the {@link WorkContext}.
+ *
+ * If a unit of work fails, its exception is propagated and next work units are skipped.
+ * A typed sequential flow is itself a typed work, so it can be nested in another one,
+ * or used in any other flow with {@link TypedWork#asWork(TypedWork, String, String)}.
+ * Work units of a typed sequential flow are not audited nor profiled individually.
+ *
+ * @param <I> type of the input value of the first work unit
+ * @param <O> type of the output value of the last work unit
+ * @see LongSequentialFlow
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class TypedSequentialFlow<I, O> implements TypedWork<I, O> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TypedSequentialFlow.class.getName());
+
+    private final String name;
+    private final List<TypedWork<Object, Object>> workUnits;
+
+    TypedSequentialFlow(String name, List<TypedWork<Object, Object>> workUnits) {
+        this.name = name;
+        this.workUnits = new ArrayList<>(workUnits);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws CancellationException if the work context has been cancelled
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public O execute(I input, WorkContext workContext) {
+        Object value = input;
+        for (TypedWork<Object, Object> work : workUnits) {
+            if (workContext.isCancelled()) {
+                LOGGER.info("Workflow ''{}'' has been cancelled, skipping work unit ''{}'' and subsequent ones", name, work.getName());
+                throw new CancellationException(String.format("Workflow '%s' has been cancelled", name));
+            }
+            value = work.execute(value, workContext);
+        }
+        return (O) value;
+    }
+
+    List<TypedWork<Object, Object>> getWorkUnits() {
+        return workUnits;
+    }
+
+    public static class Builder {
+
+        private Builder() {
+            // force usage of static method aNewTypedSequentialFlow
+        }
+
+        public static NameStep aNewTypedSequentialFlow() {
+            return new BuildSteps<>();
+        }
+
+        public interface NameStep extends ExecuteStep {
+            ExecuteStep named(String name);
+        }
+
+        public interface ExecuteStep {
+            <I, O> ThenStep<I, O> execute(TypedWork<I, O> initialWork);
+        }
+
+        public interface ThenStep<I, O> {
+            <P> ThenStep<I, P> then(TypedWork<? super O, P> nextWork);
+            TypedSequentialFlow<I, O> build();
+        }
+
+        private static class BuildSteps<I, O> implements NameStep, ExecuteStep, ThenStep<I, O> {
+
+            private String name;
+            private final List<TypedWork<Object, Object>> works;
+
+            BuildSteps() {
+                this.name = UUID.randomUUID().toString();
+                this.works = new ArrayList<>();
+            }
+
+            @Override
+            public ExecuteStep named(String name) {
+                this.name = name;
+                return this;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <S, T> ThenStep<S, T> execute(TypedWork<S, T> initialWork) {
+                this.works.add((TypedWork<Object, Object>) initialWork);
+                return (ThenStep<S, T>) this;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <P> ThenStep<I, P> then(TypedWork<? super O, P> nextWork) {
+                this.works.add((TypedWork<Object, Object>) nextWork);
+                return (ThenStep<I, P>) this;
+            }
+
+            @Override
+            public TypedSequentialFlow<I, O> build() {
+                return new TypedSequentialFlow<>(this.name, this.works);
+            }
+        }
+    }
+}
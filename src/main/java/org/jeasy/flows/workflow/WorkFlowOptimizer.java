@@ -0,0 +1,224 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.workflow;
+
+import org.jeasy.flows.work.NoOpWork;
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.work.WorkReportPredicate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An optimiser that removes redundant layers from a workflow before it is executed.
+ * The following rewrites are applied recursively:
+ *
+ * <ul>
+ *     <li>nested sequential flows are flattened into their parent, and {@link NoOpWork}
+ *     units are removed from sequential flows</li>
+ *     <li>conditional flows with a constant predicate are replaced with the branch that
+ *     is known to be executed, when this does not change the semantics of the flow</li>
+ *     <li>repeat flows that never repeat their work are replaced with their work</li>
+ *     <li>parallel flows nested in a parallel flow that uses the same executor service are
+ *     merged into their parent, and parallel flows with a single work unit are replaced
+ *     with that work unit</li>
+ * </ul>
+ *
+ * The status of the optimised workflow is the same as the one of the original workflow,
+ * but intermediate reports might differ: for example, an inlined parallel flow returns
+ * the report of its work unit instead of a {@link ParallelFlowReport}.
+ *
+ * Workflows are not modified: when a workflow needs to be rewritten, a new workflow is
+ * created with the same name.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public class WorkFlowOptimizer {
+
+    /**
+     * Optimise the given workflow.
+     *
+     * @param workFlow to optimise
+     * @return the optimised workflow, or the given workflow if it can not be optimised
+     */
+    public WorkFlow optimize(WorkFlow workFlow) {
+        Work optimized = optimizeWork(workFlow);
+        if (optimized instanceof WorkFlow) {
+            return (WorkFlow) optimized;
+        }
+        // the root flow has been reduced to a single unit of work
+        return new SequentialFlow(workFlow.getName(), Collections.singletonList(optimized));
+    }
+
+    private Work optimizeWork(Work work) {
+        Class<?> type = work.getClass();
+        if (type == SequentialFlow.class) {
+            return optimizeSequentialFlow((SequentialFlow) work);
+        }
+        if (type == ConditionalFlow.class) {
+            return optimizeConditionalFlow((ConditionalFlow) work);
+        }
+        if (type == RepeatFlow.class) {
+            return optimizeRepeatFlow((RepeatFlow) work);
+        }
+        if (type == ParallelFlow.class) {
+            return optimizeParallelFlow((ParallelFlow) work);
+        }
+        if (type == QuorumFlow.class || type == RaceFlow.class) {
+            return optimizeQuorumFlow((QuorumFlow) work);
+        }
+        if (type == SwitchFlow.class) {
+            return optimizeSwitchFlow((SwitchFlow) work);
+        }
+        return work;
+    }
+
+    private Work optimizeSequentialFlow(SequentialFlow sequentialFlow) {
+        List<Work> workUnits = new ArrayList<>();
+        for (Work work : sequentialFlow.getWorkUnits()) {
+            Work optimized = optimizeWork(work);
+            if (optimized.getClass() == SequentialFlow.class) {
+                workUnits.addAll(((SequentialFlow) optimized).getWorkUnits());
+            } else if (!(optimized instanceof NoOpWork)) {
+                workUnits.add(optimized);
+            }
+        }
+        if (workUnits.isEmpty()) {
+            return new NoOpWork();
+        }
+        if (workUnits.size() == 1) {
+            return workUnits.get(0);
+        }
+        if (sameElements(workUnits, sequentialFlow.getWorkUnits())) {
+            return sequentialFlow;
+        }
+        return new SequentialFlow(sequentialFlow.getName(), workUnits);
+    }
+
+    private Work optimizeConditionalFlow(ConditionalFlow conditionalFlow) {
+        Work initialWorkUnit = optimizeWork(conditionalFlow.getInitialWorkUnit());
+        Work nextOnPredicateSuccess = optimizeWork(conditionalFlow.getNextOnPredicateSuccess());
+        Work nextOnPredicateFailure = conditionalFlow.getNextOnPredicateFailure() == null
+                ? null : optimizeWork(conditionalFlow.getNextOnPredicateFailure());
+        WorkReportPredicate predicate = conditionalFlow.getPredicate();
+        boolean noFailureBranch = nextOnPredicateFailure == null || nextOnPredicateFailure instanceof NoOpWork;
+
+        if (predicate == WorkReportPredicate.ALWAYS_FALSE) {
+            if (noFailureBranch) {
+                return initialWorkUnit;
+            }
+            if (initialWorkUnit instanceof NoOpWork) {
+                return nextOnPredicateFailure;
+            }
+        }
+        if (predicate == WorkReportPredicate.ALWAYS_TRUE && initialWorkUnit instanceof NoOpWork) {
+            return nextOnPredicateSuccess;
+        }
+        if (initialWorkUnit == conditionalFlow.getInitialWorkUnit()
+                && nextOnPredicateSuccess == conditionalFlow.getNextOnPredicateSuccess()
+                && nextOnPredicateFailure == conditionalFlow.getNextOnPredicateFailure()) {
+            return conditionalFlow;
+        }
+        return new ConditionalFlow(conditionalFlow.getName(), initialWorkUnit,
+                nextOnPredicateSuccess, nextOnPredicateFailure, predicate);
+    }
+
+    private Work optimizeRepeatFlow(RepeatFlow repeatFlow) {
+        Work work = optimizeWork(repeatFlow.getWork());
+        if (repeatFlow.getPredicate() == WorkReportPredicate.ALWAYS_FALSE) {
+            return work;
+        }
+        if (work == repeatFlow.getWork()) {
+            return repeatFlow;
+        }
+        return new RepeatFlow(repeatFlow.getName(), work, repeatFlow.getPredicate(), repeatFlow.getTimes());
+    }
+
+    private Work optimizeParallelFlow(ParallelFlow parallelFlow) {
+        ParallelFlowExecutor workExecutor = parallelFlow.getWorkExecutor();
+        List<Work> workUnits = new ArrayList<>();
+        for (Work work : parallelFlow.getWorkUnits()) {
+            Work optimized = optimizeWork(work);
+            if (optimized.getClass() == ParallelFlow.class
+                    && ((ParallelFlow) optimized).getWorkExecutor().getWorkExecutor() == workExecutor.getWorkExecutor()) {
+                workUnits.addAll(((ParallelFlow) optimized).getWorkUnits());
+            } else {
+                workUnits.add(optimized);
+            }
+        }
+        if (workUnits.size() == 1) {
+            return workUnits.get(0);
+        }
+        if (sameElements(workUnits, parallelFlow.getWorkUnits())) {
+            return parallelFlow;
+        }
+        return new ParallelFlow(parallelFlow.getName(), workUnits, workExecutor);
+    }
+
+    private Work optimizeQuorumFlow(QuorumFlow quorumFlow) {
+        List<Work> workUnits = new ArrayList<>();
+        for (Work work : quorumFlow.getWorkUnits()) {
+            workUnits.add(optimizeWork(work));
+        }
+        if (sameElements(workUnits, quorumFlow.getWorkUnits())) {
+            return quorumFlow;
+        }
+        if (quorumFlow instanceof RaceFlow) {
+            return new RaceFlow(quorumFlow.getName(), workUnits, quorumFlow.getWorkExecutor());
+        }
+        return new QuorumFlow(quorumFlow.getName(), workUnits, quorumFlow.getQuorum(), quorumFlow.getWorkExecutor());
+    }
+
+    private Work optimizeSwitchFlow(SwitchFlow switchFlow) {
+        boolean changed = false;
+        Work initialWorkUnit = optimizeWork(switchFlow.getInitialWorkUnit());
+        Work defaultWorkUnit = optimizeWork(switchFlow.getDefaultWorkUnit());
+        changed |= initialWorkUnit != switchFlow.getInitialWorkUnit() || defaultWorkUnit != switchFlow.getDefaultWorkUnit();
+        Map<Object, Work> branches = new LinkedHashMap<>();
+        for (Map.Entry<Object, Work> branch : switchFlow.getBranches().entrySet()) {
+            Work optimized = optimizeWork(branch.getValue());
+            changed |= optimized != branch.getValue();
+            branches.put(branch.getKey(), optimized);
+        }
+        if (!changed) {
+            return switchFlow;
+        }
+        return new SwitchFlow(switchFlow.getName(), initialWorkUnit, switchFlow.getKeyFunction(), branches, defaultWorkUnit);
+    }
+
+    private static boolean sameElements(List<Work> left, List<Work> right) {
+        if (left.size() != right.size()) {
+            return false;
+        }
+        for (int i = 0; i < left.size(); i++) {
+            if (left.get(i) != right.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.audit;
+
+import org.jeasy.flows.work.WorkStatus;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AuditLogTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void writeRecordsAsJsonLines() throws Exception {
+        // given
+        Path file = temporaryFolder.getRoot().toPath().resolve("audit.log");
+        AuditLog auditLog = new AuditLog(file);
+
+        // when
+        auditLog.record(new AuditRecord(AuditRecord.Type.RUN, "flow", WorkStatus.COMPLETED, 1000, 42, null, "main"));
+        auditLog.record(new AuditRecord(AuditRecord.Type.STEP, "say \"hi\"", WorkStatus.FAILED, 1001, 7,
+                new IllegalStateException("boom"), "pool-1"));
+        auditLog.close();
+
+        // then
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertThat(lines).containsExactly(
+                "{\"type\":\"RUN\",\"name\":\"flow\",\"status\":\"COMPLETED\",\"start\":1000,\"durationNanos\":42,\"thread\":\"main\"}",
+                "{\"type\":\"STEP\",\"name\":\"say \\\"hi\\\"\",\"status\":\"FAILED\",\"start\":1001,\"durationNanos\":7,\"thread\":\"pool-1\",\"error\":\"java.lang.IllegalStateException: boom\"}");
+        assertThat(auditLog.getDroppedRecords()).isZero();
+    }
+
+    @Test
+    public void rotateFiles() throws Exception {
+        // given
+        Path file = temporaryFolder.getRoot().toPath().resolve("audit.log");
+        AuditLog auditLog = new AuditLog(file, 1024, 200, 2);
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            auditLog.record(new AuditRecord(AuditRecord.Type.STEP, "step" + i, WorkStatus.COMPLETED, i, i, null, "main"));
+        }
+        auditLog.close();
+
+        // then
+        assertThat(file.resolveSibling("audit.log.1")).exists();
+        assertThat(file.resolveSibling("audit.log.2")).exists();
+        assertThat(file.resolveSibling("audit.log.3")).doesNotExist();
+        assertThat(Files.size(file.resolveSibling("audit.log.1"))).isGreaterThanOrEqualTo(200);
+    }
+
+    @Test
+    public void keepWritingWhenRecordCannotBeWritten() throws Exception {
+        // given
+        Path file = temporaryFolder.getRoot().toPath().resolve("audit.log");
+        AuditLog auditLog = new AuditLog(file);
+        Exception error = new IllegalStateException() {
+            @Override
+            public String toString() {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        // when
+        auditLog.record(new AuditRecord(AuditRecord.Type.STEP, "step", WorkStatus.FAILED, 0, 0, error, "main"));
+        while (auditLog.getDroppedRecords() == 0) {
+            Thread.yield();
+        }
+        auditLog.record(new AuditRecord(AuditRecord.Type.RUN, "flow", WorkStatus.COMPLETED, 0, 0, null, "main"));
+        auditLog.close();
+
+        // then
+        assertThat(Files.readAllLines(file, StandardCharsets.UTF_8)).hasSize(1).allMatch(line -> line.contains("\"flow\""));
+    }
+
+    @Test
+    public void keepWritingWhenFileCannotBeRotated() throws Exception {
+        // given
+        Path file = temporaryFolder.getRoot().toPath().resolve("audit.log");
+        Path rotatedFile = Files.createDirectory(file.resolveSibling("audit.log.1"));
+        Files.createFile(rotatedFile.resolve("blocker"));
+        AuditLog auditLog = new AuditLog(file, 1024, 200, 1);
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            auditLog.record(new AuditRecord(AuditRecord.Type.STEP, "step" + i, WorkStatus.COMPLETED, i, i, null, "main"));
+        }
+        auditLog.close();
+
+        // then
+        assertThat(Files.readAllLines(file, StandardCharsets.UTF_8)).hasSize(10);
+        assertThat(auditLog.getDroppedRecords()).isZero();
+    }
+
+    @Test
+    public void dropRecordsAfterClose() throws Exception {
+        // given
+        AuditLog auditLog = new AuditLog(temporaryFolder.getRoot().toPath().resolve("audit.log"));
+        auditLog.close();
+
+        // when
+        auditLog.record(new AuditRecord(AuditRecord.Type.RUN, "flow", WorkStatus.COMPLETED, 0, 0, null, "main"));
+
+        // then
+        assertThat(auditLog.getDroppedRecords()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.audit;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RingBufferTest {
+
+    @Test
+    public void rejectElementsWhenFull() {
+        // given
+        RingBuffer<Integer> ringBuffer = new RingBuffer<>(2);
+
+        // when
+        boolean first = ringBuffer.offer(1);
+        boolean second = ringBuffer.offer(2);
+        boolean third = ringBuffer.offer(3);
+
+        // then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        List<Integer> drained = new ArrayList<>();
+        assertThat(ringBuffer.drainTo(drained, 10)).isEqualTo(2);
+        assertThat(drained).containsExactly(1, 2);
+        assertThat(ringBuffer.offer(3)).isTrue();
+    }
+
+    @Test
+    public void deliverElementsOfConcurrentProducers() throws Exception {
+        // given
+        int producers = 4;
+        int elementsPerProducer = 10_000;
+        RingBuffer<Integer> ringBuffer = new RingBuffer<>(64);
+        ExecutorService executorService = Executors.newFixedThreadPool(producers);
+
+        // when
+        for (int producer = 0; producer < producers; producer++) {
+            executorService.execute(() -> {
+                for (int i = 0; i < elementsPerProducer; i++) {
+                    while (!ringBuffer.offer(i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+        List<Integer> drained = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (drained.size() < producers * elementsPerProducer && System.nanoTime() < deadline) {
+            ringBuffer.drainTo(drained, 128);
+        }
+        executorService.shutdown();
+
+        // then
+        assertThat(drained).hasSize(producers * elementsPerProducer);
+        assertThat(drained.stream().mapToLong(Integer::longValue).sum())
+                .isEqualTo((long) producers * elementsPerProducer * (elementsPerProducer - 1) / 2);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.definition;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class FlowDefinitionCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testCodecRoundTrip() {
+        FlowDefinitionCodec codec = new FlowDefinitionCodec();
+        FlowDefinition definition = new FlowDefinitionReader().read(FlowDefinitionReaderTest.JSON);
+
+        Assertions.assertThat(codec.decode(codec.encode(definition))).isEqualTo(definition);
+    }
+
+    @Test
+    public void testCodecRoundTripWithManyChildren() {
+        FlowDefinitionCodec codec = new FlowDefinitionCodec();
+        List<FlowDefinition> children = Collections.nCopies(70_000, FlowDefinition.work("work"));
+        FlowDefinition definition = FlowDefinition.sequential("large flow", children);
+
+        Assertions.assertThat(codec.decode(codec.encode(definition))).isEqualTo(definition);
+    }
+
+    @Test
+    public void testCodecRoundTripWithLongStrings() {
+        FlowDefinitionCodec codec = new FlowDefinitionCodec();
+        String reference = String.join("", Collections.nCopies(70_000, "\u00e9"));
+        FlowDefinition definition = FlowDefinition.work(reference);
+
+        Assertions.assertThat(codec.decode(codec.encode(definition))).isEqualTo(definition);
+    }
+
+    @Test
+    public void testLoadFromCache() throws IOException {
+        // given
+        Path directory = temporaryFolder.newFolder().toPath();
+        FlowDefinition expected = new FlowDefinitionReader().read(FlowDefinitionReaderTest.JSON);
+
+        // when
+        FlowDefinition parsed = new FlowDefinitionCache(directory).load(FlowDefinitionReaderTest.JSON);
+        FlowDefinition cached = new FlowDefinitionCache(directory).load(FlowDefinitionReaderTest.JSON);
+
+        // then
+        Assertions.assertThat(parsed).isEqualTo(expected);
+        Assertions.assertThat(cached).isEqualTo(expected);
+        Assertions.assertThat(entries(directory)).hasSize(1);
+    }
+
+    @Test
+    public void testParseAgainWhenCacheEntryIsCorrupted() throws IOException {
+        // given
+        Path directory = temporaryFolder.newFolder().toPath();
+        new FlowDefinitionCache(directory).load(FlowDefinitionReaderTest.JSON);
+        Files.write(entries(directory).get(0), new byte[]{1, 2, 3});
+
+        // when
+        FlowDefinition definition = new FlowDefinitionCache(directory).load(FlowDefinitionReaderTest.JSON);
+
+        // then
+        Assertions.assertThat(definition).isEqualTo(new FlowDefinitionReader().read(FlowDefinitionReaderTest.JSON));
+    }
+
+    private static List<Path> entries(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".efd")).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.definition;
+
+import org.assertj.core.api.Assertions;
+import org.jeasy.flows.work.DefaultWorkReport;
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+import org.jeasy.flows.workflow.WorkFlow;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class FlowDefinitionCompilerTest {
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(2);
+    private final Queue<String> messages = new ConcurrentLinkedQueue<>();
+
+    @After
+    public void tearDown() {
+        executorService.shutdown();
+    }
+
+    @Test
+    public void testCompile() {
+        // given
+        WorkRegistry workRegistry = new WorkRegistry()
+                .registerWork("print foo", new RecordMessageWork("foo"))
+                .registerWork("print hello", new RecordMessageWork("hello"))
+                .registerWork("print world", new RecordMessageWork("world"))
+                .registerWork("print ok", new RecordMessageWork("ok"))
+                .registerWork("print nok", new RecordMessageWork("nok"))
+                .registerExecutor("pool", executorService);
+        FlowDefinition definition = new FlowDefinitionReader().read(FlowDefinitionReaderTest.JSON);
+
+        // when
+        WorkFlow workFlow = new FlowDefinitionCompiler(workRegistry).compile(definition);
+        WorkReport workReport = workFlow.execute(new WorkContext());
+
+        // then
+        Assertions.assertThat(workFlow.getName()).isEqualTo("main flow");
+        Assertions.assertThat(workReport.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+        Assertions.assertThat(messages).containsExactlyInAnyOrder("foo", "foo", "foo", "hello", "world", "ok");
+    }
+
+    @Test
+    public void testRegisterLambdas() {
+        // given
+        WorkRegistry workRegistry = new WorkRegistry()
+                .registerWork("print lambda", workContext -> {
+                    messages.add("lambda");
+                    return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+                })
+                .registerPredicate("never", workReport -> false);
+        FlowDefinition definition = FlowDefinition.repeatUntil("repeat", FlowDefinition.work("print lambda"), "never");
+
+        // when
+        WorkReport workReport = new FlowDefinitionCompiler(workRegistry).compile(definition).execute(new WorkContext());
+
+        // then
+        Assertions.assertThat(workReport.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+        Assertions.assertThat(messages).containsExactly("lambda");
+    }
+
+    @Test
+    public void testRejectUnknownReferences() {
+        FlowDefinition definition = new FlowDefinitionReader().read(FlowDefinitionReaderTest.JSON);
+
+        Assertions.assertThatThrownBy(() -> new FlowDefinitionCompiler(new WorkRegistry()).compile(definition))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("print foo");
+    }
+
+    class RecordMessageWork implements Work {
+
+        private final String message;
+
+        RecordMessageWork(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public WorkReport execute(WorkContext workContext) {
+            messages.add(message);
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.definition;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class FlowDefinitionReaderTest {
+
+    static final String JSON = "{\n" +
+            "  \"type\": \"sequential\",\n" +
+            "  \"name\": \"main flow\",\n" +
+            "  \"execute\": [\n" +
+            "    {\"type\": \"repeat\", \"name\": \"print foo 3 times\", \"repeat\": \"print foo\", \"times\": 3},\n" +
+            "    {\"type\": \"conditional\",\n" +
+            "     \"execute\": {\"type\": \"parallel\", \"with\": \"pool\", \"execute\": [\"print hello\", {\"type\": \"work\", \"ref\": \"print world\"}]},\n" +
+            "     \"when\": \"COMPLETED\",\n" +
+            "     \"then\": \"print ok\",\n" +
+            "     \"otherwise\": \"print nok\"}\n" +
+            "  ]\n" +
+            "}";
+
+    private final FlowDefinitionReader reader = new FlowDefinitionReader();
+
+    @Test
+    public void testRead() {
+        // when
+        FlowDefinition definition = reader.read(JSON);
+
+        // then
+        FlowDefinition expected = FlowDefinition.sequential("main flow", Arrays.asList(
+                FlowDefinition.repeatTimes("print foo 3 times", FlowDefinition.work("print foo"), 3),
+                FlowDefinition.conditional(null,
+                        FlowDefinition.parallel(null, "pool", Arrays.asList(
+                                FlowDefinition.work("print hello"),
+                                FlowDefinition.work("print world"))),
+                        "COMPLETED",
+                        FlowDefinition.work("print ok"),
+                        FlowDefinition.work("print nok"))));
+        Assertions.assertThat(definition).isEqualTo(expected);
+    }
+
+    @Test
+    public void testReadEscapedStrings() {
+        FlowDefinition definition = reader.read("{\"type\": \"work\", \"ref\": \"say \\\"h\\u00e9llo\\\"\"}");
+
+        Assertions.assertThat(definition.getReference()).isEqualTo("say \"héllo\"");
+    }
+
+    @Test
+    public void testRejectInvalidDefinitions() {
+        Assertions.assertThatThrownBy(() -> reader.read("{\"type\": \"sequential\", \"execute\": []}"))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> reader.read("{\"type\": \"repeat\", \"repeat\": \"work\"}"))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> reader.read("{\"type\": \"repeat\", \"repeat\": \"work\", \"times\": 4294967297}"))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> reader.read("{\"type\": \"repeat\", \"repeat\": \"work\", \"times\": -1}"))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> reader.read("{\"type\": \"unknown\"}"))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> reader.read("{\"type\": \"work\", \"ref\": \"work\""))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.engine;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    public void fixedLimitDoesNotChange() {
+        ConcurrencyLimit limit = ConcurrencyLimit.fixed(5);
+
+        limit.onRunEnded(SLOW, 5, true);
+
+        assertThat(limit.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    public void aimdLimitIncreasesWhileRunsAreFastAndLimitIsUsed() {
+        ConcurrencyLimit limit = ConcurrencyLimit.aimd(10, 12, 100, TimeUnit.MILLISECONDS);
+
+        limit.onRunEnded(FAST, 2, false); // limit not used
+        assertThat(limit.getLimit()).isEqualTo(10);
+
+        limit.onRunEnded(FAST, 10, false);
+        limit.onRunEnded(FAST, 10, false);
+        limit.onRunEnded(FAST, 10, false);
+        assertThat(limit.getLimit()).isEqualTo(12);
+    }
+
+    @Test
+    public void aimdLimitDecreasesWhenRunsAreSlowOrDropped() {
+        ConcurrencyLimit limit = ConcurrencyLimit.aimd(100, 100, 100, TimeUnit.MILLISECONDS);
+
+        limit.onRunEnded(SLOW, 100, false);
+        assertThat(limit.getLimit()).isEqualTo(90);
+
+        limit.onRunEnded(FAST, 90, true);
+        assertThat(limit.getLimit()).isEqualTo(81);
+    }
+
+    @Test
+    public void gradientLimitFollowsLatency() {
+        ConcurrencyLimit limit = ConcurrencyLimit.gradient(20, 100);
+        for (int i = 0; i < 50; i++) {
+            limit.onRunEnded(FAST, limit.getLimit(), false);
+        }
+        int limitWhileFast = limit.getLimit();
+        assertThat(limitWhileFast).isGreaterThan(20);
+
+        for (int i = 0; i < 20; i++) {
+            limit.onRunEnded(FAST * 10, limit.getLimit(), false);
+        }
+
+        assertThat(limit.getLimit()).isLessThan(limitWhileFast);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.engine;
+
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CronExpressionTest {
+
+    private static final ZoneId UTC = ZoneId.of("UTC");
+
+    @Test
+    public void nextMatchingMinute() {
+        CronExpression expression = CronExpression.parse("*/15 * * * *");
+
+        assertThat(expression.next(utc(2026, 10, 19, 10, 7))).isEqualTo(utc(2026, 10, 19, 10, 15));
+        assertThat(expression.next(utc(2026, 10, 19, 10, 15))).isEqualTo(utc(2026, 10, 19, 10, 30));
+        assertThat(expression.next(utc(2026, 10, 19, 23, 50))).isEqualTo(utc(2026, 10, 20, 0, 0));
+    }
+
+    @Test
+    public void nextMatchingWeekDayWithNames() {
+        CronExpression expression = CronExpression.parse("0 9 * * MON-FRI");
+
+        // Friday after 9:00, next run is on Monday
+        assertThat(expression.next(utc(2026, 10, 23, 10, 0))).isEqualTo(utc(2026, 10, 26, 9, 0));
+    }
+
+    @Test
+    public void dayOfMonthOrDayOfWeekWhenBothAreRestricted() {
+        CronExpression expression = CronExpression.parse("0 0 13 * 5");
+
+        // Friday 23rd comes before the 13th of next month
+        assertThat(expression.next(utc(2026, 10, 19, 0, 0))).isEqualTo(utc(2026, 10, 23, 0, 0));
+        assertThat(expression.next(utc(2026, 11, 12, 0, 0))).isEqualTo(utc(2026, 11, 13, 0, 0));
+    }
+
+    @Test
+    public void sundayIsZeroOrSeven() {
+        assertThat(CronExpression.parse("0 0 * * 7").next(utc(2026, 10, 19, 0, 0)))
+                .isEqualTo(CronExpression.parse("@weekly").next(utc(2026, 10, 19, 0, 0)))
+                .isEqualTo(utc(2026, 10, 25, 0, 0));
+    }
+
+    @Test
+    public void timesSkippedByDaylightSavingAreShiftedForward() {
+        ZoneId paris = ZoneId.of("Europe/Paris");
+        CronExpression expression = CronExpression.parse("30 2 * * *");
+
+        ZonedDateTime next = expression.next(ZonedDateTime.of(2026, 3, 29, 0, 0, 0, 0, paris));
+
+        assertThat(next).isEqualTo(ZonedDateTime.of(2026, 3, 29, 3, 30, 0, 0, paris));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectOutOfRangeValues() {
+        CronExpression.parse("60 * * * *");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectStepsLargerThanTheRange() {
+        CronExpression.parse("5/2147483647 * * * *");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectMissingFields() {
+        CronExpression.parse("* * *");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failWhenNoTimeMatches() {
+        CronExpression.parse("0 0 30 2 *").next(utc(2026, 10, 19, 0, 0));
+    }
+
+    private static ZonedDateTime utc(int year, int month, int day, int hour, int minute) {
+        return ZonedDateTime.of(year, month, day, hour, minute, 0, 0, UTC);
+    }
+}
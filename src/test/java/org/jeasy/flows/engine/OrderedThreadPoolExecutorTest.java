@@ -0,0 +1,155 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.engine;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrderedThreadPoolExecutorTest {
+
+    @Test
+    public void interleaveTasksOfTenants() throws Exception {
+        // given
+        OrderedThreadPoolExecutor executor = newExecutor(PoolPolicy.Ordering.FAIR);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> await(release));
+        List<String> executions = new CopyOnWriteArrayList<>();
+
+        // when
+        submit(executor, new RunOptions().tenant("batch"), 4, executions);
+        submit(executor, new RunOptions().tenant("interactive"), 2, executions);
+        release.countDown();
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(executions).containsExactly("batch", "interactive", "batch", "interactive", "batch", "batch");
+    }
+
+    @Test
+    public void favorHigherPriorities() throws Exception {
+        // given
+        OrderedThreadPoolExecutor executor = newExecutor(PoolPolicy.Ordering.FAIR);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> await(release));
+        List<String> executions = new CopyOnWriteArrayList<>();
+
+        // when
+        submit(executor, new RunOptions().tenant("low"), 3, executions);
+        submit(executor, new RunOptions().tenant("high").priority(2), 4, executions);
+        release.countDown();
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(executions.subList(0, 6)).containsExactly("low", "high", "high", "low", "high", "high");
+    }
+
+    @Test
+    public void executeEarliestDeadlineFirst() throws Exception {
+        // given
+        OrderedThreadPoolExecutor executor = newExecutor(PoolPolicy.Ordering.EARLIEST_DEADLINE_FIRST);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> await(release));
+        List<String> executions = new CopyOnWriteArrayList<>();
+
+        // when
+        submit(executor, new RunOptions().tenant("none"), 1, executions);
+        submit(executor, new RunOptions().tenant("late").deadline(20, TimeUnit.SECONDS), 1, executions);
+        submit(executor, new RunOptions().tenant("soon").deadline(10, TimeUnit.SECONDS), 1, executions);
+        release.countDown();
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(executions).containsExactly("soon", "late", "none");
+    }
+
+    @Test
+    public void dropTasksWhoseDeadlineHasPassed() throws Exception {
+        dropTasksWhoseDeadlineHasPassed(PoolPolicy.Ordering.EARLIEST_DEADLINE_FIRST);
+    }
+
+    @Test
+    public void dropTasksWhoseDeadlineHasPassedInFifoPools() throws Exception {
+        dropTasksWhoseDeadlineHasPassed(PoolPolicy.Ordering.FIFO);
+    }
+
+    private static void dropTasksWhoseDeadlineHasPassed(PoolPolicy.Ordering ordering) throws Exception {
+        // given
+        OrderedThreadPoolExecutor executor = newExecutor(ordering);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> await(release));
+        List<String> executions = new CopyOnWriteArrayList<>();
+        RunOptions previous = RunOptions.enter(new RunOptions().deadline(0, TimeUnit.NANOSECONDS));
+        Future<?> expired;
+        try {
+            expired = executor.submit(() -> executions.add("expired"));
+        } finally {
+            RunOptions.restore(previous);
+        }
+
+        // when
+        release.countDown();
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(expired.isCancelled()).isTrue();
+        assertThat(executions).isEmpty();
+    }
+
+    private static OrderedThreadPoolExecutor newExecutor(PoolPolicy.Ordering ordering) {
+        return new OrderedThreadPoolExecutor(1, 100, Thread::new, new ThreadPoolExecutor.AbortPolicy(),
+                ordering, new FairQueueing(Collections.emptyMap()));
+    }
+
+    private static void submit(OrderedThreadPoolExecutor executor, RunOptions options, int tasks, List<String> executions) {
+        RunOptions previous = RunOptions.enter(options);
+        try {
+            for (int i = 0; i < tasks; i++) {
+                executor.submit(() -> executions.add(RunOptions.current().getTenant()));
+            }
+        } finally {
+            RunOptions.restore(previous);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
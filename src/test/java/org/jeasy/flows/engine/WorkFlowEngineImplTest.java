@@ -23,11 +23,23 @@
  */
 package org.jeasy.flows.engine;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.jeasy.flows.audit.AuditRecord;
+import org.jeasy.flows.profile.ExecutionProfile;
+import org.jeasy.flows.profile.ProfiledWorkReport;
+import org.jeasy.flows.profile.Span;
 import org.jeasy.flows.work.DefaultWorkReport;
 import org.jeasy.flows.work.Work;
 import org.jeasy.flows.work.WorkContext;
@@ -62,6 +74,243 @@ public class WorkFlowEngineImplTest {
         Mockito.verify(workFlow).execute(workContext);
     }
 
+    @Test
+    public void runParallelFlowOnEngineManagedPool() {
+        // given
+        WorkFlowEngine engine = aNewWorkFlowEngine()
+                .withPool("io", PoolPolicy.ioBound(2).queueCapacity(8))
+                .build();
+        ParallelFlow parallelFlow = aNewParallelFlow()
+                .execute(new PrintMessageWork("hello"), new PrintMessageWork("world"))
+                .with(engine.getPool("io"))
+                .build();
+
+        try {
+            // when
+            WorkReport workReport = engine.run(parallelFlow, new WorkContext());
+
+            // then
+            assertThat(workReport.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    public void shutdownTerminatesEngineManagedPools() throws Exception {
+        // given
+        WorkFlowEngine engine = aNewWorkFlowEngine()
+                .withPool("cpu", PoolPolicy.cpuBound())
+                .build();
+        ExecutorService pool = engine.getPool("cpu");
+
+        // when
+        engine.shutdown();
+
+        // then
+        assertThat(pool.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void shutdownDrainsInFlightRuns() throws Exception {
+        // given
+        List<Integer> drainedRuns = new ArrayList<>();
+        WorkFlowEngine engine = aNewWorkFlowEngine()
+                .withShutdownListener((drained, abandoned, elapsed) -> drainedRuns.add(drained))
+                .build();
+        BlockingWork blockingWork = new BlockingWork();
+        WorkFlow workFlow = aNewSequentialFlow().execute(blockingWork).build();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        Future<WorkReport> run = executorService.submit(() -> engine.run(workFlow, new WorkContext()));
+        blockingWork.started.await();
+
+        // when
+        new Thread(() -> {
+            sleep(50);
+            blockingWork.release.countDown();
+        }).start();
+        boolean drained = engine.shutdown(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(drained).isTrue();
+        assertThat(run.get().getStatus()).isEqualTo(WorkStatus.COMPLETED);
+        assertThat(drainedRuns).containsExactly(1);
+        executorService.shutdown();
+    }
+
+    @Test
+    public void shutdownCancelsRunsStillInFlightAfterTimeout() throws Exception {
+        // given
+        List<WorkFlow> abandonedRuns = new ArrayList<>();
+        WorkFlowEngine engine = aNewWorkFlowEngine()
+                .withShutdownListener((drained, abandoned, elapsed) -> abandonedRuns.addAll(abandoned))
+                .build();
+        BlockingWork blockingWork = new BlockingWork();
+        Work nextWork = Mockito.mock(Work.class);
+        WorkFlow workFlow = aNewSequentialFlow().execute(blockingWork).then(nextWork).build();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        Future<WorkReport> run = executorService.submit(() -> engine.run(workFlow, new WorkContext()));
+        blockingWork.started.await();
+
+        // when
+        boolean drained = engine.shutdown(50, TimeUnit.MILLISECONDS);
+        blockingWork.release.countDown();
+
+        // then
+        assertThat(drained).isFalse();
+        assertThat(abandonedRuns).containsExactly(workFlow);
+        WorkReport workReport = run.get();
+        assertThat(workReport.getStatus()).isEqualTo(WorkStatus.FAILED);
+        assertThat(workReport.getError()).isInstanceOf(CancellationException.class);
+        Mockito.verify(nextWork, Mockito.never()).execute(Mockito.any());
+        executorService.shutdown();
+    }
+
+    @Test
+    public void rejectRunsAfterShutdown() {
+        // given
+        WorkFlowEngine engine = aNewWorkFlowEngine().build();
+        Work work = Mockito.mock(Work.class);
+        engine.shutdown();
+
+        // when
+        WorkReport workReport = engine.run(aNewSequentialFlow().execute(work).build(), new WorkContext());
+
+        // then
+        assertThat(workReport.getStatus()).isEqualTo(WorkStatus.REJECTED);
+        assertThat(workReport.getError()).isInstanceOf(IllegalStateException.class);
+        Mockito.verify(work, Mockito.never()).execute(Mockito.any());
+    }
+
+    @Test
+    public void releasePayloadsWhenRunEnds() {
+        // given
+        WorkFlowEngine engine = aNewWorkFlowEngine().build();
+        Work work = workContext -> {
+            workContext.put("document", engine.getPayloadAllocator().allocate(new byte[]{1, 2, 3}));
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        };
+        WorkContext workContext = new WorkContext();
+
+        // when
+        engine.run(aNewSequentialFlow().execute(work).build(), workContext);
+
+        // then
+        assertThat(workContext.getPayload("document").isReleased()).isTrue();
+    }
+
+    @Test
+    public void recordRunsAndStepsInAuditSink() {
+        // given
+        List<AuditRecord> records = new CopyOnWriteArrayList<>();
+        WorkFlowEngine engine = aNewWorkFlowEngine().withAuditSink(records::add).build();
+        WorkFlow workFlow = aNewSequentialFlow()
+                .named("flow")
+                .execute(new PrintMessageWork("hello"))
+                .then(new PrintMessageWork("world"))
+                .build();
+
+        // when
+        engine.run(workFlow, new WorkContext());
+
+        // then
+        assertThat(records).extracting(AuditRecord::getType)
+                .containsExactly(AuditRecord.Type.STEP, AuditRecord.Type.STEP, AuditRecord.Type.RUN);
+        assertThat(records).extracting(AuditRecord::getName)
+                .containsExactly("print message work", "print message work", "flow");
+        assertThat(records).extracting(AuditRecord::getStatus).containsOnly(WorkStatus.COMPLETED);
+    }
+
+    @Test
+    public void attributeChangesOfUnnamedWorkToItsAuditedStep() {
+        // given
+        List<AuditRecord> records = new CopyOnWriteArrayList<>();
+        WorkFlowEngine engine = aNewWorkFlowEngine().withAuditSink(records::add).build();
+        WorkFlow workFlow = aNewSequentialFlow()
+                .execute(workContext -> {
+                    workContext.put("key", "value");
+                    return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+                })
+                .build();
+        WorkContext workContext = new WorkContext(true);
+
+        // when
+        engine.run(workFlow, workContext);
+
+        // then
+        String step = records.get(0).getName();
+        assertThat(workContext.getChangedKeys(step)).containsExactly("key");
+    }
+
+    @Test
+    public void admitQueuedRunsFairlyBetweenTenants() throws Exception {
+        // given
+        WorkFlowEngineImpl engine = (WorkFlowEngineImpl) aNewWorkFlowEngine().withMaxConcurrentRuns(1).build();
+        BlockingWork blockingWork = new BlockingWork();
+        List<String> admissions = new CopyOnWriteArrayList<>();
+        ExecutorService executorService = Executors.newCachedThreadPool();
+        executorService.submit(() -> engine.run(aNewSequentialFlow().execute(blockingWork).build(), new WorkContext()));
+        blockingWork.started.await();
+
+        // when
+        String[] tenants = {"batch", "batch", "batch", "interactive"};
+        for (int i = 0; i < tenants.length; i++) {
+            String tenant = tenants[i];
+            WorkFlow workFlow = aNewSequentialFlow()
+                    .execute(workContext -> {
+                        admissions.add(tenant);
+                        return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+                    })
+                    .build();
+            executorService.submit(() -> engine.run(workFlow, new WorkContext(), new RunOptions().tenant(tenant)));
+            while (engine.getAdmission().getQueuedRuns() < i + 1) {
+                Thread.yield();
+            }
+        }
+        blockingWork.release.countDown();
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(admissions).containsExactly("batch", "interactive", "batch", "batch");
+    }
+
+    @Test
+    public void rejectRunsOverAdmissionLimit() throws Exception {
+        // given
+        WorkFlowEngine engine = aNewWorkFlowEngine().withAdmissionLimit(ConcurrencyLimit.fixed(1)).build();
+        BlockingWork blockingWork = new BlockingWork();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        Future<WorkReport> admittedRun = executorService.submit(() -> engine.run(aNewSequentialFlow().execute(blockingWork).build(), new WorkContext()));
+        blockingWork.started.await();
+        Work work = Mockito.mock(Work.class);
+
+        // when
+        WorkReport workReport = engine.run(aNewSequentialFlow().execute(work).build(), new WorkContext());
+
+        // then
+        assertThat(workReport.getStatus()).isEqualTo(WorkStatus.REJECTED);
+        assertThat(workReport.getError()).isInstanceOf(RejectedExecutionException.class);
+        Mockito.verify(work, Mockito.never()).execute(Mockito.any());
+        blockingWork.release.countDown();
+        assertThat(admittedRun.get().getStatus()).isEqualTo(WorkStatus.COMPLETED);
+        engine.run(aNewSequentialFlow().execute(work).build(), new WorkContext());
+        Mockito.verify(work).execute(Mockito.any());
+        executorService.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getUnknownPool() {
+        workFlowEngine.getPool("unknown");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void declarePoolTwice() {
+        aNewWorkFlowEngine()
+                .withPool("io", PoolPolicy.ioBound())
+                .withPool("io", PoolPolicy.ioBound());
+    }
+
     /**
      * The following tests are not really unit tests, but serve as examples of how to create a workflow and execute it
      */
@@ -165,6 +414,69 @@ public class WorkFlowEngineImplTest {
         assertThat(workReport.getStatus()).isEqualTo(WorkStatus.COMPLETED);
     }
 
+    @Test
+    public void profiledRunReportsSpanTreeAndCriticalPath() {
+        // given
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        WorkFlow workflow = aNewSequentialFlow()
+                .named("flow")
+                .execute(new SleepWork("a", 5))
+                .then(aNewParallelFlow()
+                        .named("fan-out")
+                        .execute(new SleepWork("slow", 60), new SleepWork("fast", 5))
+                        .with(executorService)
+                        .build())
+                .then(new SleepWork("d", 5))
+                .build();
+
+        // when
+        WorkReport workReport = workFlowEngine.run(workflow, new WorkContext(), new RunOptions().profile(true));
+        executorService.shutdown();
+
+        // then
+        assertThat(workReport).isInstanceOf(ProfiledWorkReport.class);
+        assertThat(workReport.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+        ExecutionProfile profile = ((ProfiledWorkReport) workReport).getProfile();
+        Span root = profile.getRoot();
+        assertThat(root.getName()).isEqualTo("flow");
+        assertThat(root.getChildren()).extracting(Span::getName).containsExactly("a", "fan-out", "d");
+        Span fanOut = root.getChildren().get(1);
+        assertThat(fanOut.getChildren()).extracting(Span::getName).containsExactlyInAnyOrder("slow", "fast");
+        assertThat(fanOut.getChildren()).allMatch(branch -> !branch.getThread().equals(root.getThread()));
+        assertThat(profile.getCriticalPath()).extracting(Span::getName).containsExactly("flow", "a", "fan-out", "slow", "d");
+    }
+
+    @Test
+    public void runsAreNotProfiledByDefault() {
+        WorkFlow workflow = aNewSequentialFlow().execute(new SleepWork("a", 0)).build();
+
+        WorkReport workReport = workFlowEngine.run(workflow, new WorkContext());
+
+        assertThat(workReport).isNotInstanceOf(ProfiledWorkReport.class);
+    }
+
+    static class SleepWork implements Work {
+
+        private final String name;
+        private final long millis;
+
+        SleepWork(String name, long millis) {
+            this.name = name;
+            this.millis = millis;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public WorkReport execute(WorkContext workContext) {
+            sleep(millis);
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        }
+    }
+
     static class PrintMessageWork implements Work {
 
         private final String message;
@@ -240,4 +552,29 @@ public class WorkFlowEngineImplTest {
             return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
         }
     }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static class BlockingWork implements Work {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public WorkReport execute(WorkContext workContext) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        }
+    }
 }
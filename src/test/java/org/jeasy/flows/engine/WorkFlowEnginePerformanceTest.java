@@ -0,0 +1,214 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.engine;
+
+import org.jeasy.flows.work.DefaultWorkReport;
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+import org.jeasy.flows.workflow.WorkFlow;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jeasy.flows.engine.WorkFlowEngineBuilder.aNewWorkFlowEngine;
+import static org.jeasy.flows.workflow.ParallelFlow.Builder.aNewParallelFlow;
+import static org.jeasy.flows.workflow.RepeatFlow.Builder.aNewRepeatFlow;
+import static org.jeasy.flows.workflow.SequentialFlow.Builder.aNewSequentialFlow;
+
+/**
+ * Regression gates on the allocations and the overhead of the engine and flows. Work
+ * units do nothing, so what is measured is the cost of the framework. Bounds are several
+ * times the values measured when they were set, so that only real regressions fail.
+ *
+ * Allocations are checked in every build. Elapsed times depend on the machine running
+ * the build, so they are only checked when the {@code easyflows.timingGates} system
+ * property is true, for example with {@code mvn test -Deasyflows.timingGates=true}.
+ */
+public class WorkFlowEnginePerformanceTest {
+
+    private static final int STEPS = 10;
+    private static final int WARMUP_RUNS = 20_000;
+    private static final int MEASURED_RUNS = 10_000;
+    private static final boolean TIMING_GATES = Boolean.getBoolean("easyflows.timingGates");
+
+    private final List<Thread> poolThreads = new CopyOnWriteArrayList<>();
+    private final WorkFlowEngine engine = aNewWorkFlowEngine().build();
+    private ExecutorService executorService;
+    private com.sun.management.ThreadMXBean threadMXBean;
+
+    @Before
+    public void setUp() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue("Allocation counters are not supported by this JVM",
+                bean instanceof com.sun.management.ThreadMXBean
+                        && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported());
+        threadMXBean = (com.sun.management.ThreadMXBean) bean;
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        executorService = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable);
+            poolThreads.add(thread);
+            return thread;
+        });
+    }
+
+    @After
+    public void tearDown() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void sequentialFlow() {
+        WorkFlow workFlow = aNewSequentialFlow()
+                .execute(Arrays.asList(steps()))
+                .build();
+
+        Measurement measurement = measure(workFlow);
+
+        assertThat(measurement.bytesPerRun).as("%s", measurement).isLessThan(4 * 1024);
+        if (TIMING_GATES) {
+            assertThat(measurement.nanosPerStep).as("%s", measurement).isLessThan(5_000);
+        }
+    }
+
+    @Test
+    public void repeatFlow() {
+        // the number of iterations is counted in the work context, so that runs do not share a counter
+        WorkFlow workFlow = aNewRepeatFlow()
+                .repeat(new CountingWork())
+                .until(workReport -> (int) workReport.getWorkContext().get(CountingWork.ITERATIONS) < STEPS)
+                .build();
+
+        Measurement measurement = measure(workFlow);
+
+        assertThat(measurement.bytesPerRun).as("%s", measurement).isLessThan(4 * 1024);
+        if (TIMING_GATES) {
+            assertThat(measurement.nanosPerStep).as("%s", measurement).isLessThan(5_000);
+        }
+    }
+
+    @Test
+    public void parallelFlow() {
+        WorkFlow workFlow = aNewParallelFlow()
+                .execute(steps())
+                .with(executorService)
+                .build();
+
+        Measurement measurement = measure(workFlow);
+
+        assertThat(measurement.bytesPerRun).as("%s", measurement).isLessThan(16 * 1024);
+        if (TIMING_GATES) {
+            assertThat(measurement.nanosPerStep).as("%s", measurement).isLessThan(50_000);
+        }
+    }
+
+    private Measurement measure(WorkFlow workFlow) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            run(workFlow);
+        }
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            run(workFlow);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        return new Measurement(allocated / MEASURED_RUNS, elapsed / MEASURED_RUNS / STEPS);
+    }
+
+    private void run(WorkFlow workFlow) {
+        WorkReport workReport = engine.run(workFlow, new WorkContext());
+        assertThat(workReport.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+    }
+
+    /**
+     * Bytes allocated by the calling thread and by the threads of the pool.
+     */
+    private long allocatedBytes() {
+        long allocated = threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (Thread thread : poolThreads) {
+            allocated += Math.max(threadMXBean.getThreadAllocatedBytes(thread.getId()), 0);
+        }
+        return allocated;
+    }
+
+    private static Work[] steps() {
+        Work[] steps = new Work[STEPS];
+        Arrays.fill(steps, new CompletedWork());
+        return steps;
+    }
+
+    static class CompletedWork implements Work {
+
+        @Override
+        public String getName() {
+            return "completed";
+        }
+
+        @Override
+        public WorkReport execute(WorkContext workContext) {
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        }
+    }
+
+    static class CountingWork implements Work {
+
+        static final String ITERATIONS = "iterations";
+
+        @Override
+        public WorkReport execute(WorkContext workContext) {
+            Integer iterations = (Integer) workContext.get(ITERATIONS);
+            workContext.put(ITERATIONS, iterations == null ? 1 : iterations + 1);
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        }
+    }
+
+    static class Measurement {
+
+        private final long bytesPerRun;
+        private final long nanosPerStep;
+
+        Measurement(long bytesPerRun, long nanosPerStep) {
+            this.bytesPerRun = bytesPerRun;
+            this.nanosPerStep = nanosPerStep;
+        }
+
+        @Override
+        public String toString() {
+            return bytesPerRun + " bytes per run, " + nanosPerStep + " ns per step";
+        }
+    }
+}
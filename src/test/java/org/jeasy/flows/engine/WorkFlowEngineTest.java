@@ -0,0 +1,66 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.engine;
+
+import org.jeasy.flows.work.DefaultWorkReport;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+import org.jeasy.flows.workflow.WorkFlow;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.jeasy.flows.workflow.SequentialFlow.Builder.aNewSequentialFlow;
+
+public class WorkFlowEngineTest {
+
+    /**
+     * An engine implementing only the original method of the interface.
+     */
+    private final WorkFlowEngine engine = (workFlow, workContext) -> workFlow.execute(workContext);
+
+    @Test
+    public void runWithOptionsDelegatesToRun() {
+        // given
+        WorkFlow workFlow = aNewSequentialFlow()
+                .execute(workContext -> new DefaultWorkReport(WorkStatus.COMPLETED, workContext))
+                .build();
+
+        // when
+        WorkReport workReport = engine.run(workFlow, new WorkContext(), new RunOptions().tenant("tenant"));
+
+        // then
+        assertThat(workReport.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+    }
+
+    @Test
+    public void defaultMethodsDescribeMissingSupport() throws Exception {
+        assertThatThrownBy(() -> engine.getPool("io")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(engine::getPayloadAllocator).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(engine.shutdown(1, TimeUnit.SECONDS)).isTrue();
+    }
+}
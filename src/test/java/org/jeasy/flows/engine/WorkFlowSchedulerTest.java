@@ -0,0 +1,168 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.engine;
+
+import org.jeasy.flows.work.DefaultWorkReport;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkStatus;
+import org.jeasy.flows.workflow.WorkFlow;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.jeasy.flows.engine.WorkFlowEngineBuilder.aNewWorkFlowEngine;
+
+public class WorkFlowSchedulerTest {
+
+    private final WorkFlowEngine engine = aNewWorkFlowEngine().build();
+
+    @After
+    public void shutdown() {
+        engine.shutdown();
+    }
+
+    @Test
+    public void runAtFixedRateWithFreshContexts() throws Exception {
+        // given
+        Set<WorkContext> contexts = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        CountDownLatch runs = new CountDownLatch(3);
+        WorkFlow workFlow = workContext -> {
+            contexts.add(workContext);
+            runs.countDown();
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        };
+
+        // when
+        ScheduledWorkFlow scheduled = engine.schedule(workFlow, Trigger.fixedRate(0, 10, TimeUnit.MILLISECONDS));
+
+        // then
+        assertThat(runs.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(contexts).hasSizeGreaterThanOrEqualTo(3);
+        assertThat(scheduled.getRunCount()).isGreaterThanOrEqualTo(2);
+        assertThat(scheduled.isCancelled()).isFalse();
+    }
+
+    @Test
+    public void preventOverlappingRunsAndSkipMisfires() throws Exception {
+        // given
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch runs = new CountDownLatch(3);
+        WorkFlow slowWorkFlow = workContext -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(50);
+            running.decrementAndGet();
+            runs.countDown();
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        };
+        Trigger trigger = Trigger.fixedRate(0, 5, TimeUnit.MILLISECONDS)
+                .misfirePolicy(Trigger.MisfirePolicy.SKIP)
+                .misfireThreshold(0, TimeUnit.MILLISECONDS);
+
+        // when
+        ScheduledWorkFlow scheduled = engine.schedule(slowWorkFlow, trigger);
+
+        // then
+        assertThat(runs.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isEqualTo(1);
+        assertThat(scheduled.getMisfireCount()).isGreaterThan(0);
+    }
+
+    @Test
+    public void fireOnceOnMisfire() throws Exception {
+        // given
+        CountDownLatch runs = new CountDownLatch(3);
+        WorkFlow slowWorkFlow = workContext -> {
+            sleep(30);
+            runs.countDown();
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        };
+        Trigger trigger = Trigger.fixedRate(0, 5, TimeUnit.MILLISECONDS)
+                .misfireThreshold(1, TimeUnit.MILLISECONDS);
+
+        // when
+        ScheduledWorkFlow scheduled = engine.schedule(slowWorkFlow, trigger);
+
+        // then
+        assertThat(runs.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(scheduled.getMisfireCount()).isGreaterThan(0);
+    }
+
+    @Test
+    public void stopRunningWhenCancelled() throws Exception {
+        // given
+        AtomicInteger runs = new AtomicInteger();
+        WorkFlow workFlow = workContext -> {
+            runs.incrementAndGet();
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        };
+        ScheduledWorkFlow scheduled = engine.schedule(workFlow, Trigger.fixedDelay(0, 5, TimeUnit.MILLISECONDS));
+        while (scheduled.getRunCount() == 0) {
+            sleep(5);
+        }
+
+        // when
+        scheduled.cancel();
+        sleep(20); // let a run in progress finish
+        int runsAfterCancel = runs.get();
+        sleep(50);
+
+        // then
+        assertThat(scheduled.isCancelled()).isTrue();
+        assertThat(scheduled.getNextFireTime()).isEqualTo(-1);
+        assertThat(runs.get()).isEqualTo(runsAfterCancel);
+    }
+
+    @Test
+    public void cancelScheduledWorkFlowsOnShutdown() {
+        // given
+        WorkFlow workFlow = workContext -> new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        ScheduledWorkFlow scheduled = engine.schedule(workFlow, Trigger.cron("@yearly"));
+        assertThat(scheduled.getNextFireTime()).isGreaterThan(System.currentTimeMillis());
+
+        // when
+        engine.shutdown();
+
+        // then
+        assertThat(scheduled.isCancelled()).isTrue();
+        assertThatThrownBy(() -> engine.schedule(workFlow, Trigger.cron("@daily")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
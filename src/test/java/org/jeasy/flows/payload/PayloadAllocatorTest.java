@@ -0,0 +1,144 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.payload;
+
+import org.jeasy.flows.work.WorkContext;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PayloadAllocatorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final PayloadAllocator allocator = new PayloadAllocator();
+
+    @Test
+    public void allocateDirectPayload() {
+        // when
+        Payload payload = allocator.allocate(new byte[]{1, 2, 3});
+
+        // then
+        assertThat(payload.size()).isEqualTo(3);
+        assertThat(payload.buffer().isDirect()).isTrue();
+        assertThat(payload.toByteArray()).containsExactly(1, 2, 3);
+        assertThat(payload.isMapped()).isFalse();
+    }
+
+    @Test
+    public void reuseReleasedBuffers() {
+        // given
+        Payload payload = allocator.allocate(5000);
+
+        // when
+        payload.release();
+
+        // then
+        assertThat(allocator.getPooledBytes()).isEqualTo(8192);
+        Payload reused = allocator.allocate(6000);
+        assertThat(reused.size()).isEqualTo(6000);
+        assertThat(allocator.getPooledBytes()).isZero();
+    }
+
+    @Test
+    public void doNotPoolMoreThanMaximum() {
+        // given
+        PayloadAllocator allocator = new PayloadAllocator(PayloadAllocator.MIN_BUFFER_SIZE, Long.MAX_VALUE, null);
+        Payload payload1 = allocator.allocate(10);
+        Payload payload2 = allocator.allocate(10);
+
+        // when
+        payload1.release();
+        payload2.release();
+
+        // then
+        assertThat(allocator.getPooledBytes()).isEqualTo(PayloadAllocator.MIN_BUFFER_SIZE);
+    }
+
+    @Test
+    public void slicesShareMemoryWithoutCopy() {
+        // given
+        Payload payload = allocator.allocate(new byte[]{1, 2, 3, 4, 5});
+
+        // when
+        Payload slice = payload.slice(1, 3);
+        slice.buffer().put(0, (byte) 42);
+
+        // then
+        assertThat(slice.toByteArray()).containsExactly(42, 3, 4);
+        assertThat(payload.toByteArray()).containsExactly(1, 42, 3, 4, 5);
+    }
+
+    @Test
+    public void releasingSliceReleasesPayload() {
+        // given
+        Payload payload = allocator.allocate(16);
+        Payload slice = payload.slice(0, 8);
+
+        // when
+        slice.release();
+        payload.release();
+
+        // then
+        assertThat(payload.isReleased()).isTrue();
+        assertThat(allocator.getPooledBytes()).isEqualTo(PayloadAllocator.MIN_BUFFER_SIZE);
+        assertThatThrownBy(payload::buffer).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void spillLargePayloadsToMappedFiles() throws Exception {
+        // given
+        PayloadAllocator allocator = new PayloadAllocator(0, 1024, temporaryFolder.getRoot().toPath());
+
+        // when
+        Payload small = allocator.allocate(1024);
+        Payload large = allocator.allocate(1025);
+        large.buffer().put(1024, (byte) 7);
+
+        // then
+        assertThat(small.isMapped()).isFalse();
+        assertThat(large.isMapped()).isTrue();
+        assertThat(large.buffer().get(1024)).isEqualTo((byte) 7);
+        large.release();
+        assertThat(allocator.getPooledBytes()).isZero();
+    }
+
+    @Test
+    public void workContextReleasesPayloads() {
+        // given
+        WorkContext workContext = new WorkContext();
+        Payload payload = allocator.allocate(new byte[10]);
+        workContext.put("document", payload);
+
+        // when
+        workContext.releasePayloads();
+
+        // then
+        assertThat(workContext.getPayload("document").isReleased()).isTrue();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.profile;
+
+import org.jeasy.flows.work.WorkStatus;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExecutionProfileTest {
+
+    @Test
+    public void criticalPathFollowsTheLastBranchToEnd() {
+        // given a step followed by two parallel branches
+        Span root = span("root", 0, 0, 100);
+        Span step = child(root, "step", 0, 0, 30);
+        Span slowBranch = child(root, "slow", 30, 0, 70);
+        child(root, "fast", 30, 10, 20);
+
+        // when
+        ExecutionProfile profile = new ExecutionProfile(root);
+
+        // then
+        assertThat(profile.getCriticalPath()).containsExactly(root, step, slowBranch);
+    }
+
+    @Test
+    public void queueWaitCountsOnTheCriticalPath() {
+        // given a branch which runs for a short time after waiting for a thread
+        Span root = span("root", 0, 0, 100);
+        Span step = child(root, "step", 0, 0, 30);
+        child(root, "long running", 30, 0, 40);
+        Span queuedBranch = child(root, "queued", 30, 50, 20);
+
+        // when
+        ExecutionProfile profile = new ExecutionProfile(root);
+
+        // then
+        assertThat(profile.getCriticalPath()).containsExactly(root, step, queuedBranch);
+    }
+
+    @Test
+    public void nestSpansOpenedInTheSameThread() {
+        // given
+        Profiler profiler = new Profiler();
+
+        // when
+        Span outer = profiler.enter("outer");
+        Span inner = profiler.enter("inner");
+        profiler.exit(inner, null, new IllegalStateException());
+        Span branch = profiler.enter("branch", outer, System.nanoTime());
+        profiler.exit(branch, null, null);
+        profiler.exit(outer, null, null);
+
+        // then
+        assertThat(outer.getChildren()).containsExactly(inner, branch);
+        assertThat(inner.getStatus()).isEqualTo(WorkStatus.FAILED);
+        assertThat(outer.getEnd()).isGreaterThanOrEqualTo(branch.getEnd());
+        assertThat(profiler.current()).isNull();
+    }
+
+    private static Span span(String name, long start, long queueWait, long duration) {
+        Span span = new Span(name, start, queueWait);
+        span.end(duration, WorkStatus.COMPLETED);
+        return span;
+    }
+
+    private static Span child(Span parent, String name, long start, long queueWait, long duration) {
+        Span child = span(name, start, queueWait, duration);
+        parent.addChild(child);
+        return child;
+    }
+}
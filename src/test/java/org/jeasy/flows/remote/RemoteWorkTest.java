@@ -0,0 +1,256 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.remote;
+
+import org.jeasy.flows.work.DefaultWorkReport;
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+import org.junit.Test;
+
+import javax.management.BadAttributeValueExpException;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.net.ConnectException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RemoteWorkTest {
+
+    private final RemoteWorker worker = new RemoteWorker().register(new SquareWork());
+
+    @Test
+    public void executeOnWorkerAndCopyBackContext() {
+        // given
+        RemoteWork remoteWork = new RemoteWork("square", new LoopbackTransport(worker));
+        WorkContext workContext = new WorkContext();
+        workContext.put("input", 7);
+
+        // when
+        WorkReport workReport = remoteWork.execute(workContext);
+
+        // then
+        assertThat(workReport.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+        assertThat(workContext.get("output")).isEqualTo(49);
+    }
+
+    @Test
+    public void copyBackOnlyEntriesWrittenByTheWork() {
+        // given
+        WorkContext workContext = new WorkContext();
+        workContext.put("input", 7);
+        LoopbackTransport loopback = new LoopbackTransport(worker);
+        WorkTransport transport = request -> {
+            RemoteWorkResult result = loopback.execute(request);
+            // written by a sibling work unit while the remote work was running
+            workContext.put("input", 8);
+            return result;
+        };
+        RemoteWork remoteWork = new RemoteWork("square", transport);
+
+        // when
+        WorkReport workReport = remoteWork.execute(workContext);
+
+        // then
+        assertThat(workReport.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+        assertThat(workContext.get("output")).isEqualTo(49);
+        assertThat(workContext.get("input")).isEqualTo(8);
+    }
+
+    @Test
+    public void copyBackRegistersWithTheirKind() {
+        // given
+        RemoteWorker worker = new RemoteWorker().register(new Work() {
+            @Override
+            public String getName() {
+                return "bounds";
+            }
+
+            @Override
+            public WorkReport execute(WorkContext workContext) {
+                workContext.max("max").accumulate(7);
+                workContext.min("min").accumulate(3);
+                return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+            }
+        });
+        RemoteWork remoteWork = new RemoteWork("bounds", new LoopbackTransport(worker));
+        WorkContext workContext = new WorkContext();
+
+        // when
+        WorkReport workReport = remoteWork.execute(workContext);
+
+        // then
+        assertThat(workReport.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+        assertThat(workContext.max("max").get()).isEqualTo(7);
+        assertThat(workContext.min("min").get()).isEqualTo(3);
+    }
+
+    @Test
+    public void failOverToNextTransport() {
+        // given
+        WorkTransport unreachable = request -> {
+            throw new ConnectException("connection refused");
+        };
+        RemoteWork remoteWork = new RemoteWork("square", unreachable, new LoopbackTransport(worker));
+        WorkContext workContext = new WorkContext();
+        workContext.put("input", 3);
+
+        // when
+        WorkReport workReport = remoteWork.execute(workContext);
+
+        // then
+        assertThat(workReport.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+        assertThat(workContext.get("output")).isEqualTo(9);
+    }
+
+    @Test
+    public void doNotFailOverWhenRequestMayHaveBeenDelivered() {
+        // given
+        AtomicInteger executions = new AtomicInteger();
+        WorkTransport timingOut = request -> {
+            executions.incrementAndGet();
+            throw new IOException("read timed out");
+        };
+        RemoteWork remoteWork = new RemoteWork("square", timingOut, timingOut);
+        WorkContext workContext = new WorkContext();
+        workContext.put("input", 3);
+
+        // when
+        WorkReport workReport = remoteWork.execute(workContext);
+
+        // then
+        assertThat(workReport.getStatus()).isEqualTo(WorkStatus.FAILED);
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void failOverAfterAnyTransportFailureWhenWorkIsIdempotent() {
+        // given
+        WorkTransport timingOut = request -> {
+            throw new IOException("read timed out");
+        };
+        RemoteWork remoteWork = new RemoteWork("square", true, timingOut, new LoopbackTransport(worker));
+        WorkContext workContext = new WorkContext();
+        workContext.put("input", 3);
+
+        // when
+        WorkReport workReport = remoteWork.execute(workContext);
+
+        // then
+        assertThat(workReport.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+        assertThat(workContext.get("output")).isEqualTo(9);
+    }
+
+    @Test
+    public void failWhenAllTransportsFail() {
+        // given
+        WorkTransport unreachable = request -> {
+            throw new ConnectException("connection refused");
+        };
+        RemoteWork remoteWork = new RemoteWork("square", unreachable, unreachable);
+
+        // when
+        WorkReport workReport = remoteWork.execute(new WorkContext());
+
+        // then
+        assertThat(workReport.getStatus()).isEqualTo(WorkStatus.FAILED);
+        assertThat(workReport.getError()).isInstanceOf(IOException.class);
+        assertThat(workReport.getError().getCause().getSuppressed()).hasSize(1);
+    }
+
+    @Test
+    public void failWhenContextIsNotSerialisable() {
+        // given
+        RemoteWork remoteWork = new RemoteWork("square", new LoopbackTransport(worker));
+        WorkContext workContext = new WorkContext();
+        workContext.put("input", new Object());
+
+        // when
+        WorkReport workReport = remoteWork.execute(workContext);
+
+        // then
+        assertThat(workReport.getStatus()).isEqualTo(WorkStatus.FAILED);
+        assertThat(workReport.getError()).isInstanceOf(NotSerializableException.class);
+    }
+
+    @Test
+    public void failWhenWorkIsNotRegistered() {
+        // given
+        RemoteWork remoteWork = new RemoteWork("unknown", new LoopbackTransport(worker));
+
+        // when
+        WorkReport workReport = remoteWork.execute(new WorkContext());
+
+        // then
+        assertThat(workReport.getStatus()).isEqualTo(WorkStatus.FAILED);
+        assertThat(workReport.getError()).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void rejectExceptionsOutsideJavaPackagesUnlessAllowed() {
+        // given
+        RemoteWorker worker = new RemoteWorker().register(new Work() {
+            @Override
+            public String getName() {
+                return "fail";
+            }
+
+            @Override
+            public WorkReport execute(WorkContext workContext) {
+                return new DefaultWorkReport(WorkStatus.FAILED, workContext, new BadAttributeValueExpException("value"));
+            }
+        });
+        WorkContext workContext = new WorkContext();
+
+        // when
+        WorkReport rejected = new RemoteWork("fail", new LoopbackTransport(worker)).execute(workContext);
+        WorkReport allowed = new RemoteWork("fail", new LoopbackTransport(worker)
+                .allow(BadAttributeValueExpException.class)).execute(workContext);
+
+        // then
+        assertThat(rejected.getStatus()).isEqualTo(WorkStatus.FAILED);
+        assertThat(rejected.getError()).isNotInstanceOf(BadAttributeValueExpException.class);
+        assertThat(rejected.getError()).hasRootCauseInstanceOf(InvalidClassException.class);
+        assertThat(allowed.getStatus()).isEqualTo(WorkStatus.FAILED);
+        assertThat(allowed.getError()).isInstanceOf(BadAttributeValueExpException.class);
+    }
+
+    static class SquareWork implements Work {
+
+        @Override
+        public String getName() {
+            return "square";
+        }
+
+        @Override
+        public WorkReport execute(WorkContext workContext) {
+            int input = (int) workContext.get("input");
+            workContext.put("output", input * input);
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.remote;
+
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+import org.jeasy.flows.workflow.ParallelFlow;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SocketWorkerTest {
+
+    private static final String LOOPBACK = InetAddress.getLoopbackAddress().getHostAddress();
+    private static final byte[] SECRET = "a secret shared by tests".getBytes(StandardCharsets.UTF_8);
+
+    private SocketWorker socketWorker;
+
+    @Before
+    public void setUp() throws Exception {
+        RemoteWorker worker = new RemoteWorker().register(new RemoteWorkTest.SquareWork());
+        socketWorker = new SocketWorker(worker, SECRET, 0).start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        socketWorker.close();
+    }
+
+    @Test
+    public void executeParallelFlowBranchesOnWorker() {
+        // given
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        SocketTransport transport = new SocketTransport(LOOPBACK, socketWorker.getPort(), SECRET, 5, TimeUnit.SECONDS);
+        ParallelFlow parallelFlow = ParallelFlow.Builder.aNewParallelFlow()
+                .execute(new RemoteWork("square", transport), new RemoteWork("square", transport))
+                .with(executorService)
+                .build();
+        WorkContext workContext = new WorkContext();
+        workContext.put("input", 5);
+
+        // when
+        WorkReport workReport = parallelFlow.execute(workContext);
+        executorService.shutdown();
+
+        // then
+        assertThat(workReport.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+        assertThat(workContext.get("output")).isEqualTo(25);
+    }
+
+    @Test
+    public void failOverToAnotherWorkerWhenWorkerIsDown() throws Exception {
+        // given
+        SocketWorker downWorker = new SocketWorker(new RemoteWorker(), SECRET, 0);
+        int downPort = downWorker.getPort();
+        downWorker.close();
+        RemoteWork remoteWork = new RemoteWork("square",
+                new SocketTransport(LOOPBACK, downPort, SECRET, 1, TimeUnit.SECONDS),
+                new SocketTransport(LOOPBACK, socketWorker.getPort(), SECRET, 5, TimeUnit.SECONDS));
+        WorkContext workContext = new WorkContext();
+        workContext.put("input", 4);
+
+        // when
+        WorkReport workReport = remoteWork.execute(workContext);
+
+        // then
+        assertThat(workReport.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+        assertThat(workContext.get("output")).isEqualTo(16);
+    }
+
+    @Test
+    public void rejectTransportNotKnowingTheSecret() {
+        // given
+        byte[] wrongSecret = "not the shared secret".getBytes(StandardCharsets.UTF_8);
+        RemoteWork remoteWork = new RemoteWork("square",
+                new SocketTransport(LOOPBACK, socketWorker.getPort(), wrongSecret, 5, TimeUnit.SECONDS));
+        WorkContext workContext = new WorkContext();
+        workContext.put("input", 4);
+
+        // when
+        WorkReport workReport = remoteWork.execute(workContext);
+
+        // then
+        assertThat(workReport.getStatus()).isEqualTo(WorkStatus.FAILED);
+        assertThat(workContext.get("output")).isNull();
+    }
+
+    @Test
+    public void rejectValuesOfClassesNotAllowed() {
+        // given
+        RemoteWork remoteWork = new RemoteWork("square",
+                new SocketTransport(LOOPBACK, socketWorker.getPort(), SECRET, 5, TimeUnit.SECONDS));
+        WorkContext workContext = new WorkContext();
+        workContext.put("input", 4);
+        workContext.put("date", new Date());
+
+        // when
+        WorkReport workReport = remoteWork.execute(workContext);
+
+        // then
+        assertThat(workReport.getStatus()).isEqualTo(WorkStatus.FAILED);
+        assertThat(workContext.get("output")).isNull();
+    }
+
+    @Test
+    public void acceptValuesOfAllowedClasses() throws Exception {
+        // given
+        RemoteWorker worker = new RemoteWorker().register(new RemoteWorkTest.SquareWork());
+        try (SocketWorker dateWorker = new SocketWorker(worker, SECRET, 0).allow(Date.class).start()) {
+            RemoteWork remoteWork = new RemoteWork("square",
+                    new SocketTransport(LOOPBACK, dateWorker.getPort(), SECRET, 5, TimeUnit.SECONDS).allow(Date.class));
+            WorkContext workContext = new WorkContext();
+            workContext.put("input", 4);
+            workContext.put("date", new Date());
+
+            // when
+            WorkReport workReport = remoteWork.execute(workContext);
+
+            // then
+            assertThat(workReport.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+            assertThat(workContext.get("output")).isEqualTo(16);
+        }
+    }
+}
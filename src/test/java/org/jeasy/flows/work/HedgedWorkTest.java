@@ -0,0 +1,106 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.work;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HedgedWorkTest {
+
+	private final ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+	@After
+	public void tearDown() {
+		executorService.shutdownNow();
+	}
+
+	@Test
+	public void testExecuteWithoutHedging() {
+		// given
+		SlowFirstAttemptWork work = new SlowFirstAttemptWork(0);
+		HedgedWork hedgedWork = new HedgedWork(work, executorService, 95, 1, TimeUnit.SECONDS);
+
+		// when
+		WorkReport workReport = hedgedWork.execute(new WorkContext());
+
+		// then
+		Assertions.assertThat(workReport.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+		Assertions.assertThat(work.attempts.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void testExecuteWithHedging() {
+		// given
+		SlowFirstAttemptWork work = new SlowFirstAttemptWork(5000);
+		HedgedWork hedgedWork = new HedgedWork(work, executorService, 95, 10, TimeUnit.MILLISECONDS);
+
+		// when
+		long start = System.nanoTime();
+		WorkReport workReport = hedgedWork.execute(new WorkContext());
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		// then
+		Assertions.assertThat(workReport.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+		Assertions.assertThat(work.attempts.get()).isEqualTo(2);
+		Assertions.assertThat(elapsed).isLessThan(5000);
+	}
+
+	@Test
+	public void testLatencyTrackerEstimate() {
+		LatencyTracker latencyTracker = new LatencyTracker(100, 95, 42);
+		Assertions.assertThat(latencyTracker.getEstimate()).isEqualTo(42);
+		for (int i = 1; i <= 100; i++) {
+			latencyTracker.record(i);
+		}
+		Assertions.assertThat(latencyTracker.getEstimate()).isEqualTo(95);
+	}
+
+	static class SlowFirstAttemptWork implements Work {
+
+		private final long firstAttemptDuration;
+		private final AtomicInteger attempts = new AtomicInteger();
+
+		SlowFirstAttemptWork(long firstAttemptDuration) {
+			this.firstAttemptDuration = firstAttemptDuration;
+		}
+
+		@Override
+		public WorkReport execute(WorkContext workContext) {
+			if (attempts.incrementAndGet() == 1) {
+				try {
+					Thread.sleep(firstAttemptDuration);
+				} catch (InterruptedException e) {
+					return new DefaultWorkReport(WorkStatus.FAILED, workContext, e);
+				}
+			}
+			return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+		}
+	}
+}
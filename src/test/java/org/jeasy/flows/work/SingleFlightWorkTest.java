@@ -0,0 +1,228 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.work;
+
+import org.assertj.core.api.Assertions;
+import org.jeasy.flows.engine.WorkFlowEngine;
+import org.jeasy.flows.engine.WorkFlowEngineBuilder;
+import org.jeasy.flows.workflow.SequentialFlow;
+import org.jeasy.flows.workflow.WorkFlow;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SingleFlightWorkTest {
+
+	private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+	@After
+	public void tearDown() {
+		executorService.shutdownNow();
+	}
+
+	@Test
+	public void coalesceConcurrentExecutionsWithTheSameKey() throws Exception {
+		// given
+		LookupWork lookup = new LookupWork();
+		SingleFlightWork singleFlightWork = new SingleFlightWork(lookup, context -> context.get("sku"), "price");
+		WorkContext leaderContext = context("sku", "42");
+		WorkContext followerContext = context("sku", "42");
+
+		// when
+		Future<WorkReport> leader = executorService.submit(() -> singleFlightWork.execute(leaderContext));
+		lookup.started.await();
+		Future<WorkReport> follower = executorService.submit(() -> singleFlightWork.execute(followerContext));
+		awaitCoalesced(singleFlightWork, 1);
+		lookup.release.countDown();
+
+		// then
+		Assertions.assertThat(leader.get().getStatus()).isEqualTo(WorkStatus.COMPLETED);
+		Assertions.assertThat(follower.get().getStatus()).isEqualTo(WorkStatus.COMPLETED);
+		Assertions.assertThat(follower.get().getWorkContext()).isSameAs(followerContext);
+		Assertions.assertThat(followerContext.get("price")).isEqualTo("price of 42");
+		Assertions.assertThat(lookup.executions.get()).isEqualTo(1);
+		Assertions.assertThat(singleFlightWork.getInFlightCount()).isZero();
+	}
+
+	@Test
+	public void executeAgainOnceTheExecutionInFlightHasFinished() {
+		// given
+		LookupWork lookup = new LookupWork();
+		lookup.release.countDown();
+		SingleFlightWork singleFlightWork = new SingleFlightWork(lookup, context -> context.get("sku"));
+
+		// when
+		singleFlightWork.execute(context("sku", "42"));
+		singleFlightWork.execute(context("sku", "42"));
+
+		// then
+		Assertions.assertThat(lookup.executions.get()).isEqualTo(2);
+		Assertions.assertThat(singleFlightWork.getCoalescedCount()).isZero();
+	}
+
+	@Test
+	public void doNotCoalesceExecutionsWithDifferentOrNullKeys() throws Exception {
+		// given
+		LookupWork lookup = new LookupWork();
+		SingleFlightWork singleFlightWork = new SingleFlightWork(lookup, context -> context.get("sku"));
+
+		// when
+		Future<WorkReport> first = executorService.submit(() -> singleFlightWork.execute(context("sku", "1")));
+		Future<WorkReport> second = executorService.submit(() -> singleFlightWork.execute(context("sku", "2")));
+		Future<WorkReport> third = executorService.submit(() -> singleFlightWork.execute(new WorkContext()));
+		while (lookup.executions.get() < 3) {
+			Thread.sleep(5);
+		}
+		lookup.release.countDown();
+
+		// then
+		Assertions.assertThat(first.get().getStatus()).isEqualTo(WorkStatus.COMPLETED);
+		Assertions.assertThat(second.get().getStatus()).isEqualTo(WorkStatus.COMPLETED);
+		Assertions.assertThat(third.get().getStatus()).isEqualTo(WorkStatus.COMPLETED);
+		Assertions.assertThat(singleFlightWork.getCoalescedCount()).isZero();
+	}
+
+	@Test
+	public void followersFailWhenTheLeaderThrows() throws Exception {
+		// given
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Work failingWork = context -> {
+			started.countDown();
+			await(release);
+			throw new IllegalStateException("catalogue unavailable");
+		};
+		SingleFlightWork singleFlightWork = new SingleFlightWork(failingWork, context -> "key");
+		WorkContext followerContext = new WorkContext();
+
+		// when
+		Future<WorkReport> leader = executorService.submit(() -> singleFlightWork.execute(new WorkContext()));
+		started.await();
+		Future<WorkReport> follower = executorService.submit(() -> singleFlightWork.execute(followerContext));
+		awaitCoalesced(singleFlightWork, 1);
+		release.countDown();
+
+		// then
+		Assertions.assertThatThrownBy(leader::get).hasCauseInstanceOf(IllegalStateException.class);
+		WorkReport followerReport = follower.get();
+		Assertions.assertThat(followerReport.getStatus()).isEqualTo(WorkStatus.FAILED);
+		Assertions.assertThat(followerReport.getError()).hasMessage("catalogue unavailable");
+		Assertions.assertThat(followerReport.getWorkContext()).isSameAs(followerContext);
+	}
+
+	@Test
+	public void followersInOtherRunsGetTheirOwnCopyOfPayloads() throws Exception {
+		// given
+		WorkFlowEngine engine = WorkFlowEngineBuilder.aNewWorkFlowEngine().build();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch leaderRunEnded = new CountDownLatch(1);
+		SingleFlightWork[] singleFlightWork = new SingleFlightWork[1];
+		Work download = context -> {
+			context.put("blob", engine.getPayloadAllocator().allocate(new byte[]{1, 2, 3}));
+			started.countDown();
+			try {
+				awaitCoalesced(singleFlightWork[0], 1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return new DefaultWorkReport(WorkStatus.COMPLETED, context);
+		};
+		singleFlightWork[0] = new SingleFlightWork(download, context -> "key", "blob");
+		WorkFlow leaderFlow = SequentialFlow.Builder.aNewSequentialFlow()
+				.execute(singleFlightWork[0])
+				.build();
+		WorkFlow followerFlow = SequentialFlow.Builder.aNewSequentialFlow()
+				.execute(singleFlightWork[0])
+				.then(context -> {
+					// read the payload once the run of the leader has released its own
+					await(leaderRunEnded);
+					context.put("content", context.getPayload("blob").toByteArray());
+					return new DefaultWorkReport(WorkStatus.COMPLETED, context);
+				})
+				.build();
+		WorkContext leaderContext = new WorkContext();
+		WorkContext followerContext = new WorkContext();
+
+		// when
+		Future<WorkReport> leader = executorService.submit(() -> {
+			try {
+				return engine.run(leaderFlow, leaderContext);
+			} finally {
+				leaderRunEnded.countDown();
+			}
+		});
+		started.await();
+		Future<WorkReport> follower = executorService.submit(() -> engine.run(followerFlow, followerContext));
+
+		// then
+		Assertions.assertThat(leader.get().getStatus()).isEqualTo(WorkStatus.COMPLETED);
+		Assertions.assertThat(follower.get().getStatus()).isEqualTo(WorkStatus.COMPLETED);
+		Assertions.assertThat(leaderContext.getPayload("blob").isReleased()).isTrue();
+		Assertions.assertThat((byte[]) followerContext.get("content")).containsExactly(1, 2, 3);
+		Assertions.assertThat(followerContext.getPayload("blob")).isNotSameAs(leaderContext.getPayload("blob"));
+		Assertions.assertThat(followerContext.getPayload("blob").isReleased()).isTrue();
+	}
+
+	private static WorkContext context(String key, Object value) {
+		WorkContext workContext = new WorkContext();
+		workContext.put(key, value);
+		return workContext;
+	}
+
+	private static void awaitCoalesced(SingleFlightWork singleFlightWork, long count) throws InterruptedException {
+		while (singleFlightWork.getCoalescedCount() < count) {
+			Thread.sleep(5);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	static class LookupWork implements Work {
+
+		private final AtomicInteger executions = new AtomicInteger();
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public WorkReport execute(WorkContext workContext) {
+			executions.incrementAndGet();
+			started.countDown();
+			await(release);
+			workContext.put("price", "price of " + workContext.get("sku"));
+			return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+		}
+	}
+}
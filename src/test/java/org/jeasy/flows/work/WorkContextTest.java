@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.work;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WorkContextTest {
+
+	@Test
+	public void doNotTrackChangesByDefault() {
+		// given
+		WorkContext workContext = new WorkContext();
+
+		// when
+		workContext.put("key", "value");
+
+		// then
+		assertThat(workContext.isTrackingChanges()).isFalse();
+		assertThat(workContext.getChanges()).isEmpty();
+	}
+
+	@Test
+	public void recordChangesOfEachStep() {
+		// given
+		WorkContext workContext = new WorkContext(true);
+		workContext.put("input", 1);
+
+		// when
+		workContext.executeStep("step1", context -> {
+			context.put("a", 1);
+			context.put("b", 2);
+			return null;
+		});
+		workContext.executeStep("step2", context -> {
+			context.put("a", 3);
+			return null;
+		});
+
+		// then
+		List<WorkContextChange> changes = workContext.getChanges();
+		assertThat(changes).extracting(WorkContextChange::getKey).containsExactly("input", "a", "b", "a");
+		assertThat(changes).extracting(WorkContextChange::getStep).containsExactly(null, "step1", "step1", "step2");
+		assertThat(workContext.getChangedKeys("step1")).containsExactly("a", "b");
+		assertThat(workContext.getChangedKeys("step2")).containsExactly("a");
+	}
+
+	@Test
+	public void getChangesSinceCheckpoint() {
+		// given
+		WorkContext workContext = new WorkContext(true);
+		workContext.put("a", 1);
+		int checkpoint = workContext.getChanges().size();
+
+		// when
+		workContext.put("b", 2);
+
+		// then
+		assertThat(workContext.getChangesSince(checkpoint)).extracting(WorkContextChange::getKey).containsExactly("b");
+		assertThat(workContext.getChangesSince(checkpoint + 1)).isEmpty();
+	}
+
+	@Test
+	public void accumulateValuesOfConcurrentWriters() throws Exception {
+		// given
+		WorkContext workContext = new WorkContext();
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+		List<Callable<Void>> writers = new ArrayList<>();
+		for (int writer = 0; writer < 4; writer++) {
+			int offset = writer * 1000;
+			writers.add(() -> {
+				for (int i = 1; i <= 1000; i++) {
+					workContext.counter("count").increment();
+					workContext.doubleCounter("sum").add(0.5);
+					workContext.<Integer>bag("values").add(offset + i);
+					workContext.max("max").accumulate(offset + i);
+					workContext.min("min").accumulate(offset + i);
+				}
+				return null;
+			});
+		}
+
+		// when
+		for (Future<Void> future : executorService.invokeAll(writers)) {
+			future.get();
+		}
+		executorService.shutdown();
+
+		// then
+		assertThat(workContext.counter("count").sum()).isEqualTo(4000);
+		assertThat(workContext.doubleCounter("sum").sum()).isEqualTo(2000.0);
+		assertThat(workContext.<Integer>bag("values")).hasSize(4000).doesNotHaveDuplicates();
+		assertThat(workContext.max("max").get()).isEqualTo(4000);
+		assertThat(workContext.min("min").get()).isEqualTo(1);
+	}
+
+	@Test
+	public void rejectMixingMaximumAndMinimumOfSameKey() {
+		// given
+		WorkContext workContext = new WorkContext();
+		workContext.max("latency").accumulate(42);
+
+		// when / then
+		assertThatThrownBy(() -> workContext.min("latency"))
+				.isInstanceOf(ClassCastException.class)
+				.hasMessageContaining("latency");
+	}
+
+	@Test
+	public void rejectAccumulatorOfAnotherType() {
+		// given
+		WorkContext workContext = new WorkContext();
+		workContext.put("count", 1);
+
+		// when / then
+		assertThatThrownBy(() -> workContext.counter("count"))
+				.isInstanceOf(ClassCastException.class)
+				.hasMessageContaining("count");
+	}
+
+	@Test
+	public void recordCreationOfAccumulatorsAsChanges() {
+		// given
+		WorkContext workContext = new WorkContext(true);
+
+		// when
+		workContext.executeStep("step1", context -> {
+			context.counter("count").increment();
+			context.counter("count").increment();
+			return null;
+		});
+
+		// then
+		assertThat(workContext.getChanges()).extracting(WorkContextChange::getKey).containsExactly("count");
+		assertThat(workContext.getChangedKeys("step1")).containsExactly("count");
+	}
+}
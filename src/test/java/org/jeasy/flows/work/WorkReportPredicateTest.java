@@ -0,0 +1,110 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.work;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.jeasy.flows.work.WorkReportPredicate.ALWAYS_FALSE;
+import static org.jeasy.flows.work.WorkReportPredicate.ALWAYS_TRUE;
+import static org.jeasy.flows.work.WorkReportPredicate.COMPLETED;
+import static org.jeasy.flows.work.WorkReportPredicate.FAILED;
+
+public class WorkReportPredicateTest {
+
+	private final WorkReport completed = new DefaultWorkReport(WorkStatus.COMPLETED, new WorkContext());
+	private final WorkReport failed = new DefaultWorkReport(WorkStatus.FAILED, new WorkContext());
+
+	@Test
+	public void testStatusPredicates() {
+		Assertions.assertThat(COMPLETED.apply(completed)).isTrue();
+		Assertions.assertThat(COMPLETED.apply(failed)).isFalse();
+		Assertions.assertThat(FAILED.apply(failed)).isTrue();
+		Assertions.assertThat(WorkReportPredicate.statusIn(WorkStatus.values())).isSameAs(ALWAYS_TRUE);
+		Assertions.assertThat(WorkReportPredicate.statusIn()).isSameAs(ALWAYS_FALSE);
+	}
+
+	@Test
+	public void testConstantFolding() {
+		WorkReportPredicate custom = workReport -> true;
+		Assertions.assertThat(custom.and(ALWAYS_TRUE)).isSameAs(custom);
+		Assertions.assertThat(custom.and(ALWAYS_FALSE)).isSameAs(ALWAYS_FALSE);
+		Assertions.assertThat(custom.or(ALWAYS_TRUE)).isSameAs(ALWAYS_TRUE);
+		Assertions.assertThat(custom.or(ALWAYS_FALSE)).isSameAs(custom);
+		Assertions.assertThat(ALWAYS_TRUE.negate()).isSameAs(ALWAYS_FALSE);
+		Assertions.assertThat(custom.negate().negate()).isSameAs(custom);
+		Assertions.assertThat(COMPLETED.and(FAILED)).isSameAs(ALWAYS_FALSE);
+		Assertions.assertThat(COMPLETED.or(FAILED).or(WorkReportPredicate.statusIn(WorkStatus.REJECTED))).isSameAs(ALWAYS_TRUE);
+	}
+
+	@Test
+	public void testNegate() {
+		Assertions.assertThat(COMPLETED.negate().apply(failed)).isTrue();
+		Assertions.assertThat(COMPLETED.negate().apply(completed)).isFalse();
+		WorkReportPredicate custom = workReport -> workReport.getStatus() == WorkStatus.FAILED;
+		Assertions.assertThat(custom.negate().apply(completed)).isTrue();
+	}
+
+	@Test
+	public void testStatusChecksAreAppliedFirst() {
+		// given
+		AtomicInteger calls = new AtomicInteger();
+		WorkReportPredicate expensive = workReport -> calls.incrementAndGet() > 0;
+		WorkReportPredicate predicate = expensive.and(COMPLETED);
+
+		// when
+		boolean onFailed = predicate.apply(failed);
+		boolean onCompleted = predicate.apply(completed);
+
+		// then
+		Assertions.assertThat(onFailed).isFalse();
+		Assertions.assertThat(onCompleted).isTrue();
+		Assertions.assertThat(calls.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void testNestedComposition() {
+		WorkReportPredicate isFoo = workReport -> "foo".equals(workReport.getWorkContext().get("name"));
+		WorkReportPredicate predicate = COMPLETED.and(isFoo).or(FAILED.and(isFoo.negate()));
+		WorkContext foo = new WorkContext();
+		foo.put("name", "foo");
+
+		Assertions.assertThat(predicate.apply(new DefaultWorkReport(WorkStatus.COMPLETED, foo))).isTrue();
+		Assertions.assertThat(predicate.apply(new DefaultWorkReport(WorkStatus.FAILED, foo))).isFalse();
+		Assertions.assertThat(predicate.apply(failed)).isTrue();
+		Assertions.assertThat(predicate.apply(completed)).isFalse();
+	}
+
+	@Test
+	public void testTimesPredicateIsResetAfterReachingTimes() {
+		WorkReportPredicate predicate = WorkReportPredicate.TimesPredicate.times(2);
+
+		Assertions.assertThat(predicate.apply(completed)).isTrue();
+		Assertions.assertThat(predicate.apply(completed)).isFalse();
+		Assertions.assertThat(predicate.apply(completed)).isTrue();
+		Assertions.assertThat(predicate.apply(completed)).isFalse();
+	}
+}
@@ -23,9 +23,15 @@
  */
 package org.jeasy.flows.workflow;
 
+import java.util.concurrent.CancellationException;
+
+import org.assertj.core.api.Assertions;
+import org.jeasy.flows.work.DefaultWorkReport;
 import org.jeasy.flows.work.Work;
 import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
 import org.jeasy.flows.work.WorkReportPredicate;
+import org.jeasy.flows.work.WorkStatus;
 import org.junit.Test;
 import org.mockito.Mockito;
 
@@ -81,4 +87,28 @@ public class ConditionalFlowTest {
         Mockito.verify(nextOnPredicateSuccess, Mockito.never()).execute(workContext);
     }
 
+
+    @Test
+    public void skipBranchesWhenCancelled() {
+        // given
+        Work toExecute = workContext -> {
+            workContext.cancel();
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        };
+        Work nextOnPredicateSuccess = Mockito.mock(Work.class);
+        WorkContext workContext = new WorkContext();
+        ConditionalFlow conditionalFlow = ConditionalFlow.Builder.aNewConditionalFlow()
+                .execute(toExecute)
+                .when(WorkReportPredicate.ALWAYS_TRUE)
+                .then(nextOnPredicateSuccess)
+                .build();
+
+        // when
+        WorkReport workReport = conditionalFlow.execute(workContext);
+
+        // then
+        Mockito.verifyNoInteractions(nextOnPredicateSuccess);
+        Assertions.assertThat(workReport.getStatus()).isEqualTo(WorkStatus.FAILED);
+        Assertions.assertThat(workReport.getError()).isInstanceOf(CancellationException.class);
+    }
 }
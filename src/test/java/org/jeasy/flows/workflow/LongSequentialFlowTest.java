@@ -0,0 +1,115 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.workflow;
+
+import org.assertj.core.api.Assertions;
+import org.jeasy.flows.work.LongWork;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+
+public class LongSequentialFlowTest {
+
+    @Test
+    public void passOutputOfEachWorkAsInputOfTheNextOne() {
+        // given
+        LongWork increment = (input, workContext) -> input + 1;
+        LongWork square = (input, workContext) -> input * input;
+        LongSequentialFlow flow = LongSequentialFlow.Builder.aNewLongSequentialFlow()
+                .named("score")
+                .execute(increment)
+                .then(square)
+                .then(increment)
+                .build();
+
+        // when
+        long output = flow.execute(2, new WorkContext());
+
+        // then
+        Assertions.assertThat(output).isEqualTo(10);
+        Assertions.assertThat(flow.getName()).isEqualTo("score");
+    }
+
+    @Test
+    public void stopWhenContextIsCancelled() {
+        // given
+        LongWork cancelling = (input, workContext) -> {
+            workContext.cancel();
+            return input;
+        };
+        LongSequentialFlow flow = LongSequentialFlow.Builder.aNewLongSequentialFlow()
+                .execute(cancelling)
+                .then((input, workContext) -> input + 1)
+                .build();
+
+        // when
+        Throwable thrown = Assertions.catchThrowable(() -> flow.execute(1, new WorkContext()));
+
+        // then
+        Assertions.assertThat(thrown).isInstanceOf(CancellationException.class);
+    }
+
+    @Test
+    public void adaptToWorkAndTypedWork() {
+        // given
+        LongSequentialFlow flow = LongSequentialFlow.Builder.aNewLongSequentialFlow()
+                .execute((input, workContext) -> input * 3)
+                .build();
+        WorkContext workContext = new WorkContext();
+        workContext.put("input", 7);
+
+        // when
+        WorkReport workReport = LongWork.asWork(flow, "input", "output").execute(workContext);
+        TypedSequentialFlow<Long, Long> typedFlow = TypedSequentialFlow.Builder.aNewTypedSequentialFlow()
+                .execute(flow.boxed())
+                .then((Long input, WorkContext context) -> input + 1)
+                .build();
+
+        // then
+        Assertions.assertThat(workReport.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+        Assertions.assertThat(workContext.get("output")).isEqualTo(21L);
+        Assertions.assertThat(typedFlow.execute(2L, workContext)).isEqualTo(7L);
+    }
+
+    @Test
+    public void reportFailureOfAdaptedWork() {
+        // given
+        LongWork failing = (input, workContext) -> {
+            throw new ArithmeticException("overflow");
+        };
+        WorkContext workContext = new WorkContext();
+        workContext.put("input", 1L);
+
+        // when
+        WorkReport workReport = LongWork.asWork(failing, "input", "output").execute(workContext);
+
+        // then
+        Assertions.assertThat(workReport.getStatus()).isEqualTo(WorkStatus.FAILED);
+        Assertions.assertThat(workReport.getError()).isInstanceOf(ArithmeticException.class);
+        Assertions.assertThat(workContext.get("output")).isNull();
+    }
+}
@@ -33,9 +33,15 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public class ParallelFlowExecutorTest {
 
@@ -59,6 +65,101 @@ public class ParallelFlowExecutorTest {
         Assertions.assertThat(work2.isExecuted()).isTrue();
     }
 
+    @Test
+    public void testExecuteAdaptively() {
+
+        // given
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        ThreadRecordingWork cheap1 = new ThreadRecordingWork();
+        ThreadRecordingWork cheap2 = new ThreadRecordingWork();
+        ThreadRecordingWork cheap3 = new ThreadRecordingWork();
+        WorkContext workContext = Mockito.mock(WorkContext.class);
+        ParallelFlowExecutor parallelFlowExecutor = new ParallelFlowExecutor(executorService, TimeUnit.SECONDS.toNanos(1));
+        List<Work> workUnits = Arrays.asList(cheap1, cheap2, cheap3);
+
+        // when
+        List<WorkReport> firstReports = parallelFlowExecutor.executeInParallel(workUnits, workContext);
+        List<WorkReport> secondReports = parallelFlowExecutor.executeInParallel(workUnits, workContext);
+        executorService.shutdown();
+
+        // then
+        Assertions.assertThat(firstReports).hasSize(3);
+        Assertions.assertThat(secondReports).hasSize(3);
+        // the first work unit always runs in the calling thread, others only once they are known to be cheap
+        Assertions.assertThat(cheap1.threads).containsExactly(Thread.currentThread(), Thread.currentThread());
+        Assertions.assertThat(cheap2.threads.get(0)).isNotEqualTo(Thread.currentThread());
+        Assertions.assertThat(cheap2.threads.get(1)).isEqualTo(Thread.currentThread());
+        Assertions.assertThat(cheap3.threads.get(1)).isEqualTo(Thread.currentThread());
+    }
+
+    @Test
+    public void reportCancelledWorkUnitsAsFailed() {
+
+        // given
+        ExecutorService executorService = new CancellingExecutorService();
+        HelloWorldWork work = new HelloWorldWork("work", WorkStatus.COMPLETED);
+        WorkContext workContext = Mockito.mock(WorkContext.class);
+        ParallelFlowExecutor parallelFlowExecutor = new ParallelFlowExecutor(executorService);
+
+        // when
+        List<WorkReport> workReports = parallelFlowExecutor.executeInParallel(Collections.singletonList(work), workContext);
+
+        // then
+        Assertions.assertThat(work.isExecuted()).isFalse();
+        Assertions.assertThat(workReports).hasSize(1);
+        Assertions.assertThat(workReports.get(0).getStatus()).isEqualTo(WorkStatus.FAILED);
+        Assertions.assertThat(workReports.get(0).getError())
+                .isInstanceOf(CancellationException.class)
+                .hasMessageContaining("work");
+    }
+
+    /**
+     * Executor service cancelling tasks instead of running them, like an executor
+     * dropping tasks whose deadline has passed.
+     */
+    static class CancellingExecutorService extends AbstractExecutorService {
+
+        @Override
+        public void execute(Runnable command) {
+            ((Future<?>) command).cancel(false);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return false;
+        }
+    }
+
+    static class ThreadRecordingWork implements Work {
+
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        @Override
+        public WorkReport execute(WorkContext workContext) {
+            threads.add(Thread.currentThread());
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        }
+    }
+
     static class HelloWorldWork implements Work {
 
         private final String name;
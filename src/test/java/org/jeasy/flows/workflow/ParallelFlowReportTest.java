@@ -49,6 +49,15 @@ public class ParallelFlowReportTest {
 		Assertions.assertThat(parallelFlowReport.getStatus()).isEqualTo(WorkStatus.FAILED);
 	}
 
+	@Test
+	public void testGetStatusWithRejectedWorkUnit() {
+		WorkContext workContext = new WorkContext();
+		ParallelFlowReport report = new ParallelFlowReport();
+		report.add(new DefaultWorkReport(WorkStatus.COMPLETED, workContext));
+		report.add(new DefaultWorkReport(WorkStatus.REJECTED, workContext));
+		Assertions.assertThat(report.getStatus()).isEqualTo(WorkStatus.FAILED);
+	}
+
 	@Test
 	public void testGetError() {
 		Assertions.assertThat(parallelFlowReport.getError()).isEqualTo(exception);
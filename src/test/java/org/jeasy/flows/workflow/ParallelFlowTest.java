@@ -24,13 +24,19 @@
 package org.jeasy.flows.workflow;
 
 import org.assertj.core.api.Assertions;
+import org.jeasy.flows.work.DefaultWorkReport;
 import org.jeasy.flows.work.Work;
 import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
 import org.junit.Test;
 import org.mockito.Mockito;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class ParallelFlowTest {
 
@@ -52,4 +58,62 @@ public class ParallelFlowTest {
         Mockito.verify(parallelFlowExecutor).executeInParallel(works, workContext);
     }
 
+    @Test
+    public void testChangesAreAttributedToEachBranch() {
+        // given
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        WorkContext workContext = new WorkContext(true);
+        ParallelFlow parallelFlow = ParallelFlow.Builder.aNewParallelFlow()
+                .execute(new PutWork("branch1", "a"), new PutWork("branch2", "b"))
+                .with(executorService)
+                .build();
+
+        // when
+        parallelFlow.execute(workContext);
+        executorService.shutdown();
+
+        // then
+        Assertions.assertThat(workContext.getChangedKeys("branch1")).containsExactly("a");
+        Assertions.assertThat(workContext.getChangedKeys("branch2")).containsExactly("b");
+    }
+
+    static class PutWork implements Work {
+
+        private final String name;
+        private final String key;
+
+        PutWork(String name, String key) {
+            this.name = name;
+            this.key = key;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public WorkReport execute(WorkContext workContext) {
+            workContext.put(key, name);
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        }
+    }
+
+    @Test
+    public void testSkipBranchesWhenCancelled() {
+        // given
+        Work work = Mockito.mock(Work.class);
+        WorkContext workContext = new WorkContext();
+        workContext.cancel();
+        ParallelFlowExecutor parallelFlowExecutor = Mockito.mock(ParallelFlowExecutor.class);
+        ParallelFlow parallelFlow = new ParallelFlow("pf", Arrays.asList(work, work), parallelFlowExecutor);
+
+        // when
+        ParallelFlowReport parallelFlowReport = parallelFlow.execute(workContext);
+
+        // then
+        Mockito.verifyNoInteractions(parallelFlowExecutor, work);
+        Assertions.assertThat(parallelFlowReport.getStatus()).isEqualTo(WorkStatus.FAILED);
+        Assertions.assertThat(parallelFlowReport.getError()).isInstanceOf(CancellationException.class);
+    }
 }
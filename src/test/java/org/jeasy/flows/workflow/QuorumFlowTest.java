@@ -0,0 +1,181 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.workflow;
+
+import org.assertj.core.api.Assertions;
+import org.jeasy.flows.work.DefaultWorkReport;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkStatus;
+import org.jeasy.flows.workflow.RaceFlowTest.SleepingWork;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class QuorumFlowTest {
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(3);
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testReturnAsSoonAsQuorumIsReached() {
+        // given
+        QuorumFlow quorumFlow = QuorumFlow.Builder.aNewQuorumFlow()
+                .named("quorum")
+                .execute(new SleepingWork("work1", 10, WorkStatus.COMPLETED),
+                        new SleepingWork("work2", 20, WorkStatus.COMPLETED),
+                        new SleepingWork("work3", 5000, WorkStatus.COMPLETED))
+                .with(executorService)
+                .quorum(2)
+                .build();
+
+        // when
+        QuorumFlowReport report = quorumFlow.execute(new WorkContext());
+
+        // then
+        Assertions.assertThat(report.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+        Assertions.assertThat(report.getQuorum()).isEqualTo(2);
+        Assertions.assertThat(report.getCompletedReports()).hasSize(2);
+    }
+
+    @Test
+    public void testFailFastWhenQuorumCannotBeReached() {
+        // given
+        QuorumFlow quorumFlow = QuorumFlow.Builder.aNewQuorumFlow()
+                .execute(new SleepingWork("work1", 0, WorkStatus.FAILED),
+                        new SleepingWork("work2", 0, WorkStatus.FAILED),
+                        new SleepingWork("work3", 5000, WorkStatus.COMPLETED))
+                .with(executorService)
+                .quorum(2)
+                .build();
+
+        // when
+        QuorumFlowReport report = quorumFlow.execute(new WorkContext());
+
+        // then
+        Assertions.assertThat(report.getStatus()).isEqualTo(WorkStatus.FAILED);
+        Assertions.assertThat(report.getReports()).hasSize(2);
+    }
+
+    @Test
+    public void testThrowingWorkUnitIsReportedAsFailed() {
+        // given
+        IllegalStateException error = new IllegalStateException("boom");
+        QuorumFlow quorumFlow = QuorumFlow.Builder.aNewQuorumFlow()
+                .execute(context -> {
+                            throw error;
+                        },
+                        new SleepingWork("work2", 10, WorkStatus.COMPLETED),
+                        new SleepingWork("work3", 20, WorkStatus.COMPLETED))
+                .with(executorService)
+                .quorum(2)
+                .build();
+
+        // when
+        QuorumFlowReport report = quorumFlow.execute(new WorkContext());
+
+        // then
+        Assertions.assertThat(report.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+        Assertions.assertThat(report.getCompletedReports()).hasSize(2);
+        Assertions.assertThat(report.getError()).isSameAs(error);
+    }
+
+    @Test
+    public void testNullPartialReportsAreIgnored() {
+        // given
+        WorkContext workContext = new WorkContext();
+        workContext.put("key", "value");
+        QuorumFlowReport report = new QuorumFlowReport(Arrays.asList(null,
+                new DefaultWorkReport(WorkStatus.COMPLETED, workContext)), 1);
+
+        // then
+        Assertions.assertThat(report.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+        Assertions.assertThat(report.getError()).isNull();
+        Assertions.assertThat(report.getWorkContext().get("key")).isEqualTo("value");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidQuorum() {
+        QuorumFlow.Builder.aNewQuorumFlow()
+                .execute(new SleepingWork("work1", 0, WorkStatus.COMPLETED))
+                .with(executorService)
+                .quorum(2)
+                .build();
+    }
+
+    @Test
+    public void testSkipWorkUnitsWhenCancelled() {
+        // given
+        SleepingWork work = new SleepingWork("work1", 0, WorkStatus.COMPLETED);
+        QuorumFlow quorumFlow = QuorumFlow.Builder.aNewQuorumFlow()
+                .execute(work)
+                .with(executorService)
+                .quorum(1)
+                .build();
+        WorkContext workContext = new WorkContext();
+        workContext.cancel();
+
+        // when
+        QuorumFlowReport report = quorumFlow.execute(workContext);
+
+        // then
+        Assertions.assertThat(report.getStatus()).isEqualTo(WorkStatus.FAILED);
+        Assertions.assertThat(report.getError()).isInstanceOf(CancellationException.class);
+    }
+
+    @Test
+    public void testCancelSubmittedWorkUnitsWhenSubmissionIsRejected() throws Exception {
+        // given
+        ExecutorService singleThreadExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), new ThreadPoolExecutor.AbortPolicy());
+        SleepingWork submitted = new SleepingWork("work1", 5000, WorkStatus.COMPLETED);
+        QuorumFlow quorumFlow = QuorumFlow.Builder.aNewQuorumFlow()
+                .execute(submitted, new SleepingWork("work2", 0, WorkStatus.COMPLETED))
+                .with(singleThreadExecutor)
+                .quorum(1)
+                .build();
+
+        try {
+            // when
+            Assertions.assertThatThrownBy(() -> quorumFlow.execute(new WorkContext()))
+                    .isInstanceOf(RejectedExecutionException.class);
+
+            // then
+            Assertions.assertThat(submitted.interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            singleThreadExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.workflow;
+
+import org.assertj.core.api.Assertions;
+import org.jeasy.flows.work.DefaultWorkReport;
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class RaceFlowTest {
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(3);
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testFastestWorkUnitWins() throws InterruptedException {
+        // given
+        SleepingWork slow = new SleepingWork("slow", 5000, WorkStatus.COMPLETED);
+        SleepingWork fast = new SleepingWork("fast", 10, WorkStatus.COMPLETED);
+        RaceFlow raceFlow = RaceFlow.Builder.aNewRaceFlow()
+                .named("race")
+                .execute(slow, fast)
+                .with(executorService)
+                .build();
+        WorkContext workContext = new WorkContext();
+
+        // when
+        QuorumFlowReport report = raceFlow.execute(workContext);
+
+        // then
+        Assertions.assertThat(report.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+        Assertions.assertThat(report.getCompletedReports()).hasSize(1);
+        Assertions.assertThat(report.getCompletedReports().get(0).getWorkContext().get("winner")).isEqualTo("fast");
+        Assertions.assertThat(slow.interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void testFailedWorkUnitsDoNotWin() {
+        // given
+        SleepingWork failing = new SleepingWork("failing", 0, WorkStatus.FAILED);
+        SleepingWork completing = new SleepingWork("completing", 100, WorkStatus.COMPLETED);
+        RaceFlow raceFlow = RaceFlow.Builder.aNewRaceFlow()
+                .execute(failing, completing)
+                .with(executorService)
+                .build();
+
+        // when
+        QuorumFlowReport report = raceFlow.execute(new WorkContext());
+
+        // then
+        Assertions.assertThat(report.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+        Assertions.assertThat(report.getReports()).hasSize(2);
+    }
+
+    @Test
+    public void testAllWorkUnitsFail() {
+        // given
+        SleepingWork work1 = new SleepingWork("work1", 0, WorkStatus.FAILED);
+        SleepingWork work2 = new SleepingWork("work2", 0, WorkStatus.FAILED);
+        RaceFlow raceFlow = RaceFlow.Builder.aNewRaceFlow()
+                .execute(work1, work2)
+                .with(executorService)
+                .build();
+
+        // when
+        QuorumFlowReport report = raceFlow.execute(new WorkContext());
+
+        // then
+        Assertions.assertThat(report.getStatus()).isEqualTo(WorkStatus.FAILED);
+        Assertions.assertThat(report.getReports()).hasSize(2);
+    }
+
+    static class SleepingWork implements Work {
+
+        private final String name;
+        private final long duration;
+        private final WorkStatus status;
+        final CountDownLatch interrupted = new CountDownLatch(1);
+
+        SleepingWork(String name, long duration, WorkStatus status) {
+            this.name = name;
+            this.duration = duration;
+            this.status = status;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public WorkReport execute(WorkContext workContext) {
+            try {
+                Thread.sleep(duration);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                return new DefaultWorkReport(WorkStatus.FAILED, workContext, e);
+            }
+            WorkContext partialContext = new WorkContext();
+            partialContext.put("winner", name);
+            return new DefaultWorkReport(status, partialContext);
+        }
+    }
+}
@@ -23,12 +23,23 @@
  */
 package org.jeasy.flows.workflow;
 
+import org.assertj.core.api.Assertions;
+import org.jeasy.flows.work.DefaultWorkReport;
 import org.jeasy.flows.work.Work;
 import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
 import org.jeasy.flows.work.WorkReportPredicate;
+import org.jeasy.flows.work.WorkStatus;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 public class RepeatFlowTest {
 
     @Test
@@ -66,4 +77,57 @@ public class RepeatFlowTest {
         Mockito.verify(work, Mockito.times(3)).execute(workContext);
     }
 
+    @Test
+    public void testRepeatTimesCountsIterationsPerExecution() throws Exception {
+        // given
+        Work work = workContext -> {
+            workContext.put("iterations", (Integer) workContext.get("iterations") + 1);
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        };
+        RepeatFlow repeatFlow = RepeatFlow.Builder.aNewRepeatFlow()
+                .repeat(work)
+                .times(3)
+                .build();
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        List<Callable<Integer>> executions = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            executions.add(() -> {
+                WorkContext workContext = new WorkContext();
+                workContext.put("iterations", 0);
+                repeatFlow.execute(workContext);
+                return (Integer) workContext.get("iterations");
+            });
+        }
+
+        // when
+        List<Future<Integer>> iterations = executorService.invokeAll(executions);
+        executorService.shutdown();
+
+        // then
+        for (Future<Integer> future : iterations) {
+            Assertions.assertThat(future.get()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void testRepeatStopsWhenContextIsCancelled() {
+        // given
+        WorkContext workContext = new WorkContext();
+        Work work = Mockito.mock(Work.class);
+        Mockito.when(work.execute(workContext)).then(invocation -> {
+            workContext.cancel();
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        });
+        RepeatFlow repeatFlow = RepeatFlow.Builder.aNewRepeatFlow()
+                .repeat(work)
+                .times(3)
+                .build();
+
+        // when
+        WorkReport workReport = repeatFlow.execute(workContext);
+
+        // then
+        Mockito.verify(work, Mockito.times(1)).execute(workContext);
+        Assertions.assertThat(workReport.getStatus()).isEqualTo(WorkStatus.FAILED);
+    }
 }
@@ -0,0 +1,189 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.workflow;
+
+import org.assertj.core.api.Assertions;
+import org.jeasy.flows.work.DefaultWorkReport;
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+public class SequentialFlowPipelineTest {
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(3);
+
+    @After
+    public void tearDown() {
+        executorService.shutdown();
+    }
+
+    @Test
+    public void testProcess() {
+        // given
+        SequentialFlow sequentialFlow = SequentialFlow.Builder.aNewSequentialFlow()
+                .execute(new AppendWork("a"))
+                .then(new AppendWork("b"))
+                .then(new AppendWork("c"))
+                .build();
+        SequentialFlowPipeline pipeline = SequentialFlowPipeline.Builder.aNewSequentialFlowPipeline()
+                .of(sequentialFlow)
+                .with(executorService)
+                .bufferSize(2)
+                .build();
+        List<WorkContext> workContexts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            WorkContext workContext = new WorkContext();
+            workContext.put("id", i);
+            workContext.put("trace", "");
+            workContexts.add(workContext);
+        }
+
+        // when
+        List<WorkReport> workReports = pipeline.process(workContexts);
+
+        // then
+        Assertions.assertThat(workReports).hasSize(20);
+        for (int i = 0; i < 20; i++) {
+            WorkReport workReport = workReports.get(i);
+            Assertions.assertThat(workReport.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+            Assertions.assertThat(workReport.getWorkContext()).isSameAs(workContexts.get(i));
+            Assertions.assertThat(workReport.getWorkContext().get("trace")).isEqualTo("abc");
+        }
+    }
+
+    @Test
+    public void testProcessSkipsSubsequentWorkUnitsOnFailure() {
+        // given
+        SequentialFlow sequentialFlow = SequentialFlow.Builder.aNewSequentialFlow()
+                .execute(new AppendWork("a"))
+                .then(new FailOddIdsWork())
+                .then(new AppendWork("c"))
+                .build();
+        SequentialFlowPipeline pipeline = SequentialFlowPipeline.Builder.aNewSequentialFlowPipeline()
+                .of(sequentialFlow)
+                .with(executorService)
+                .build();
+        List<WorkContext> workContexts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            WorkContext workContext = new WorkContext();
+            workContext.put("id", i);
+            workContext.put("trace", "");
+            workContexts.add(workContext);
+        }
+
+        // when
+        List<WorkReport> workReports = pipeline.process(workContexts);
+
+        // then
+        Assertions.assertThat(workReports).extracting(WorkReport::getStatus)
+                .containsExactly(WorkStatus.COMPLETED, WorkStatus.FAILED, WorkStatus.COMPLETED, WorkStatus.FAILED);
+        Assertions.assertThat(workContexts.get(0).get("trace")).isEqualTo("ac");
+        Assertions.assertThat(workContexts.get(1).get("trace")).isEqualTo("a");
+    }
+
+    @Test
+    public void testProcessRethrowsErrorOfWorkUnit() {
+        // given
+        SequentialFlow sequentialFlow = SequentialFlow.Builder.aNewSequentialFlow()
+                .execute(new AppendWork("a"))
+                .then(workContext -> {
+                    throw new AssertionError("boom");
+                })
+                .then(new AppendWork("c"))
+                .build();
+        SequentialFlowPipeline pipeline = SequentialFlowPipeline.Builder.aNewSequentialFlowPipeline()
+                .of(sequentialFlow)
+                .with(executorService)
+                .build();
+        List<WorkContext> workContexts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            WorkContext workContext = new WorkContext();
+            workContext.put("trace", "");
+            workContexts.add(workContext);
+        }
+
+        // when
+        Throwable thrown = Assertions.catchThrowable(() -> pipeline.process(workContexts));
+
+        // then
+        Assertions.assertThat(thrown).isInstanceOf(AssertionError.class).hasMessage("boom");
+    }
+
+    @Test
+    public void testProcessRethrowsRejectionOfStage() {
+        // given
+        SequentialFlow sequentialFlow = SequentialFlow.Builder.aNewSequentialFlow()
+                .execute(new AppendWork("a"))
+                .then(new AppendWork("b"))
+                .build();
+        ExecutorService shutdownExecutorService = Executors.newSingleThreadExecutor();
+        shutdownExecutorService.shutdown();
+        SequentialFlowPipeline pipeline = SequentialFlowPipeline.Builder.aNewSequentialFlowPipeline()
+                .of(sequentialFlow)
+                .with(shutdownExecutorService)
+                .build();
+        WorkContext workContext = new WorkContext();
+        workContext.put("trace", "");
+
+        // when
+        Throwable thrown = Assertions.catchThrowable(() -> pipeline.process(Collections.singletonList(workContext)));
+
+        // then
+        Assertions.assertThat(thrown).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    static class AppendWork implements Work {
+
+        private final String suffix;
+
+        AppendWork(String suffix) {
+            this.suffix = suffix;
+        }
+
+        @Override
+        public WorkReport execute(WorkContext workContext) {
+            workContext.put("trace", workContext.get("trace") + suffix);
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        }
+    }
+
+    static class FailOddIdsWork implements Work {
+
+        @Override
+        public WorkReport execute(WorkContext workContext) {
+            int id = (int) workContext.get("id");
+            return new DefaultWorkReport(id % 2 == 0 ? WorkStatus.COMPLETED : WorkStatus.FAILED, workContext);
+        }
+    }
+}
@@ -25,9 +25,15 @@ package org.jeasy.flows.workflow;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
+import org.assertj.core.api.Assertions;
+import org.jeasy.flows.work.DefaultWorkReport;
 import org.jeasy.flows.work.Work;
 import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkContextChange;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
 import org.junit.Test;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
@@ -85,4 +91,69 @@ public class SequentialFlowTest {
         inOrder.verify(work4, Mockito.times(1)).execute(workContext);
     }
 
+    @Test
+    public void stopWhenContextIsCancelled() {
+        // given
+        WorkContext workContext = new WorkContext();
+        Work work1 = Mockito.mock(Work.class);
+        Work work2 = Mockito.mock(Work.class);
+        Mockito.when(work1.execute(workContext)).then(invocation -> {
+            workContext.cancel();
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        });
+        SequentialFlow sequentialFlow = SequentialFlow.Builder.aNewSequentialFlow()
+                .execute(work1)
+                .then(work2)
+                .build();
+
+        // when
+        WorkReport workReport = sequentialFlow.execute(workContext);
+
+        // then
+        Assertions.assertThat(workReport.getStatus()).isEqualTo(WorkStatus.FAILED);
+        Assertions.assertThat(workReport.getError()).isInstanceOf(CancellationException.class);
+        Mockito.verify(work2, Mockito.never()).execute(workContext);
+    }
+
+    @Test
+    public void attributeChangesToNestedSteps() {
+        // given
+        WorkContext workContext = new WorkContext(true);
+        SequentialFlow inner = SequentialFlow.Builder.aNewSequentialFlow()
+                .named("inner")
+                .execute(new ParallelFlowTest.PutWork("step2", "b"))
+                .build();
+        SequentialFlow sequentialFlow = SequentialFlow.Builder.aNewSequentialFlow()
+                .execute(new ParallelFlowTest.PutWork("step1", "a"))
+                .then(inner)
+                .then(new ParallelFlowTest.PutWork("step3", "c"))
+                .build();
+
+        // when
+        sequentialFlow.execute(workContext);
+
+        // then
+        Assertions.assertThat(workContext.getChanges())
+                .extracting(WorkContextChange::getStep)
+                .containsExactly("step1", "step2", "step3");
+    }
+
+    @Test
+    public void testExecuteSkipsSubsequentWorkUnitsWhenRejected() {
+        // given
+        Work work1 = workContext -> new DefaultWorkReport(WorkStatus.REJECTED, workContext);
+        Work work2 = Mockito.mock(Work.class);
+        WorkContext workContext = new WorkContext();
+        SequentialFlow sequentialFlow = SequentialFlow.Builder.aNewSequentialFlow()
+                .execute(work1)
+                .then(work2)
+                .build();
+
+        // when
+        WorkReport workReport = sequentialFlow.execute(workContext);
+
+        // then
+        Assertions.assertThat(workReport.getStatus()).isEqualTo(WorkStatus.REJECTED);
+        Mockito.verifyNoInteractions(work2);
+    }
 }
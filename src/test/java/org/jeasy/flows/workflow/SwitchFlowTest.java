@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.workflow;
+
+import org.assertj.core.api.Assertions;
+import org.jeasy.flows.work.DefaultWorkReport;
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.CancellationException;
+
+public class SwitchFlowTest {
+
+    @Test
+    public void callMatchingBranch() {
+        // given
+        Work toExecute = Mockito.mock(Work.class);
+        Work branch1 = Mockito.mock(Work.class);
+        Work branch2 = Mockito.mock(Work.class);
+        Work defaultBranch = Mockito.mock(Work.class);
+        WorkContext workContext = new WorkContext();
+        workContext.put("route", "b");
+        SwitchFlow switchFlow = SwitchFlow.Builder.aNewSwitchFlow()
+                .named("testFlow")
+                .execute(toExecute)
+                .on(workReport -> workContext.get("route"))
+                .when("a", branch1)
+                .when("b", branch2)
+                .otherwise(defaultBranch)
+                .build();
+
+        // when
+        switchFlow.execute(workContext);
+
+        // then
+        Mockito.verify(toExecute, Mockito.times(1)).execute(workContext);
+        Mockito.verify(branch2, Mockito.times(1)).execute(workContext);
+        Mockito.verify(branch1, Mockito.never()).execute(workContext);
+        Mockito.verify(defaultBranch, Mockito.never()).execute(workContext);
+    }
+
+    @Test
+    public void callDefaultBranchWhenNoBranchMatches() {
+        // given
+        Work toExecute = Mockito.mock(Work.class);
+        Work branch = Mockito.mock(Work.class);
+        Work defaultBranch = Mockito.mock(Work.class);
+        WorkContext workContext = Mockito.mock(WorkContext.class);
+        SwitchFlow switchFlow = SwitchFlow.Builder.aNewSwitchFlow()
+                .execute(toExecute)
+                .on(workReport -> "unknown")
+                .when("a", branch)
+                .otherwise(defaultBranch)
+                .build();
+
+        // when
+        switchFlow.execute(workContext);
+
+        // then
+        Mockito.verify(branch, Mockito.never()).execute(workContext);
+        Mockito.verify(defaultBranch, Mockito.times(1)).execute(workContext);
+    }
+
+    @Test
+    public void dispatchOnEnumKeys() {
+        // given
+        WorkContext workContext = Mockito.mock(WorkContext.class);
+        Work toExecute = context -> new DefaultWorkReport(WorkStatus.FAILED, context);
+        Work onCompleted = Mockito.mock(Work.class);
+        Work onFailed = Mockito.mock(Work.class);
+        SwitchFlow switchFlow = SwitchFlow.Builder.aNewSwitchFlow()
+                .execute(toExecute)
+                .on(WorkReport::getStatus)
+                .when(WorkStatus.COMPLETED, onCompleted)
+                .when(WorkStatus.FAILED, onFailed)
+                .build();
+
+        // when
+        switchFlow.execute(workContext);
+
+        // then
+        Mockito.verify(onFailed, Mockito.times(1)).execute(workContext);
+        Mockito.verify(onCompleted, Mockito.never()).execute(workContext);
+    }
+
+    @Test
+    public void callDefaultBranchForConstantOfAnotherEnum() {
+        // given
+        WorkContext workContext = Mockito.mock(WorkContext.class);
+        Work onCompleted = Mockito.mock(Work.class);
+        Work defaultBranch = Mockito.mock(Work.class);
+        SwitchFlow switchFlow = SwitchFlow.Builder.aNewSwitchFlow()
+                .execute(context -> new DefaultWorkReport(WorkStatus.COMPLETED, context))
+                .on(workReport -> Thread.State.TERMINATED)
+                .when(WorkStatus.COMPLETED, onCompleted)
+                .otherwise(defaultBranch)
+                .build();
+
+        // when
+        switchFlow.execute(workContext);
+
+        // then
+        Mockito.verify(onCompleted, Mockito.never()).execute(workContext);
+        Mockito.verify(defaultBranch, Mockito.times(1)).execute(workContext);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectDuplicateKeys() {
+        SwitchFlow.Builder.aNewSwitchFlow()
+                .execute(Mockito.mock(Work.class))
+                .on(WorkReport::getStatus)
+                .when("a", Mockito.mock(Work.class))
+                .when("a", Mockito.mock(Work.class));
+    }
+
+
+    @Test
+    public void skipBranchesWhenCancelled() {
+        // given
+        Work toExecute = workContext -> {
+            workContext.cancel();
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        };
+        Work branch = Mockito.mock(Work.class);
+        Work defaultBranch = Mockito.mock(Work.class);
+        WorkContext workContext = new WorkContext();
+        SwitchFlow switchFlow = SwitchFlow.Builder.aNewSwitchFlow()
+                .execute(toExecute)
+                .on(workReport -> "a")
+                .when("a", branch)
+                .otherwise(defaultBranch)
+                .build();
+
+        // when
+        WorkReport workReport = switchFlow.execute(workContext);
+
+        // then
+        Mockito.verifyNoInteractions(branch, defaultBranch);
+        Assertions.assertThat(workReport.getStatus()).isEqualTo(WorkStatus.FAILED);
+        Assertions.assertThat(workReport.getError()).isInstanceOf(CancellationException.class);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.workflow;
+
+import org.assertj.core.api.Assertions;
+import org.jeasy.flows.work.DefaultWorkReport;
+import org.jeasy.flows.work.TypedWork;
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReport;
+import org.jeasy.flows.work.WorkStatus;
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TypedSequentialFlowTest {
+
+    @Test
+    public void passOutputOfEachWorkAsInputOfTheNextOne() {
+        // given
+        TypedWork<String, Integer> length = (input, workContext) -> input.length();
+        TypedWork<Integer, String> stars = (input, workContext) -> new String(new char[input]).replace('\0', '*');
+        TypedSequentialFlow<String, String> flow = TypedSequentialFlow.Builder.aNewTypedSequentialFlow()
+                .named("testFlow")
+                .execute(length)
+                .then(stars)
+                .build();
+        WorkContext workContext = new WorkContext();
+
+        // when
+        String output = flow.execute("foo", workContext);
+
+        // then
+        Assertions.assertThat(output).isEqualTo("***");
+        Assertions.assertThat(flow.getName()).isEqualTo("testFlow");
+        Assertions.assertThat(workContext.getEntrySet()).isEmpty();
+    }
+
+    @Test
+    public void skipNextWorkUnitsWhenOneFails() {
+        // given
+        AtomicInteger executions = new AtomicInteger();
+        TypedWork<Integer, Integer> failing = (input, workContext) -> {
+            throw new IllegalArgumentException("boom");
+        };
+        TypedWork<Integer, Integer> next = (input, workContext) -> executions.incrementAndGet();
+        TypedSequentialFlow<Integer, Integer> flow = TypedSequentialFlow.Builder.aNewTypedSequentialFlow()
+                .execute(failing)
+                .then(next)
+                .build();
+
+        // when
+        Throwable thrown = Assertions.catchThrowable(() -> flow.execute(1, new WorkContext()));
+
+        // then
+        Assertions.assertThat(thrown).isInstanceOf(IllegalArgumentException.class).hasMessage("boom");
+        Assertions.assertThat(executions.get()).isZero();
+    }
+
+    @Test
+    public void stopWhenContextIsCancelled() {
+        // given
+        TypedWork<Integer, Integer> cancelling = (input, workContext) -> {
+            workContext.cancel();
+            return input;
+        };
+        TypedWork<Integer, Integer> next = (input, workContext) -> input + 1;
+        TypedSequentialFlow<Integer, Integer> flow = TypedSequentialFlow.Builder.aNewTypedSequentialFlow()
+                .execute(cancelling)
+                .then(next)
+                .build();
+
+        // when
+        Throwable thrown = Assertions.catchThrowable(() -> flow.execute(1, new WorkContext()));
+
+        // then
+        Assertions.assertThat(thrown).isInstanceOf(CancellationException.class);
+    }
+
+    @Test
+    public void interoperateWithUntypedWorkUnitsAndFlows() {
+        // given
+        Work untyped = workContext -> {
+            workContext.put("visited", true);
+            return new DefaultWorkReport(WorkStatus.COMPLETED, workContext);
+        };
+        TypedWork<Integer, Integer> twice = (input, workContext) -> input * 2;
+        TypedSequentialFlow<Integer, Integer> flow = TypedSequentialFlow.Builder.aNewTypedSequentialFlow()
+                .execute(twice)
+                .then(TypedWork.of(untyped))
+                .then(twice)
+                .build();
+        SequentialFlow sequentialFlow = SequentialFlow.Builder.aNewSequentialFlow()
+                .execute(TypedWork.asWork(flow, "input", "output"))
+                .build();
+        WorkContext workContext = new WorkContext();
+        workContext.put("input", 3);
+
+        // when
+        WorkReport workReport = sequentialFlow.execute(workContext);
+
+        // then
+        Assertions.assertThat(workReport.getStatus()).isEqualTo(WorkStatus.COMPLETED);
+        Assertions.assertThat(workContext.get("output")).isEqualTo(12);
+        Assertions.assertThat(workContext.get("visited")).isEqualTo(true);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+package org.jeasy.flows.workflow;
+
+import org.assertj.core.api.Assertions;
+import org.jeasy.flows.work.NoOpWork;
+import org.jeasy.flows.work.Work;
+import org.jeasy.flows.work.WorkContext;
+import org.jeasy.flows.work.WorkReportPredicate;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class WorkFlowOptimizerTest {
+
+    private final WorkFlowOptimizer optimizer = new WorkFlowOptimizer();
+    private final ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+    @After
+    public void tearDown() {
+        executorService.shutdown();
+    }
+
+    @Test
+    public void flattenNestedSequentialFlowsAndRemoveNoOpWork() {
+        // given
+        Work work1 = Mockito.mock(Work.class);
+        Work work2 = Mockito.mock(Work.class);
+        Work work3 = Mockito.mock(Work.class);
+        SequentialFlow sequentialFlow = SequentialFlow.Builder.aNewSequentialFlow()
+                .named("main")
+                .execute(work1)
+                .then(new NoOpWork())
+                .then(SequentialFlow.Builder.aNewSequentialFlow()
+                        .execute(work2)
+                        .then(work3)
+                        .build())
+                .build();
+
+        // when
+        WorkFlow optimized = optimizer.optimize(sequentialFlow);
+
+        // then
+        Assertions.assertThat(optimized).isInstanceOf(SequentialFlow.class);
+        Assertions.assertThat(optimized.getName()).isEqualTo("main");
+        Assertions.assertThat(((SequentialFlow) optimized).getWorkUnits()).containsExactly(work1, work2, work3);
+        WorkContext workContext = Mockito.mock(WorkContext.class);
+        optimized.execute(workContext);
+        InOrder inOrder = Mockito.inOrder(work1, work2, work3);
+        inOrder.verify(work1).execute(workContext);
+        inOrder.verify(work2).execute(workContext);
+        inOrder.verify(work3).execute(workContext);
+    }
+
+    @Test
+    public void collapseConditionalFlowsWithConstantPredicates() {
+        // given
+        Work work1 = Mockito.mock(Work.class);
+        Work work2 = Mockito.mock(Work.class);
+        ConditionalFlow withoutOtherwise = ConditionalFlow.Builder.aNewConditionalFlow()
+                .execute(work1)
+                .when(WorkReportPredicate.ALWAYS_FALSE)
+                .then(work2)
+                .build();
+        ConditionalFlow withoutInitialWork = ConditionalFlow.Builder.aNewConditionalFlow()
+                .execute(new NoOpWork())
+                .when(WorkReportPredicate.ALWAYS_TRUE)
+                .then(work2)
+                .build();
+        ConditionalFlow notConstant = ConditionalFlow.Builder.aNewConditionalFlow()
+                .execute(work1)
+                .when(WorkReportPredicate.COMPLETED)
+                .then(work2)
+                .build();
+
+        // when
+        SequentialFlow optimized = (SequentialFlow) optimizer.optimize(SequentialFlow.Builder.aNewSequentialFlow()
+                .execute(withoutOtherwise)
+                .then(withoutInitialWork)
+                .then(notConstant)
+                .build());
+
+        // then
+        Assertions.assertThat(optimized.getWorkUnits()).containsExactly(work1, work2, notConstant);
+    }
+
+    @Test
+    public void inlineRepeatFlowsThatNeverRepeat() {
+        Work work = Mockito.mock(Work.class);
+        RepeatFlow repeatFlow = RepeatFlow.Builder.aNewRepeatFlow()
+                .named("repeat")
+                .repeat(work)
+                .until(WorkReportPredicate.ALWAYS_FALSE)
+                .build();
+
+        WorkFlow optimized = optimizer.optimize(repeatFlow);
+
+        Assertions.assertThat(optimized).isInstanceOf(SequentialFlow.class);
+        Assertions.assertThat(optimized.getName()).isEqualTo("repeat");
+        Assertions.assertThat(((SequentialFlow) optimized).getWorkUnits()).containsExactly(work);
+    }
+
+    @Test
+    public void mergeNestedParallelFlowsAndInlineSingleBranchParallelFlows() {
+        // given
+        Work work1 = Mockito.mock(Work.class);
+        Work work2 = Mockito.mock(Work.class);
+        Work work3 = Mockito.mock(Work.class);
+        Work work4 = Mockito.mock(Work.class);
+        ParallelFlow singleBranch = ParallelFlow.Builder.aNewParallelFlow()
+                .execute(work1)
+                .with(executorService)
+                .build();
+        ParallelFlow parallelFlow = ParallelFlow.Builder.aNewParallelFlow()
+                .named("parallel")
+                .execute(work2, ParallelFlow.Builder.aNewParallelFlow()
+                        .execute(work3, work4)
+                        .with(executorService)
+                        .build())
+                .with(executorService)
+                .build();
+
+        // when
+        SequentialFlow optimized = (SequentialFlow) optimizer.optimize(SequentialFlow.Builder.aNewSequentialFlow()
+                .execute(singleBranch)
+                .then(parallelFlow)
+                .build());
+
+        // then
+        Assertions.assertThat(optimized.getWorkUnits()).hasSize(2);
+        Assertions.assertThat(optimized.getWorkUnits().get(0)).isSameAs(work1);
+        ParallelFlow merged = (ParallelFlow) optimized.getWorkUnits().get(1);
+        Assertions.assertThat(merged.getName()).isEqualTo("parallel");
+        Assertions.assertThat(merged.getWorkUnits()).containsExactly(work2, work3, work4);
+    }
+
+    @Test
+    public void keepParallelFlowsWithDifferentExecutors() {
+        ExecutorService otherExecutorService = Executors.newSingleThreadExecutor();
+        try {
+            ParallelFlow nested = ParallelFlow.Builder.aNewParallelFlow()
+                    .execute(Mockito.mock(Work.class), Mockito.mock(Work.class))
+                    .with(otherExecutorService)
+                    .build();
+            ParallelFlow parallelFlow = ParallelFlow.Builder.aNewParallelFlow()
+                    .execute(Mockito.mock(Work.class), nested)
+                    .with(executorService)
+                    .build();
+
+            Assertions.assertThat(optimizer.optimize(parallelFlow)).isSameAs(parallelFlow);
+        } finally {
+            otherExecutorService.shutdown();
+        }
+    }
+}